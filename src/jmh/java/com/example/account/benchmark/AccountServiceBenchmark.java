@@ -0,0 +1,36 @@
+package com.example.account.benchmark;
+
+import com.example.account.domain.AccountUser;
+import com.example.account.dto.AccountDto;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * AccountService.createAccount 벤치마크
+ * 유저당 최대 계좌 10개 제한이 있어서 10개마다 새 유저를 만든다.
+ */
+@State(Scope.Thread)
+public class AccountServiceBenchmark {
+    private static final int MAX_ACCOUNT_PER_USER = 10;
+
+    private AccountUser accountUser;
+    private int createdForUser;
+
+    @Setup(Level.Iteration)
+    public void setUp(BenchmarkContext ctx) {
+        nextUser(ctx);
+    }
+
+    @Benchmark
+    public AccountDto createAccount(BenchmarkContext ctx) {
+        if (createdForUser == MAX_ACCOUNT_PER_USER) {
+            nextUser(ctx);
+        }
+        createdForUser++;
+        return ctx.accountService.createAccount(accountUser.getId(), 1000L);
+    }
+
+    private void nextUser(BenchmarkContext ctx) {
+        accountUser = ctx.newUser("bench-account");
+        createdForUser = 0;
+    }
+}
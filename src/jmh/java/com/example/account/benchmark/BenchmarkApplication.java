@@ -0,0 +1,63 @@
+package com.example.account.benchmark;
+
+import com.example.account.config.JpaAuditingConfiguration;
+import com.example.account.config.RedisRepositoryConfig;
+import com.example.account.domain.Account;
+import com.example.account.repository.AccountRepository;
+import com.example.account.service.AccountCache;
+import com.example.account.service.AccountNumberAllocator;
+import com.example.account.service.AccountNumberFilter;
+import com.example.account.service.AccountService;
+import com.example.account.service.DirectTransactionRecorder;
+import com.example.account.service.FailedTransactionRecorder;
+import com.example.account.service.InMemoryLockProvider;
+import com.example.account.service.LockAopAspect;
+import com.example.account.service.LockMetrics;
+import com.example.account.service.LocalLockTier;
+import com.example.account.service.LockService;
+import com.example.account.service.OptimisticRetryAspect;
+import com.example.account.service.OwnedAccountLoader;
+import com.example.account.service.ReconciliationService;
+import com.example.account.service.RedissonLockProvider;
+import com.example.account.service.SnowflakeTransactionIdGenerator;
+import com.example.account.service.TransactionQueryCache;
+import com.example.account.service.TransactionService;
+import com.example.account.service.WriteBehindTransactionRecorder;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+/**
+ * 벤치마크 전용 스프링 설정
+ * 기본은 H2 + JVM 내부 락(account.lock.provider=local)으로 서비스만 띄운다.
+ * provider=redisson 이면 Redis 설정과 Redisson 락이 올라온다.
+ */
+@SpringBootConfiguration
+@EnableAutoConfiguration
+@EntityScan(basePackageClasses = Account.class)
+@EnableJpaRepositories(basePackageClasses = AccountRepository.class)
+@Import({JpaAuditingConfiguration.class,
+        RedisRepositoryConfig.class,
+        AccountService.class,
+        AccountCache.class,
+        OwnedAccountLoader.class,
+        AccountNumberAllocator.class,
+        AccountNumberFilter.class,
+        TransactionService.class,
+        TransactionQueryCache.class,
+        ReconciliationService.class,
+        SnowflakeTransactionIdGenerator.class,
+        DirectTransactionRecorder.class,
+        FailedTransactionRecorder.class,
+        WriteBehindTransactionRecorder.class,
+        LockService.class,
+        LockMetrics.class,
+        InMemoryLockProvider.class,
+        RedissonLockProvider.class,
+        LocalLockTier.class,
+        LockAopAspect.class,
+        OptimisticRetryAspect.class})
+public class BenchmarkApplication {
+}
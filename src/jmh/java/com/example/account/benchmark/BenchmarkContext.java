@@ -0,0 +1,77 @@
+package com.example.account.benchmark;
+
+import com.example.account.domain.AccountUser;
+import com.example.account.dto.AccountDto;
+import com.example.account.repository.AccountUserRepository;
+import com.example.account.service.AccountService;
+import com.example.account.service.LockAopAspect;
+import com.example.account.service.LockService;
+import com.example.account.service.TransactionService;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 벤치마크 한 번(fork)당 스프링 컨텍스트를 한 번만 띄워서 공유한다.
+ */
+@State(Scope.Benchmark)
+public class BenchmarkContext {
+    public static final long INITIAL_BALANCE = 1_000_000_000_000L;
+
+    public ConfigurableApplicationContext context;
+    public AccountService accountService;
+    public TransactionService transactionService;
+    public LockService lockService;
+    public LockAopAspect lockAopAspect;
+    public AccountUserRepository accountUserRepository;
+
+    @Setup
+    public void setUp() {
+        start(Map.of());
+    }
+
+    /**
+     * @param properties 기본값(local 락, SQL 로그 끔)을 덮어쓸 설정
+     */
+    public void start(Map<String, Object> properties) {
+        Map<String, Object> defaults = new HashMap<>(Map.of(
+                "account.lock.provider", "local",
+                "spring.jpa.show-sql", "false",
+                "spring.jpa.properties.hibernate.show_sql", "false",
+                "spring.jpa.properties.hibernate.format_sql", "false",
+                "logging.level.root", "WARN"
+        ));
+        defaults.putAll(properties);
+
+        SpringApplication application = new SpringApplication(BenchmarkApplication.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        application.setDefaultProperties(defaults);
+        context = application.run();
+
+        accountService = context.getBean(AccountService.class);
+        transactionService = context.getBean(TransactionService.class);
+        lockService = context.getBean(LockService.class);
+        lockAopAspect = context.getBean(LockAopAspect.class);
+        accountUserRepository = context.getBean(AccountUserRepository.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    public AccountUser newUser(String name) {
+        return accountUserRepository.save(AccountUser.builder().name(name).build());
+    }
+
+    public AccountDto newAccount(AccountUser accountUser) {
+        return accountService.createAccount(accountUser.getId(), INITIAL_BALANCE);
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.account.benchmark;
+
+import com.example.account.domain.AccountUser;
+import com.example.account.dto.TransactionDto;
+import com.example.account.exception.AccountException;
+import org.openjdk.jmh.annotations.*;
+import redis.embedded.RedisServer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 낙관적 모드(@Version + 재시도)와 Redisson 락 경로의 useBalance 비교
+ * accounts 가 적을수록 같은 계좌에 스레드가 몰려 경합이 커진다.
+ * 경합으로 실패한 요청(ACCOUNT_TRANSACTION_LOCK)은 failures 로 센다.
+ */
+@Threads(8)
+@State(Scope.Benchmark)
+public class ConcurrencyModeBenchmark {
+    private static final int REDIS_PORT = 6390;
+    private static final long AMOUNT = 100L;
+
+    @Param({"optimistic", "redisson"})
+    public String mode;
+
+    @Param({"1", "8", "1024"})
+    public int accounts;
+
+    private final BenchmarkContext ctx = new BenchmarkContext();
+    private RedisServer redisServer;
+    private final List<Long> userIds = new ArrayList<>();
+    private final List<String> accountNumbers = new ArrayList<>();
+    private final AtomicInteger nextSlot = new AtomicInteger();
+
+    @Setup
+    public void setUp() {
+        if ("redisson".equals(mode)) {
+            redisServer = new RedisServer(REDIS_PORT);
+            redisServer.start();
+            ctx.start(Map.of(
+                    "account.lock.provider", "redisson",
+                    "spring.redis.port", REDIS_PORT));
+        } else {
+            ctx.start(Map.of("account.concurrency.mode", "optimistic"));
+        }
+
+        AccountUser accountUser = null;
+        for (int i = 0; i < accounts; i++) {
+            if (i % 10 == 0) {
+                accountUser = ctx.newUser("bench-contention");
+            }
+            userIds.add(accountUser.getId());
+            accountNumbers.add(ctx.newAccount(accountUser).getAccountNumber());
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        ctx.tearDown();
+        if (redisServer != null) {
+            redisServer.stop();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Slot {
+        int index;
+
+        @Setup
+        public void setUp(ConcurrencyModeBenchmark benchmark) {
+            index = benchmark.nextSlot.getAndIncrement();
+        }
+    }
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Failures {
+        public long failures;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            failures = 0;
+        }
+    }
+
+    @Benchmark
+    public TransactionDto useBalance(Slot slot, Failures failures) {
+        int account = slot.index++ % accounts;
+        Long userId = userIds.get(account);
+        String accountNumber = accountNumbers.get(account);
+
+        try {
+            if ("redisson".equals(mode)) {
+                ctx.lockService.lock(accountNumber);
+                try {
+                    return ctx.transactionService.useBalance(userId, accountNumber, AMOUNT);
+                } finally {
+                    ctx.lockService.unLock(accountNumber);
+                }
+            }
+            return ctx.transactionService.useBalance(userId, accountNumber, AMOUNT);
+        } catch (AccountException e) {
+            failures.failures++;
+            return null;
+        }
+    }
+}
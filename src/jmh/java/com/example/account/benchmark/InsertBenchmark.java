@@ -0,0 +1,90 @@
+package com.example.account.benchmark;
+
+import com.example.account.domain.Account;
+import com.example.account.domain.Transaction;
+import com.example.account.dto.AccountDto;
+import com.example.account.repository.AccountRepository;
+import com.example.account.repository.TransactionRepository;
+import com.example.account.service.TransactionIdGenerator;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 시퀀스 구간 크기(allocationSize)와 JDBC 배치 크기(batchSize)에 따른 insert 처리량 비교
+ * allocationSize=1, batchSize=1 이 id 마다 시퀀스를 읽고 한 건씩 insert 하는 기존 방식에 가깝다.
+ * 두 벤치마크 모두 @OperationsPerInvocation(ROWS) 라서 결과 ops/s 가 그대로 초당 insert 건수다.
+ */
+@State(Scope.Benchmark)
+public class InsertBenchmark {
+    private static final int ROWS = 100;
+
+    @Param({"1", "50", "500"})
+    public int allocationSize;
+
+    @Param({"1", "100"})
+    public int batchSize;
+
+    private final BenchmarkContext ctx = new BenchmarkContext();
+    private TransactionRepository transactionRepository;
+    private TransactionIdGenerator transactionIdGenerator;
+    private Account account;
+
+    @Setup
+    public void setUp() {
+        ctx.start(Map.of(
+                "spring.jpa.properties.account.id.allocation-size.default", allocationSize,
+                "spring.jpa.properties.account.id.allocation-size.transaction", allocationSize,
+                "spring.jpa.properties.hibernate.jdbc.batch_size", batchSize));
+        transactionRepository = ctx.context.getBean(TransactionRepository.class);
+        transactionIdGenerator = ctx.context.getBean(TransactionIdGenerator.class);
+
+        String accountNumber = ctx.newAccount(ctx.newUser("bench-insert")).getAccountNumber();
+        account = ctx.context.getBean(AccountRepository.class).findByAccountNumber(accountNumber).orElseThrow();
+    }
+
+    @TearDown
+    public void tearDown() {
+        ctx.tearDown();
+    }
+
+    /**
+     * 유저 + 계좌 생성 (건마다 트랜잭션 하나라 배치는 효과가 없고, 시퀀스 구간이 크면 시퀀스 조회가 줄어든다)
+     * 유저당 계좌 수 제한이 있어서 계좌마다 유저를 새로 만든다.
+     */
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public AccountDto createAccount() {
+        AccountDto last = null;
+        for (int i = 0; i < ROWS; i++) {
+            last = ctx.newAccount(ctx.newUser("bench-insert"));
+        }
+        return last;
+    }
+
+    /**
+     * 거래 기록을 한 트랜잭션에서 saveAll (일괄 잔액 사용, 이체, 실패 거래 기록과 같은 경로)
+     */
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public List<Transaction> recordTransactions() {
+        List<Transaction> transactions = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            transactions.add(Transaction.builder()
+                    .transactionType(TransactionType.USE)
+                    .transactionResultType(TransactionResultType.S)
+                    .account(account)
+                    .amount(100L)
+                    .balanceSnapshot(account.getBalance())
+                    .transactionId(transactionIdGenerator.nextId())
+                    .transactedAt(LocalDateTime.now())
+                    .build());
+        }
+        return transactionRepository.saveAll(transactions);
+    }
+}
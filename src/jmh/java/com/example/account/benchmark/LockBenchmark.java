@@ -0,0 +1,48 @@
+package com.example.account.benchmark;
+
+import com.example.account.aop.AccountLock;
+import com.example.account.aop.AccountLockIdInterface;
+import com.example.account.domain.AccountUser;
+import com.example.account.dto.AccountDto;
+import com.example.account.dto.UseBalance;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+/**
+ * 락 취득/해제 한 쌍과 LockAopAspect 로 감싼 호출의 오버헤드 벤치마크
+ */
+@State(Scope.Thread)
+public class LockBenchmark {
+    private UseBalance.Request request;
+    private LockedTarget lockedTarget;
+
+    @Setup
+    public void setUp(BenchmarkContext ctx) {
+        //없는 계좌번호는 필터에서 거절되므로 실제 계좌로 요청
+        AccountUser accountUser = ctx.newUser("lock");
+        AccountDto account = ctx.newAccount(accountUser);
+        request = new UseBalance.Request(accountUser.getId(), account.getAccountNumber(), 100L);
+
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(new LockedTarget());
+        proxyFactory.addAspect(ctx.lockAopAspect);
+        lockedTarget = proxyFactory.getProxy();
+    }
+
+    @Benchmark
+    public void lockAndUnlock(BenchmarkContext ctx) {
+        ctx.lockService.lock(request.getAccountNumber());
+        ctx.lockService.unLock(request.getAccountNumber());
+    }
+
+    @Benchmark
+    public String aspectAroundCall() {
+        return lockedTarget.call(request);
+    }
+
+    public static class LockedTarget {
+        @AccountLock
+        public String call(AccountLockIdInterface request) {
+            return request.getAccountNumber();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.account.benchmark;
+
+import com.example.account.domain.AccountUser;
+import com.example.account.dto.Reconciliation;
+import com.example.account.service.ReconciliationService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 잔액 대사 처리량 (결과 ops/s 가 초당 대사한 계좌 수)
+ * 계좌마다 잔액 사용 TRANSACTIONS_PER_ACCOUNT 건씩 남겨 두고 전체 대사를 돌린다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ReconciliationBenchmark {
+    private static final int ACCOUNTS = 10_000;
+    private static final int TRANSACTIONS_PER_ACCOUNT = 3;
+
+    @Param({"1", "4", "8"})
+    public int parallelism;
+
+    private final BenchmarkContext ctx = new BenchmarkContext();
+    private ReconciliationService reconciliationService;
+
+    @Setup
+    public void setUp() {
+        ctx.start(Map.of("account.reconciliation.parallelism", parallelism));
+        reconciliationService = ctx.context.getBean(ReconciliationService.class);
+
+        AccountUser accountUser = null;
+        for (int i = 0; i < ACCOUNTS; i++) {
+            if (i % 10 == 0) {
+                accountUser = ctx.newUser("bench-reconciliation");
+            }
+            String accountNumber = ctx.newAccount(accountUser).getAccountNumber();
+            for (int t = 0; t < TRANSACTIONS_PER_ACCOUNT; t++) {
+                ctx.transactionService.useBalance(accountUser.getId(), accountNumber, 100L);
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        ctx.tearDown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ACCOUNTS)
+    public Reconciliation.Report reconcile() {
+        return reconciliationService.reconcile();
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.account.benchmark;
+
+import com.example.account.domain.AccountUser;
+import com.example.account.dto.QueryTransactionResponse;
+import com.example.account.dto.TransactionDto;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * TransactionService 잔액 사용 / 취소 / 조회 경로 벤치마크
+ * (락은 LockService 를 통해 잡고 풀어서 컨트롤러 + LockAopAspect 경로와 같은 비용을 낸다)
+ */
+@State(Scope.Thread)
+public class TransactionServiceBenchmark {
+    private static final long AMOUNT = 100L;
+
+    private Long userId;
+    private String accountNumber;
+    private String useTransactionId;
+
+    @Setup
+    public void setUp(BenchmarkContext ctx) {
+        AccountUser accountUser = ctx.newUser("bench-transaction");
+        userId = accountUser.getId();
+        accountNumber = ctx.newAccount(accountUser).getAccountNumber();
+        useTransactionId = ctx.transactionService
+                .useBalance(userId, accountNumber, AMOUNT)
+                .getTransactionId();
+    }
+
+    @Benchmark
+    public TransactionDto useBalance(BenchmarkContext ctx) {
+        ctx.lockService.lock(accountNumber);
+        try {
+            return ctx.transactionService.useBalance(userId, accountNumber, AMOUNT);
+        } finally {
+            ctx.lockService.unLock(accountNumber);
+        }
+    }
+
+    @Benchmark
+    public TransactionDto cancelBalance(BenchmarkContext ctx) {
+        ctx.lockService.lock(accountNumber);
+        try {
+            return ctx.transactionService.cancelBalance(useTransactionId, accountNumber, AMOUNT);
+        } finally {
+            ctx.lockService.unLock(accountNumber);
+        }
+    }
+
+    @Benchmark
+    public TransactionDto queryTransaction(BenchmarkContext ctx) {
+        return ctx.transactionService.queryTransaction(useTransactionId);
+    }
+
+    //거래 확인 캐시를 거치는 경로 (queryTransaction 은 매번 DB)
+    @Benchmark
+    public QueryTransactionResponse queryTransactionCached(BenchmarkContext ctx) {
+        return ctx.transactionService.queryTransactionResponse(useTransactionId);
+    }
+}
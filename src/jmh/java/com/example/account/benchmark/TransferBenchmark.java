@@ -0,0 +1,57 @@
+package com.example.account.benchmark;
+
+import com.example.account.domain.AccountUser;
+import com.example.account.dto.TransactionDto;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+
+/**
+ * 이체 한 번(두 계좌 순서대로 락 + 한 트랜잭션)과
+ * 따로 부르는 두 번(출금 계좌 락/트랜잭션 + 입금 계좌 락/트랜잭션)의 처리량 비교
+ * 따로 부르는 경우는 기존 API 로 만들 수 있는 가장 가까운 형태로 잔액 사용 후 같은 금액을 취소 방식으로 되돌린다.
+ */
+@State(Scope.Thread)
+public class TransferBenchmark {
+    private static final long AMOUNT = 100L;
+
+    private Long userId;
+    private String fromAccountNumber;
+    private String toAccountNumber;
+
+    @Setup
+    public void setUp(BenchmarkContext ctx) {
+        AccountUser accountUser = ctx.newUser("bench-transfer");
+        userId = accountUser.getId();
+        fromAccountNumber = ctx.newAccount(accountUser).getAccountNumber();
+        toAccountNumber = ctx.newAccount(accountUser).getAccountNumber();
+    }
+
+    @Benchmark
+    public TransactionDto transfer(BenchmarkContext ctx) {
+        List<String> locked = ctx.lockService.lockAll(List.of(fromAccountNumber, toAccountNumber));
+        try {
+            return ctx.transactionService.transferBalance(userId, fromAccountNumber, toAccountNumber, AMOUNT);
+        } finally {
+            ctx.lockService.unLockAll(locked);
+        }
+    }
+
+    @Benchmark
+    public TransactionDto useThenCancel(BenchmarkContext ctx) {
+        TransactionDto used;
+        ctx.lockService.lock(fromAccountNumber);
+        try {
+            used = ctx.transactionService.useBalance(userId, fromAccountNumber, AMOUNT);
+        } finally {
+            ctx.lockService.unLock(fromAccountNumber);
+        }
+
+        ctx.lockService.lock(fromAccountNumber);
+        try {
+            return ctx.transactionService.cancelBalance(used.getTransactionId(), fromAccountNumber, AMOUNT);
+        } finally {
+            ctx.lockService.unLock(fromAccountNumber);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.account.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 엔드포인트 하나의 응답시간 히스토그램과 결과(성공 / ErrorCode 별) 카운트
+ */
+public class EndpointStats {
+    private static final long MAX_LATENCY_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final Histogram histogram = new ConcurrentHistogram(MAX_LATENCY_NANOS, 3);
+    private final LongAdder success = new LongAdder();
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+    public void recordSuccess(long latencyNanos) {
+        histogram.recordValue(Math.min(latencyNanos, MAX_LATENCY_NANOS));
+        success.increment();
+    }
+
+    public void recordError(String errorCode, long latencyNanos) {
+        histogram.recordValue(Math.min(latencyNanos, MAX_LATENCY_NANOS));
+        errors.computeIfAbsent(errorCode, key -> new LongAdder()).increment();
+    }
+
+    public void reset() {
+        histogram.reset();
+        success.reset();
+        errors.clear();
+    }
+
+    public Map<String, Object> toReport(double elapsedSeconds) {
+        long total = histogram.getTotalCount();
+        Map<String, Long> errorCounts = new TreeMap<>();
+        errors.forEach((code, count) -> errorCounts.put(code, count.sum()));
+        long lockRejected = errorCounts.getOrDefault("ACCOUNT_TRANSACTION_LOCK", 0L);
+
+        Map<String, Object> report = new TreeMap<>();
+        report.put("requests", total);
+        report.put("success", success.sum());
+        report.put("errors", errorCounts);
+        report.put("throughputPerSecond", total / elapsedSeconds);
+        report.put("lockRejectionRate", total == 0 ? 0.0 : (double) lockRejected / total);
+        report.put("latencyMillis", Map.of(
+                "p50", toMillis(histogram.getValueAtPercentile(50.0)),
+                "p99", toMillis(histogram.getValueAtPercentile(99.0)),
+                "p999", toMillis(histogram.getValueAtPercentile(99.9)),
+                "max", toMillis(histogram.getMaxValue()),
+                "mean", histogram.getMean() / 1_000_000.0
+        ));
+        return report;
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,267 @@
+package com.example.account.loadtest;
+
+import com.example.account.AccountApplication;
+import com.example.account.domain.AccountUser;
+import com.example.account.repository.AccountUserRepository;
+import com.example.account.service.AccountService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 임베디드 레디스 + 앱을 띄우고 /transaction/use, /transaction/cancel, GET /transaction/{id}
+ * 에 동시 요청을 보내서 응답시간(p50/p99/p99.9), 처리량, 락 실패율을 JSON 리포트로 남긴다.
+ */
+@Slf4j
+public class LoadTestRunner {
+    private static final long INITIAL_BALANCE = 1_000_000_000_000L;
+    private static final int MAX_ACCOUNT_PER_USER = 10;
+    private static final int RECENT_TRANSACTIONS = 4096;
+
+    private final LoadTestSettings settings;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient;
+    private final String baseUrl;
+
+    private final List<Account> accounts = new ArrayList<>();
+    private final AtomicReferenceArray<String> recentTransactionIds =
+            new AtomicReferenceArray<>(RECENT_TRANSACTIONS);
+    private final AtomicLong recentCursor = new AtomicLong();
+
+    private final EndpointStats useStats = new EndpointStats();
+    private final EndpointStats cancelStats = new EndpointStats();
+    private final EndpointStats getStats = new EndpointStats();
+    //서버가 요청을 가상 스레드로 처리하는지 (리포트에 남겨서 모드끼리 비교한다)
+    private boolean serverVirtualThreads;
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(AccountApplication.class)
+                .profiles("loadtest")
+                .properties("server.port=0")
+                .run(args)) {
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+
+            LoadTestRunner runner = new LoadTestRunner(settings, "http://localhost:" + port);
+            runner.serverVirtualThreads = context.getEnvironment()
+                    .getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+            runner.seedAccounts(
+                    context.getBean(AccountUserRepository.class),
+                    context.getBean(AccountService.class));
+            runner.run();
+        }
+    }
+
+    public LoadTestRunner(LoadTestSettings settings, String baseUrl) {
+        this.settings = settings;
+        this.baseUrl = baseUrl;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(newClientExecutor(settings.getConcurrency()))
+                .build();
+    }
+
+    /**
+     * Java 21 이면 요청마다 가상 스레드 (동시 요청 1만이면 플랫폼 스레드 1만개를 만들지 않도록)
+     * 부하 드라이버도 17 로 컴파일하므로 리플렉션으로 찾는다
+     */
+    private static ExecutorService newClientExecutor(int concurrency) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(concurrency);
+        }
+    }
+
+    private void seedAccounts(AccountUserRepository accountUserRepository, AccountService accountService) {
+        AccountUser accountUser = null;
+        for (int i = 0; i < settings.getAccounts(); i++) {
+            if (i % MAX_ACCOUNT_PER_USER == 0) {
+                accountUser = accountUserRepository.save(AccountUser.builder().name("loadtest-" + i).build());
+            }
+            String accountNumber = accountService.createAccount(accountUser.getId(), INITIAL_BALANCE)
+                    .getAccountNumber();
+            accounts.add(new Account(accountUser.getId(), accountNumber));
+        }
+        log.warn("Seeded {} accounts ({} hot)", accounts.size(), settings.getHotAccounts());
+    }
+
+    private void run() throws Exception {
+        ExecutorService workers = newClientExecutor(settings.getConcurrency());
+
+        long warmupEnd = System.nanoTime() + TimeUnit.SECONDS.toNanos(settings.getWarmupSeconds());
+        long end = warmupEnd + TimeUnit.SECONDS.toNanos(settings.getDurationSeconds());
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < settings.getConcurrency(); i++) {
+            futures.add(workers.submit(() -> drive(end)));
+        }
+
+        TimeUnit.NANOSECONDS.sleep(Math.max(0, warmupEnd - System.nanoTime()));
+        useStats.reset();
+        cancelStats.reset();
+        getStats.reset();
+        long measureStart = System.nanoTime();
+
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        workers.shutdown();
+        double elapsedSeconds = (System.nanoTime() - measureStart) / 1_000_000_000.0;
+
+        writeReport(elapsedSeconds);
+    }
+
+    private void drive(long end) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int totalWeight = settings.getUseWeight() + settings.getCancelWeight() + settings.getGetWeight();
+
+        while (System.nanoTime() < end) {
+            Account account = pickAccount(random);
+            int pick = random.nextInt(totalWeight);
+
+            if (pick < settings.getUseWeight()) {
+                use(account);
+            } else if (pick < settings.getUseWeight() + settings.getCancelWeight()) {
+                String transactionId = account.useTransactionIds.poll();
+                if (transactionId == null) {
+                    use(account);
+                } else {
+                    cancel(account, transactionId);
+                }
+            } else {
+                String transactionId = recentTransactionIds.get(random.nextInt(RECENT_TRANSACTIONS));
+                if (transactionId == null) {
+                    use(account);
+                } else {
+                    query(transactionId);
+                }
+            }
+        }
+    }
+
+    //hotRatio 비율의 요청은 앞쪽 hotAccounts 개 계좌로 몰린다
+    private Account pickAccount(ThreadLocalRandom random) {
+        int hot = Math.min(settings.getHotAccounts(), accounts.size());
+        if (hot > 0 && (hot == accounts.size() || random.nextDouble() < settings.getHotRatio())) {
+            return accounts.get(random.nextInt(hot));
+        }
+        return accounts.get(hot + random.nextInt(accounts.size() - hot));
+    }
+
+    private void use(Account account) {
+        JsonNode response = send(useStats, HttpRequest.newBuilder(URI.create(baseUrl + "/transaction/use"))
+                .POST(jsonBody(Map.of(
+                        "userId", account.userId,
+                        "accountNumber", account.accountNumber,
+                        "amount", settings.getAmount()))));
+        if (response != null) {
+            String transactionId = response.get("transactionId").asText();
+            account.useTransactionIds.offer(transactionId);
+            recentTransactionIds.set((int) (recentCursor.getAndIncrement() % RECENT_TRANSACTIONS), transactionId);
+        }
+    }
+
+    private void cancel(Account account, String transactionId) {
+        send(cancelStats, HttpRequest.newBuilder(URI.create(baseUrl + "/transaction/cancel"))
+                .POST(jsonBody(Map.of(
+                        "transactionId", transactionId,
+                        "accountNumber", account.accountNumber,
+                        "amount", settings.getAmount()))));
+    }
+
+    private void query(String transactionId) {
+        send(getStats, HttpRequest.newBuilder(URI.create(baseUrl + "/transaction/" + transactionId)).GET());
+    }
+
+    /**
+     * 에러도 200 + ErrorResponse 로 오기 때문에 body 의 errorCode 로 성공/실패를 가른다.
+     * 성공이면 응답 json, 실패면 null
+     */
+    private JsonNode send(EndpointStats stats, HttpRequest.Builder builder) {
+        HttpRequest request = builder
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(30))
+                .build();
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            long latency = System.nanoTime() - start;
+
+            if (response.statusCode() != 200) {
+                stats.recordError("HTTP_" + response.statusCode(), latency);
+                return null;
+            }
+            JsonNode body = objectMapper.readTree(response.body());
+            if (body.hasNonNull("errorCode")) {
+                stats.recordError(body.get("errorCode").asText(), latency);
+                return null;
+            }
+            stats.recordSuccess(latency);
+            return body;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (Exception e) {
+            stats.recordError("IO_ERROR", System.nanoTime() - start);
+            return null;
+        }
+    }
+
+    private HttpRequest.BodyPublisher jsonBody(Map<String, Object> body) {
+        try {
+            return HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void writeReport(double elapsedSeconds) throws Exception {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("settings", settings);
+        report.put("serverThreads", serverVirtualThreads ? "virtual" : "platform");
+        report.put("javaVersion", Runtime.version().toString());
+        report.put("elapsedSeconds", elapsedSeconds);
+        report.put("endpoints", Map.of(
+                "POST /transaction/use", useStats.toReport(elapsedSeconds),
+                "POST /transaction/cancel", cancelStats.toReport(elapsedSeconds),
+                "GET /transaction/{transactionId}", getStats.toReport(elapsedSeconds)
+        ));
+
+        File reportFile = new File(settings.getReportPath());
+        if (reportFile.getParentFile() != null) {
+            reportFile.getParentFile().mkdirs();
+        }
+        ObjectMapper writer = objectMapper.copy().enable(SerializationFeature.INDENT_OUTPUT);
+        writer.writeValue(reportFile, report);
+        System.out.println(writer.writeValueAsString(report));
+        log.warn("Load test report written to {}", reportFile.getAbsolutePath());
+    }
+
+    private static class Account {
+        private final Long userId;
+        private final String accountNumber;
+        private final Queue<String> useTransactionIds = new ConcurrentLinkedQueue<>();
+
+        private Account(Long userId, String accountNumber) {
+            this.userId = userId;
+            this.accountNumber = accountNumber;
+        }
+    }
+}
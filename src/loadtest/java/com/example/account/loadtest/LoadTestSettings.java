@@ -0,0 +1,41 @@
+package com.example.account.loadtest;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * 부하 테스트 설정 (-Dloadtest.xxx 또는 ./gradlew loadTest -Ploadtest.xxx)
+ */
+@Getter
+@Builder
+public class LoadTestSettings {
+    private final int concurrency;
+    private final int durationSeconds;
+    private final int warmupSeconds;
+    private final int accounts;
+    //핫 계좌 수와 핫 계좌로 가는 요청 비율
+    private final int hotAccounts;
+    private final double hotRatio;
+    //요청 비율 (use : cancel : get)
+    private final int useWeight;
+    private final int cancelWeight;
+    private final int getWeight;
+    private final long amount;
+    private final String reportPath;
+
+    public static LoadTestSettings fromSystemProperties() {
+        return LoadTestSettings.builder()
+                .concurrency(Integer.getInteger("loadtest.concurrency", 64))
+                .durationSeconds(Integer.getInteger("loadtest.durationSeconds", 30))
+                .warmupSeconds(Integer.getInteger("loadtest.warmupSeconds", 5))
+                .accounts(Integer.getInteger("loadtest.accounts", 100))
+                .hotAccounts(Integer.getInteger("loadtest.hotAccounts", 5))
+                .hotRatio(Double.parseDouble(System.getProperty("loadtest.hotRatio", "0.8")))
+                .useWeight(Integer.getInteger("loadtest.useWeight", 6))
+                .cancelWeight(Integer.getInteger("loadtest.cancelWeight", 2))
+                .getWeight(Integer.getInteger("loadtest.getWeight", 2))
+                .amount(Long.getLong("loadtest.amount", 100L))
+                .reportPath(System.getProperty("loadtest.report", "build/loadtest/report.json"))
+                .build();
+    }
+}
@@ -8,4 +8,15 @@ import java.lang.annotation.*;
 @Inherited//상속 가능한 상태
 public @interface AccountLock {
     long tryLockTime() default 5000L;
+
+    //CONFIGURED 이면 account.concurrency.mode 설정을 따른다
+    LockMode mode() default LockMode.CONFIGURED;
+
+    enum LockMode {
+        CONFIGURED,
+        //항상 계좌 락을 잡는다
+        LOCK,
+        //락을 잡지 않는다 (Account @Version 충돌 재시도 또는 조건부 UPDATE 에 맡긴다)
+        OPTIMISTIC
+    }
 }
@@ -0,0 +1,10 @@
+package com.example.account.aop;
+
+import java.util.Collection;
+
+/**
+ * 여러 계좌를 한번에 잠그는 요청 (@AccountLock 이 계좌번호 순서로 하나씩 잡는다)
+ */
+public interface AccountLockIdsInterface {
+    Collection<String> getAccountNumbers();
+}
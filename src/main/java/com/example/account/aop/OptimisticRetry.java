@@ -0,0 +1,14 @@
+package com.example.account.aop;
+
+import java.lang.annotation.*;
+
+/**
+ * Account 버전 충돌(OptimisticLockingFailureException)이 나면 트랜잭션을 처음부터 다시 실행한다.
+ * 트랜잭션 바깥에서 감싸야 하므로 @Transactional 메소드에 같이 붙인다.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Inherited
+public @interface OptimisticRetry {
+}
@@ -0,0 +1,50 @@
+package com.example.account.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * account.lock.mode=async 일때 락 취득 후 서비스 호출을 실행하는 스레드풀
+ * (락 대기 중에는 스레드를 쓰지 않으므로 요청 수가 아니라 DB 커넥션 수에 맞춰 잡는다)
+ */
+@Configuration
+public class AsyncLockConfig {
+
+    @Value("${account.lock.async.pool-size:16}")
+    private int poolSize;
+
+    @Value("${account.lock.async.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Bean
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskExecutor accountLockTaskExecutor(){
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("account-lock-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+
+    /**
+     * spring.threads.virtual.enabled=true (Java 21) 일때: 작업마다 가상 스레드
+     * 락이 잡힌 Redisson 콜백 스레드에서 제출하므로 제출이 막히면 안 된다 (동시 실행 제한 없음).
+     * 동시에 DB 를 쓰는 수는 커넥션 풀이 묶고, 커넥션을 기다리는 동안 가상 스레드는 캐리어를 놓아준다.
+     */
+    @Bean(name = "accountLockTaskExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public TaskExecutor virtualAccountLockTaskExecutor(){
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("account-lock-");
+        executor.setVirtualThreads(true);
+        executor.setTaskTerminationTimeout(30_000L);
+        return executor;
+    }
+}
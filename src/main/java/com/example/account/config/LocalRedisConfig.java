@@ -1,29 +1,24 @@
-//package com.example.account.config;
-//
-//import jakarta.annotation.PostConstruct;
-//import jakarta.annotation.PreDestroy;
-//import org.springframework.beans.factory.annotation.Value;
-//import org.springframework.context.annotation.Configuration;
-//import redis.embedded.RedisServer;
-//
-//@Configuration
-//public class LocalRedisConfig {
-//
-//    @Value("${spring.redis.port}")
-//    private int redisPort;
-//
-//    private RedisServer redisServer;
-//
-//    @PostConstruct
-//    public void startRedis(){
-//        redisServer =new RedisServer(redisPort);
-//        redisServer.start();
-//    }
-//
-//    @PreDestroy
-//    public void stopRedis(){
-//        if (redisServer != null){
-//            redisServer.stop();
-//        }
-//    }
-//}
+package com.example.account.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import redis.embedded.RedisServer;
+
+/**
+ * loadtest 프로파일에서만 임베디드 레디스를 띄운다.
+ * RedissonClient 가 접속하기 전에 떠 있어야 하므로 RedisRepositoryConfig 에서 먼저 꺼내 쓴다.
+ */
+@Profile("loadtest")
+@Configuration
+public class LocalRedisConfig {
+
+    @Value("${spring.redis.port}")
+    private int redisPort;
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public RedisServer embeddedRedisServer() {
+        return new RedisServer(redisPort);
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.account.config;
+
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+/**
+ * reactive 프로파일의 R2DBC 설정
+ * ConnectionFactory 와 R2dbcTransactionManager 는 빈으로 내놓지 않는다.
+ * (빈이 되면 JPA 트랜잭션 매니저와 후보가 둘이 되고, R2DBC 스키마 초기화가 data.sql 을 한번 더 실행한다)
+ */
+@Profile("reactive")
+@Configuration
+public class ReactiveDataConfig {
+
+    @Value("${account.reactive.r2dbc-url}")
+    private String url;
+
+    @Value("${account.reactive.r2dbc-username:sa}")
+    private String username;
+
+    @Value("${account.reactive.r2dbc-password:}")
+    private String password;
+
+    @Bean
+    public DatabaseClient databaseClient() {
+        ConnectionFactory connectionFactory = ConnectionFactories.get(
+                ConnectionFactoryOptions.parse(url).mutate()
+                        .option(ConnectionFactoryOptions.USER, username)
+                        .option(ConnectionFactoryOptions.PASSWORD, password)
+                        .build());
+        return DatabaseClient.create(connectionFactory);
+    }
+
+    @Bean
+    public TransactionalOperator reactiveTransactionalOperator(DatabaseClient databaseClient) {
+        return TransactionalOperator.create(new R2dbcTransactionManager(databaseClient.getConnectionFactory()));
+    }
+}
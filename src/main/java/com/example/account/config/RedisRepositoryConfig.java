@@ -3,11 +3,15 @@ package com.example.account.config;
 import org.redisson.Redisson;
 import org.redisson.api.RedissonClient;
 import org.redisson.config.Config;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import redis.embedded.RedisServer;
 
 @Configuration
+@ConditionalOnProperty(prefix = "account.lock", name = "provider", havingValue = "redisson", matchIfMissing = true)
 public class RedisRepositoryConfig {
     @Value("${spring.redis.host}")
     private String redisHost;
@@ -16,7 +20,10 @@ public class RedisRepositoryConfig {
     private int redisPort;
 
     @Bean
-    public RedissonClient redissonClient(){
+    public RedissonClient redissonClient(ObjectProvider<RedisServer> embeddedRedisServer){
+        //임베디드 레디스가 있으면(loadtest 프로파일) 먼저 띄운다
+        embeddedRedisServer.ifAvailable(redisServer -> {});
+
         Config config = new Config();
         config.useSingleServer().setAddress("redis://"+redisHost+":"+redisPort);
 
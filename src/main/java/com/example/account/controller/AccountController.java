@@ -9,12 +9,14 @@ import com.example.account.service.AccountService;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
 import java.util.stream.Collectors;
 
 @RestController
+@Profile("!reactive")//reactive 프로파일은 Reactive*Controller
 @RequiredArgsConstructor
 
 public class AccountController {
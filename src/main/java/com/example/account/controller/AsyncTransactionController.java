@@ -0,0 +1,57 @@
+package com.example.account.controller;
+
+import com.example.account.aop.AccountLock;
+import com.example.account.dto.CancelBalance;
+import com.example.account.dto.QueryTransactionResponse;
+import com.example.account.dto.TransactionDto;
+import com.example.account.dto.UseBalance;
+import com.example.account.service.TransactionService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 잔액사용 컨트롤러 (비동기 락 모드)
+ * account.lock.mode=async 일때 TransactionController 대신 뜬다.
+ * 락은 LockAopAspect 가 tryLockAsync 로 잡고, 잡힌 뒤에 이 메소드 본문이 락 전용 스레드풀에서 실행된다.
+ * 락을 기다리는 동안 톰캣 요청 스레드는 반환된다.
+ */
+@Slf4j
+@RestController
+@Profile("!reactive")//reactive 프로파일은 Reactive*Controller
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "account.lock", name = "mode", havingValue = "async")
+public class AsyncTransactionController {
+    private final TransactionService transactionService;
+
+    @PostMapping("/transaction/use")
+    @AccountLock
+    public CompletableFuture<UseBalance.Response> useBalance(
+            @Valid @RequestBody UseBalance.Request request) {
+        //실패 거래는 TransactionService 가 비동기로 남긴다
+        TransactionDto transactionDto =
+                transactionService.useBalance(request.getUserId(), request.getAccountNumber(), request.getAmount());
+
+        return CompletableFuture.completedFuture(UseBalance.Response.from(transactionDto));
+    }
+
+    @PostMapping("/transaction/cancel")
+    @AccountLock
+    public CompletableFuture<CancelBalance.Response> cancelBalance(
+            @Valid @RequestBody CancelBalance.Request request) {
+        TransactionDto transactionDto =
+                transactionService.cancelBalance(request.getTransactionId(), request.getAccountNumber(), request.getAmount());
+
+        return CompletableFuture.completedFuture(CancelBalance.Response.from(transactionDto));
+    }
+
+    @GetMapping("/transaction/{transactionId}")
+    public QueryTransactionResponse getTransactions(@PathVariable String transactionId) {
+        return transactionService.queryTransactionResponse(transactionId);
+    }
+}
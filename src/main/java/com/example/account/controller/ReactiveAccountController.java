@@ -0,0 +1,46 @@
+package com.example.account.controller;
+
+import com.example.account.dto.AccountInfo;
+import com.example.account.dto.CreateAccount;
+import com.example.account.dto.DeleteAccount;
+import com.example.account.service.ReactiveAccountService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * reactive 프로파일의 계좌 컨트롤러 (AccountController 와 같은 경로/요청/응답)
+ * 계좌 엔티티를 그대로 응답하는 GET /account/{id} 는 서블릿 스택에만 있다.
+ */
+@RestController
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveAccountController {
+    private final ReactiveAccountService accountService;
+
+    @PostMapping("/account")
+    public Mono<CreateAccount.Response> createAccount(
+            @RequestBody @Valid CreateAccount.Request request) {
+        return accountService.createAccount(request.getUserId(), request.getInitialBalance())
+                .map(CreateAccount.Response::from);
+    }
+
+    @DeleteMapping("/account")
+    public Mono<DeleteAccount.Response> deleteAccount(
+            @RequestBody @Valid DeleteAccount.Request request) {
+        return accountService.deleteAccount(request.getUserId(), request.getAccountNumber())
+                .map(DeleteAccount.Response::from);
+    }
+
+    @GetMapping("/account")
+    public Flux<AccountInfo> getAccountsByUserId(@RequestParam("user_id") Long userId) {
+        return accountService.getAccountsByUserId(userId)
+                .map(accountDto -> AccountInfo.builder()
+                        .accountNumber(accountDto.getAccountNumber())
+                        .balance(accountDto.getBalance())
+                        .build());
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.account.controller;
+
+import com.example.account.dto.CancelBalance;
+import com.example.account.dto.QueryTransactionResponse;
+import com.example.account.dto.UseBalance;
+import com.example.account.service.ReactiveTransactionService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+/**
+ * reactive 프로파일의 잔액사용 컨트롤러 (TransactionController 와 같은 경로/요청/응답)
+ * 1. 잔액사용
+ * 2. 잔액사용 취소
+ * 3. 거래 확인
+ * 계좌 락은 ReactiveTransactionService 가 잡는다. (@AccountLock 은 서블릿 전용)
+ */
+@RestController
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveTransactionController {
+    private final ReactiveTransactionService transactionService;
+
+    @PostMapping("/transaction/use")
+    public Mono<UseBalance.Response> useBalance(
+            @Valid @RequestBody UseBalance.Request request) {
+        return transactionService.useBalance(request.getUserId(), request.getAccountNumber(), request.getAmount())
+                .map(UseBalance.Response::from);
+    }
+
+    @PostMapping("/transaction/cancel")
+    public Mono<CancelBalance.Response> cancelBalance(
+            @Valid @RequestBody CancelBalance.Request request) {
+        return transactionService.cancelBalance(request.getTransactionId(), request.getAccountNumber(), request.getAmount())
+                .map(CancelBalance.Response::from);
+    }
+
+    @GetMapping("/transaction/{transactionId}")
+    public Mono<QueryTransactionResponse> getTransactions(@PathVariable String transactionId) {
+        return transactionService.queryTransactionResponse(transactionId);
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.account.controller;
+
+import com.example.account.dto.Reconciliation;
+import com.example.account.service.ReconciliationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 잔액 대사 컨트롤러
+ * 1. 대사 시작 (백그라운드, 이미 돌고 있으면 진행 상태만 돌려준다)
+ * 2. 진행 상태 / 직전 결과 확인
+ */
+@RestController
+@Profile("!reactive")//reactive 프로파일은 Reactive*Controller
+@RequiredArgsConstructor
+public class ReconciliationController {
+    private final ReconciliationService reconciliationService;
+
+    @PostMapping("/reconciliation")
+    public Reconciliation.Status startReconciliation() {
+        return reconciliationService.start();
+    }
+
+    @GetMapping("/reconciliation")
+    public Reconciliation.Status getReconciliationStatus() {
+        return reconciliationService.status();
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.account.controller;
+
+import com.example.account.aop.AccountLock;
+import com.example.account.dto.UseBalanceBatch;
+import com.example.account.service.TransactionService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 일괄 잔액사용 컨트롤러
+ * 계좌별 락을 계좌번호 순서로 한번씩 잡고, 전체를 한 트랜잭션으로 처리한다. 결과는 건별로 돌려준다.
+ */
+@Slf4j
+@RestController
+@Profile("!reactive")//reactive 프로파일은 Reactive*Controller
+@RequiredArgsConstructor
+public class TransactionBatchController {
+    private final TransactionService transactionService;
+
+    @PostMapping("/transaction/use/batch")
+    @AccountLock
+    public UseBalanceBatch.Response useBalanceBatch(
+            @Valid @RequestBody UseBalanceBatch.Request request) {
+        return new UseBalanceBatch.Response(
+                transactionService.useBalanceBatch(request.getItems()));
+    }
+}
@@ -5,12 +5,13 @@ import com.example.account.dto.CancelBalance;
 import com.example.account.dto.QueryTransactionResponse;
 import com.example.account.dto.TransactionDto;
 import com.example.account.dto.UseBalance;
-import com.example.account.exception.AccountException;
 import com.example.account.service.TransactionService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
 import org.springframework.web.bind.annotation.*;
 
 /**
@@ -18,9 +19,12 @@ import org.springframework.web.bind.annotation.*;
  * 1. 잔액사용
  * 2. 잔액사용 취소
  * 3. 거래 확인
+ * (account.lock.mode=async 이면 AsyncTransactionController 가 대신 뜬다)
  */
 @Slf4j
 @RestController
+@Profile("!reactive")//reactive 프로파일은 Reactive*Controller
+@ConditionalOnProperty(prefix = "account.lock", name = "mode", havingValue = "sync", matchIfMissing = true)
 @RequiredArgsConstructor
 public class TransactionController {
     private final TransactionService transactionService;
@@ -29,20 +33,13 @@ public class TransactionController {
     @AccountLock
     public UseBalance.Response useBalance(
             @Valid @RequestBody UseBalance.Request request) {
+        //실패 거래는 TransactionService 가 비동기로 남긴다
         try {
             Thread.sleep(5000L);
             TransactionDto transactionDto =
                     transactionService.useBalance(request.getUserId(), request.getAccountNumber(), request.getAmount());
 
             return UseBalance.Response.from(transactionDto);
-        } catch (AccountException e) {
-            log.error("Failed to use balance.");
-
-            transactionService.saveFailedUseTransaction(
-                    request.getAccountNumber(),
-                    request.getAmount()
-            );
-            throw e;
         } catch (InterruptedException e) {
             throw new RuntimeException(e);
         }
@@ -53,28 +50,16 @@ public class TransactionController {
     @AccountLock
     public CancelBalance.Response cancelBalance(
             @Valid @RequestBody CancelBalance.Request request) {
-        try {
-            TransactionDto transactionDto =
-                    transactionService.cancelBalance(request.getTransactionId(), request.getAccountNumber(), request.getAmount());
+        TransactionDto transactionDto =
+                transactionService.cancelBalance(request.getTransactionId(), request.getAccountNumber(), request.getAmount());
 
-            return CancelBalance.Response.from(transactionDto);
-        } catch (AccountException e) {
-            log.error("Failed to use balance.");
-
-            transactionService.saveFailedCancelTransaction(
-                    request.getAccountNumber(),
-                    request.getAmount()
-            );
-            throw e;
-        }
+        return CancelBalance.Response.from(transactionDto);
 
     }
 
     @GetMapping("/transaction/{transactionId}")
     public QueryTransactionResponse getTransactions(@PathVariable String transactionId) {
-        return QueryTransactionResponse.from(
-                transactionService.queryTransaction(transactionId)
-        );
+        return transactionService.queryTransactionResponse(transactionId);
     }
 
 }
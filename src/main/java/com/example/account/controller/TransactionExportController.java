@@ -0,0 +1,43 @@
+package com.example.account.controller;
+
+import com.example.account.service.TransactionExportService;
+import com.example.account.type.ExportFormat;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+/**
+ * 거래 내보내기 컨트롤러 (대사용)
+ * [from, to) 기간의 거래를 NDJSON 또는 CSV 로 응답에 바로 흘려보낸다.
+ * 응답 스트림에 직접 쓰므로 비동기 요청 타임아웃에 걸리지 않는다.
+ */
+@RestController
+@Profile("!reactive")//reactive 프로파일은 Reactive*Controller
+@RequiredArgsConstructor
+public class TransactionExportController {
+    private final TransactionExportService transactionExportService;
+
+    @GetMapping("/transaction/export")
+    public void exportTransactions(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format,
+            HttpServletResponse response) throws IOException {
+        transactionExportService.checkRange(from, to);
+
+        response.setContentType(format.getContentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"transactions." + format.getExtension() + "\"");
+        transactionExportService.export(from, to, format, response.getOutputStream());
+    }
+}
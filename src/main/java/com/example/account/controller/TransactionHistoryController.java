@@ -0,0 +1,33 @@
+package com.example.account.controller;
+
+import com.example.account.dto.TransactionHistory;
+import com.example.account.service.TransactionService;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 계좌 거래 내역 컨트롤러
+ * 최근 거래부터 size 건씩, 응답의 nextCursor 를 cursor 로 넘기면 다음 페이지
+ */
+@RestController
+@Profile("!reactive")//reactive 프로파일은 Reactive*Controller
+@RequiredArgsConstructor
+public class TransactionHistoryController {
+    private final TransactionService transactionService;
+
+    @GetMapping("/account/{accountNumber}/transactions")
+    public TransactionHistory.Response getTransactionHistory(
+            @PathVariable String accountNumber,
+            @RequestParam(required = false) TransactionType type,
+            @RequestParam(required = false) TransactionResultType result,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return transactionService.getTransactionHistory(accountNumber, type, result, cursor, size);
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.account.controller;
+
+import com.example.account.aop.AccountLock;
+import com.example.account.dto.TransactionDto;
+import com.example.account.dto.TransferBalance;
+import com.example.account.service.TransactionService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 계좌 이체 컨트롤러
+ * 출금/입금 계좌 락을 계좌번호 순서로 잡고, 한 트랜잭션으로 이체한다.
+ */
+@Slf4j
+@RestController
+@Profile("!reactive")//reactive 프로파일은 Reactive*Controller
+@RequiredArgsConstructor
+public class TransferController {
+    private final TransactionService transactionService;
+
+    @PostMapping("/transaction/transfer")
+    @AccountLock
+    public TransferBalance.Response transferBalance(
+            @Valid @RequestBody TransferBalance.Request request) {
+        //실패 거래는 TransactionService 가 비동기로 남긴다
+        TransactionDto transactionDto = transactionService.transferBalance(
+                request.getUserId(),
+                request.getFromAccountNumber(),
+                request.getToAccountNumber(),
+                request.getAmount());
+
+        return TransferBalance.Response.from(transactionDto);
+    }
+}
@@ -21,9 +21,10 @@ import java.time.LocalDateTime;
 public class Account extends BaseEntity{
 
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)//소유주가 필요한 곳에서만 읽는다 (목록/조회는 projection)
     private AccountUser accountUser;
 
+    @Column(unique = true)
     private String accountNumber;
 
     private Long balance;
@@ -34,6 +35,9 @@ public class Account extends BaseEntity{
     private LocalDateTime registeredAt;
     private LocalDateTime unRegisteredAt;
 
+    @Version//낙관적 락 (account.concurrency.mode=optimistic 에서 동시 수정 감지)
+    private Long version;
+
     public void useBalance(Long amount){
         if (amount> this.balance){
             throw new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE);
@@ -0,0 +1,22 @@
+package com.example.account.domain;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.*;
+
+/**
+ * 노드들이 계좌번호 구간을 나눠 가져가는 카운터 (name 별 한 행)
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+public class AccountNumberBlock {
+    @Id
+    private String name;
+
+    //다음에 나눠줄 구간의 시작 값
+    private Long nextValue;
+}
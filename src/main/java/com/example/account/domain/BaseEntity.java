@@ -5,6 +5,7 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
 import jakarta.persistence.MappedSuperclass;
 import lombok.*;
+import org.hibernate.annotations.GenericGenerator;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -18,8 +19,10 @@ import java.time.LocalDateTime;
 @MappedSuperclass
 @EntityListeners(AuditingEntityListener.class)
 public class BaseEntity {
+    // 엔티티별 시퀀스를 pooled-lo 로 구간 할당 (insert 배치가 가능하도록)
     @Id
-    @GeneratedValue
+    @GeneratedValue(generator = "pooled_sequence")
+    @GenericGenerator(name = "pooled_sequence", type = PooledSequenceGenerator.class)
     private Long id;
 
     @CreatedDate
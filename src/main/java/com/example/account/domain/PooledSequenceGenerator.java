@@ -0,0 +1,59 @@
+package com.example.account.domain;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.id.PersistentIdentifierGenerator;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * 엔티티(테이블)마다 따로 쓰는 시퀀스 + pooled-lo 옵티마이저
+ * 시퀀스를 한 번 읽을 때 allocation-size 개의 id 를 받아오고 그 구간은 DB 왕복 없이 메모리에서 나눠준다.
+ * IDENTITY 와 달리 insert 전에 id 가 정해지므로 hibernate.jdbc.batch_size 로 insert 를 묶을 수 있다.
+ *
+ * 구간 크기는 spring.jpa.properties 의 account.id.allocation-size.{엔티티명 소문자} → .default 순서로 찾는다.
+ */
+public class PooledSequenceGenerator extends SequenceStyleGenerator {
+    public static final String ALLOCATION_SIZE_PREFIX = "account.id.allocation-size.";
+    public static final String DEFAULT_KEY = "default";
+    public static final int DEFAULT_ALLOCATION_SIZE = 50;
+    private static final String SEQUENCE_SUFFIX = "_seq";
+
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) throws MappingException {
+        Map<String, Object> settings = serviceRegistry.getService(ConfigurationService.class).getSettings();
+        String entityName = params.getProperty(IdentifierGenerator.JPA_ENTITY_NAME);
+
+        params.setProperty(SEQUENCE_PARAM, sequenceName(params.getProperty(PersistentIdentifierGenerator.TABLE), entityName));
+        params.setProperty(INCREMENT_PARAM, String.valueOf(allocationSize(settings, entityName)));
+        params.setProperty(OPT_PARAM, "pooled-lo");
+        super.configure(type, params, serviceRegistry);
+    }
+
+    static String sequenceName(String tableName, String entityName) {
+        String base = tableName != null ? tableName : entityName;
+        return base.replace("`", "").replace("\"", "").toLowerCase(Locale.ROOT) + SEQUENCE_SUFFIX;
+    }
+
+    static int allocationSize(Map<String, Object> settings, String entityName) {
+        Object value = entityName == null ? null
+                : settings.get(ALLOCATION_SIZE_PREFIX + entityName.toLowerCase(Locale.ROOT));
+        if (value == null) {
+            value = settings.get(ALLOCATION_SIZE_PREFIX + DEFAULT_KEY);
+        }
+        if (value == null) {
+            return DEFAULT_ALLOCATION_SIZE;
+        }
+        int size = Integer.parseInt(value.toString().trim());
+        if (size < 1) {
+            throw new MappingException("allocation-size 는 1 이상이어야 합니다: " + entityName + "=" + size);
+        }
+        return size;
+    }
+}
@@ -15,6 +15,11 @@ import java.time.LocalDateTime;
 @Builder
 @EntityListeners(AuditingEntityListener.class)
 @Entity
+//계좌별 거래 내역 keyset 페이지 (TransactionRepository.findHistory), 기간 내보내기 (streamForExport)
+@Table(indexes = {
+        @Index(name = "idx_transaction_account_transacted_at", columnList = "account_id, transacted_at, id"),
+        @Index(name = "idx_transaction_transacted_at", columnList = "transacted_at, id")
+})
 public class Transaction extends BaseEntity {
 
 
@@ -23,10 +28,13 @@ public class Transaction extends BaseEntity {
     @Enumerated(EnumType.STRING)
     private TransactionResultType transactionResultType;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)//거래 조회/내역/내보내기는 계좌번호만 projection 으로 읽는다
     private Account account;
     private Long amount;
     private Long balanceSnapshot;
-    private String transactionId;//거래 id 보안상 별도의 id 부여
+    //거래 id 보안상 별도의 id 부여, 시간순 숫자로 저장하고 외부에는 TransactionIds 형식으로 노출
+    @Column(unique = true)
+    private Long transactionId;
+    private Long linkedTransactionId;//이체의 상대 거래 id (출금 <-> 입금)
     private LocalDateTime transactedAt;
 }
@@ -0,0 +1,37 @@
+package com.example.account.domain;
+
+import com.example.account.exception.AccountException;
+import com.example.account.type.ErrorCode;
+
+/**
+ * 거래 id 의 외부 표기: 숫자 id 를 16자리 소문자 16진수로 (앞자리 0 채움)
+ * 자릿수가 고정이라 문자열 정렬 순서와 발급 순서가 같다
+ */
+public final class TransactionIds {
+    public static final int LENGTH = 16;
+
+    private TransactionIds() {
+    }
+
+    public static String format(Long transactionId) {
+        if (transactionId == null) {
+            return null;
+        }
+        String hex = Long.toHexString(transactionId);
+        return "0".repeat(LENGTH - hex.length()) + hex;
+    }
+
+    /**
+     * @throws AccountException TRANSACTION_NOT_FOUND - 형식이 맞지 않는 거래 id
+     */
+    public static long parse(String transactionId) {
+        if (transactionId == null || transactionId.length() != LENGTH) {
+            throw new AccountException(ErrorCode.TRANSACTION_NOT_FOUND);
+        }
+        try {
+            return Long.parseUnsignedLong(transactionId, 16);
+        } catch (NumberFormatException e) {
+            throw new AccountException(ErrorCode.TRANSACTION_NOT_FOUND);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.account.dto;
+
+import com.example.account.type.DiscrepancyType;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 잔액 대사 결과 / 진행 상태
+ */
+public class Reconciliation {
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Report {
+        private LocalDateTime startedAt;
+        private LocalDateTime finishedAt;
+        private long accountsChecked;
+        private long transactionsChecked;
+        private long discrepancyCount;
+        //최대 max-reported 건까지만 담는다 (discrepancyCount 는 전체 수)
+        private List<Discrepancy> discrepancies;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Discrepancy {
+        private String accountNumber;
+        private DiscrepancyType type;
+        //CHAIN_BREAK 인 거래 (BALANCE_MISMATCH 는 마지막 거래)
+        private String transactionId;
+        private Long expected;
+        private Long actual;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Status {
+        private boolean running;
+        private long accountsTotal;
+        private long accountsChecked;
+        //직전 실행 결과 (아직 없으면 null)
+        private Report lastReport;
+    }
+}
@@ -2,6 +2,8 @@ package com.example.account.dto;
 
 import com.example.account.domain.Account;
 import com.example.account.domain.Transaction;
+import com.example.account.domain.TransactionIds;
+import com.example.account.repository.TransactionRepository;
 import com.example.account.type.TransactionResultType;
 import com.example.account.type.TransactionType;
 import jakarta.persistence.EnumType;
@@ -22,6 +24,7 @@ public class TransactionDto {
     private Long amount;
     private Long balanceSnapshot;
     private String transactionId;
+    private String linkedTransactionId;
     private LocalDateTime transactedAt;
 
     public static TransactionDto fromEntity(Transaction transaction){
@@ -31,8 +34,22 @@ public class TransactionDto {
                 .transactionResultType(transaction.getTransactionResultType())
                 .amount(transaction.getAmount())
                 .balanceSnapshot(transaction.getBalanceSnapshot())
-                .transactionId(transaction.getTransactionId())
+                .transactionId(TransactionIds.format(transaction.getTransactionId()))
+                .linkedTransactionId(TransactionIds.format(transaction.getLinkedTransactionId()))
                 .transactedAt(transaction.getTransactedAt())
                 .build();
     }
+
+    public static TransactionDto fromView(TransactionRepository.TransactionDetailView view){
+        return TransactionDto.builder()
+                .accountNumber(view.getAccountNumber())
+                .transactionType(view.getTransactionType())
+                .transactionResultType(view.getTransactionResultType())
+                .amount(view.getAmount())
+                .balanceSnapshot(view.getBalanceSnapshot())
+                .transactionId(TransactionIds.format(view.getTransactionId()))
+                .linkedTransactionId(TransactionIds.format(view.getLinkedTransactionId()))
+                .transactedAt(view.getTransactedAt())
+                .build();
+    }
 }
@@ -0,0 +1,61 @@
+package com.example.account.dto;
+
+import com.example.account.domain.TransactionIds;
+import com.example.account.repository.TransactionRepository;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 거래 내보내기 한 줄 (NDJSON 한 줄 / CSV 한 행)
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class TransactionExport {
+    public static final String CSV_HEADER =
+            "transactionId,linkedTransactionId,accountNumber,transactionType,transactionResult,amount,balanceSnapshot,transactedAt";
+
+    private String transactionId;
+    private String linkedTransactionId;
+    private String accountNumber;
+    private TransactionType transactionType;
+    private TransactionResultType transactionResult;
+    private Long amount;
+    private Long balanceSnapshot;
+    private LocalDateTime transactedAt;
+
+    public static TransactionExport from(TransactionRepository.TransactionDetailView view) {
+        return TransactionExport.builder()
+                .transactionId(TransactionIds.format(view.getTransactionId()))
+                .linkedTransactionId(TransactionIds.format(view.getLinkedTransactionId()))
+                .accountNumber(view.getAccountNumber())
+                .transactionType(view.getTransactionType())
+                .transactionResult(view.getTransactionResultType())
+                .amount(view.getAmount())
+                .balanceSnapshot(view.getBalanceSnapshot())
+                .transactedAt(view.getTransactedAt())
+                .build();
+    }
+
+    //값이 거래 id(hex), 계좌번호, enum, 숫자, 시각뿐이라 따옴표 처리가 필요 없다
+    public String toCsvLine() {
+        return String.join(",",
+                nullToEmpty(transactionId),
+                nullToEmpty(linkedTransactionId),
+                nullToEmpty(accountNumber),
+                nullToEmpty(transactionType),
+                nullToEmpty(transactionResult),
+                nullToEmpty(amount),
+                nullToEmpty(balanceSnapshot),
+                nullToEmpty(transactedAt));
+    }
+
+    private static String nullToEmpty(Object value) {
+        return value == null ? "" : value.toString();
+    }
+}
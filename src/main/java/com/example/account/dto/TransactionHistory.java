@@ -0,0 +1,91 @@
+package com.example.account.dto;
+
+import com.example.account.domain.TransactionIds;
+import com.example.account.exception.AccountException;
+import com.example.account.repository.TransactionRepository;
+import com.example.account.type.ErrorCode;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+import lombok.*;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * 계좌 거래 내역 (최근 거래부터, (transactedAt, id) 커서로 다음 페이지)
+ */
+public class TransactionHistory {
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Response {
+        private List<Item> items;
+        //다음 페이지 요청에 그대로 넘긴다 (마지막 페이지면 null)
+        private String nextCursor;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Item {
+        private String transactionId;
+        private String linkedTransactionId;
+        private TransactionType transactionType;
+        private TransactionResultType transactionResult;
+        private Long amount;
+        private Long balanceSnapshot;
+        private LocalDateTime transactedAt;
+
+        public static Item from(TransactionRepository.TransactionHistoryView view) {
+            return Item.builder()
+                    .transactionId(TransactionIds.format(view.getTransactionId()))
+                    .linkedTransactionId(TransactionIds.format(view.getLinkedTransactionId()))
+                    .transactionType(view.getTransactionType())
+                    .transactionResult(view.getTransactionResultType())
+                    .amount(view.getAmount())
+                    .balanceSnapshot(view.getBalanceSnapshot())
+                    .transactedAt(view.getTransactedAt())
+                    .build();
+        }
+    }
+
+    /**
+     * 페이지 마지막 거래의 (transactedAt, id). 밖에는 base64url 문자열로만 보인다.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Cursor {
+        private final LocalDateTime transactedAt;
+        private final Long id;
+
+        public static Cursor of(TransactionRepository.TransactionHistoryView view) {
+            return new Cursor(view.getTransactedAt(), view.getId());
+        }
+
+        public String encode() {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString((transactedAt + "|" + id).getBytes(StandardCharsets.UTF_8));
+        }
+
+        /**
+         * @throws AccountException INVALID_REQUEST - 형식이 틀린 커서
+         */
+        public static Cursor decode(String cursor) {
+            try {
+                String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = decoded.indexOf('|');
+                return new Cursor(LocalDateTime.parse(decoded.substring(0, separator)),
+                        Long.parseLong(decoded.substring(separator + 1)));
+            } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+                throw new AccountException(ErrorCode.INVALID_REQUEST);
+            }
+        }
+    }
+}
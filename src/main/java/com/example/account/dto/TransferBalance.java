@@ -0,0 +1,67 @@
+package com.example.account.dto;
+
+import com.example.account.aop.AccountLockIdsInterface;
+import com.example.account.type.TransactionResultType;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public class TransferBalance {
+
+    @Getter
+    @Setter
+    @AllArgsConstructor
+    public static class Request implements AccountLockIdsInterface {
+        @NotNull
+        @Min(1)
+        private Long userId;
+
+        @NotBlank
+        @Size(min = 10,max = 10)
+        private String fromAccountNumber;
+
+        @NotBlank
+        @Size(min = 10,max = 10)
+        private String toAccountNumber;
+
+        @NotNull
+        @Min(10)
+        @Max(1000_000_000)
+        private Long amount;
+
+        @JsonIgnore
+        @Override
+        public Collection<String> getAccountNumbers() {
+            return List.of(fromAccountNumber, toAccountNumber);
+        }
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Response{
+        private String accountNumber;
+        private TransactionResultType transactionResult;
+        private String transactionId;
+        private String linkedTransactionId;
+        private Long amount;
+        private LocalDateTime transactedAt;
+
+        public static TransferBalance.Response from(TransactionDto transactionDto){
+            return TransferBalance.Response.builder()
+                    .accountNumber(transactionDto.getAccountNumber())
+                    .transactionResult(transactionDto.getTransactionResultType())
+                    .transactionId(transactionDto.getTransactionId())
+                    .linkedTransactionId(transactionDto.getLinkedTransactionId())
+                    .amount(transactionDto.getAmount())
+                    .transactedAt(transactionDto.getTransactedAt())
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.account.dto;
+
+import com.example.account.aop.AccountLockIdsInterface;
+import com.example.account.type.ErrorCode;
+import com.example.account.type.TransactionResultType;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class UseBalanceBatch {
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Request implements AccountLockIdsInterface {
+        //한 요청이 잡는 락 수와 트랜잭션 길이를 제한한다
+        @NotEmpty
+        @Size(max = 1000)
+        private List<@Valid UseBalance.Request> items;
+
+        @JsonIgnore
+        @Override
+        public Collection<String> getAccountNumbers() {
+            return items.stream()
+                    .map(UseBalance.Request::getAccountNumber)
+                    .collect(Collectors.toSet());
+        }
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Response {
+        private List<ItemResult> results;
+    }
+
+    /**
+     * 요청 순서와 같은 순서의 건별 결과
+     * 실패 건은 errorCode 가 있고, 실패 거래가 기록되었으면 그 거래 id 가 있다
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class ItemResult {
+        private String accountNumber;
+        private TransactionResultType transactionResult;
+        private String transactionId;
+        private Long amount;
+        private LocalDateTime transactedAt;
+        private ErrorCode errorCode;
+        private String errorMessage;
+
+        public static ItemResult from(TransactionDto transactionDto) {
+            return ItemResult.builder()
+                    .accountNumber(transactionDto.getAccountNumber())
+                    .transactionResult(transactionDto.getTransactionResultType())
+                    .transactionId(transactionDto.getTransactionId())
+                    .amount(transactionDto.getAmount())
+                    .transactedAt(transactionDto.getTransactedAt())
+                    .build();
+        }
+
+        public static ItemResult failed(UseBalance.Request request, TransactionDto failedTransaction, ErrorCode errorCode) {
+            ItemResult result = failedTransaction == null
+                    ? ItemResult.builder()
+                    .accountNumber(request.getAccountNumber())
+                    .transactionResult(TransactionResultType.F)
+                    .amount(request.getAmount())
+                    .build()
+                    : from(failedTransaction);
+            result.setErrorCode(errorCode);
+            result.setErrorMessage(errorCode.getDescription());
+            return result;
+        }
+    }
+}
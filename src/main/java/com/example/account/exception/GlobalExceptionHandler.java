@@ -7,6 +7,7 @@ import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
 
 @Slf4j
 @RestControllerAdvice
@@ -34,6 +35,15 @@ public class GlobalExceptionHandler {
                 ErrorCode.INVALID_REQUEST.getDescription());
     }
 
+    //reactive 프로파일 (WebFlux) 의 @Valid 실패
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ErrorResponse handleWebExchangeBindException(WebExchangeBindException e){
+        log.error("WebExchangeBindException is occurred.",e);
+
+        return new  ErrorResponse(ErrorCode.INVALID_REQUEST,
+                ErrorCode.INVALID_REQUEST.getDescription());
+    }
+
     @ExceptionHandler(Exception.class)
     public ErrorResponse handleException(Exception e){
         log.error("Exception is occurred.",e);
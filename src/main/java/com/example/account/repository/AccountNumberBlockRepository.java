@@ -0,0 +1,16 @@
+package com.example.account.repository;
+
+import com.example.account.domain.AccountNumberBlock;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface AccountNumberBlockRepository extends JpaRepository<AccountNumberBlock,String> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<AccountNumberBlock> findWithLockByName(String name);
+}
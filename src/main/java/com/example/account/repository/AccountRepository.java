@@ -2,9 +2,16 @@ package com.example.account.repository;
 
 import com.example.account.domain.Account;
 import com.example.account.domain.AccountUser;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,4 +23,89 @@ public interface AccountRepository extends JpaRepository<Account,Long> {
     Optional<Account> findByAccountNumber(String AccountNumber);
 
     List<Account> findByAccountUser(AccountUser accountUser);
+
+    //소유주 조건으로 계좌와 소유주를 한 문장에 읽는다 (없으면 유저 없음/계좌 없음/소유주 다름 중 하나)
+    @Query("select a from Account a join fetch a.accountUser u where a.accountNumber = :accountNumber and u.id = :userId")
+    Optional<Account> findOwnedAccount(@Param("userId") Long userId, @Param("accountNumber") String accountNumber);
+
+    //findOwnedAccount 가 비었을 때 원인 확인용. 유저가 없으면 결과 없음, 계좌가 없으면 ownerId 가 null
+    @Query("select u.id as userId, a.accountUser.id as ownerId from AccountUser u left join Account a on a.accountNumber = :accountNumber where u.id = :userId")
+    Optional<OwnershipView> findOwnership(@Param("userId") Long userId, @Param("accountNumber") String accountNumber);
+
+    interface OwnershipView {
+        Long getUserId();
+
+        Long getOwnerId();
+    }
+
+    //엔티티를 그대로 응답하는 조회용 (소유주까지 한번에 읽는다)
+    @EntityGraph(attributePaths = "accountUser")
+    Optional<Account> findWithAccountUserById(Long id);
+
+    //유저의 계좌 목록 (AccountInfo 에 필요한 컬럼만)
+    @Query("select a.accountNumber as accountNumber, a.balance as balance, a.registeredAt as registeredAt, a.unRegisteredAt as unRegisteredAt from Account a where a.accountUser.id = :userId order by a.id")
+    List<AccountSummaryView> findSummariesByAccountUserId(@Param("userId") Long userId);
+
+    interface AccountSummaryView {
+        String getAccountNumber();
+
+        Long getBalance();
+
+        LocalDateTime getRegisteredAt();
+
+        LocalDateTime getUnRegisteredAt();
+    }
+
+    List<Account> findByAccountNumberIn(Collection<String> accountNumbers);
+
+    boolean existsByAccountNumber(String accountNumber);
+
+    @Query("select a.id as id, a.accountNumber as accountNumber from Account a where a.id > :afterId order by a.id")
+    List<AccountNumberView> findAccountNumbersAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    interface AccountNumberView {
+        Long getId();
+
+        String getAccountNumber();
+    }
+
+    //잔액 대사 대상 (id 순서로 나눠 읽는다)
+    @Query("select a.id as id, a.accountNumber as accountNumber, a.balance as balance from Account a where a.id > :afterId order by a.id")
+    List<AccountBalanceView> findBalancesAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    interface AccountBalanceView extends AccountNumberView {
+        Long getBalance();
+    }
+
+    /**
+     * 소유주, 계좌 상태, 잔액 조건을 WHERE 절에서 확인하고 한번에 차감한다.
+     * @return 변경된 행 수 (0 이면 조건 불충족 -> 원인은 따로 조회해서 판단)
+     */
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("""
+            update Account a
+               set a.balance = a.balance - :amount,
+                   a.version = a.version + 1,
+                   a.updatedAt = :now
+             where a.accountNumber = :accountNumber
+               and a.accountUser.id = :userId
+               and a.accountStatus = com.example.account.type.AccountStatus.IN_USE
+               and a.balance >= :amount
+            """)
+    int useBalanceIfSufficient(@Param("userId") Long userId,
+                               @Param("accountNumber") String accountNumber,
+                               @Param("amount") Long amount,
+                               @Param("now") LocalDateTime now);
+
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("""
+            update Account a
+               set a.balance = a.balance + :amount,
+                   a.version = a.version + 1,
+                   a.updatedAt = :now
+             where a.id = :accountId
+            """)
+    int cancelBalance(@Param("accountId") Long accountId,
+                      @Param("amount") Long amount,
+                      @Param("now") LocalDateTime now);
 }
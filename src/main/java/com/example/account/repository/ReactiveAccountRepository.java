@@ -0,0 +1,175 @@
+package com.example.account.repository;
+
+import com.example.account.type.AccountStatus;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * reactive 프로파일의 계좌 조회/변경 (R2DBC DatabaseClient, 테이블/컬럼은 JPA 가 만든 것을 그대로 쓴다)
+ * 잔액 변경은 계좌 락을 잡은 상태에서만 호출한다.
+ */
+@Profile("reactive")
+@Repository
+@RequiredArgsConstructor
+public class ReactiveAccountRepository {
+    //enum 컬럼은 문자열로 읽는다
+    private static final String SELECT_ACCOUNT = """
+            select id, account_user_id, account_number, balance,
+                   cast(account_status as varchar) as account_status, registered_at, un_registered_at
+              from account
+            """;
+
+    private final DatabaseClient databaseClient;
+
+    public record AccountRow(Long id, Long userId, String accountNumber, Long balance,
+                             AccountStatus accountStatus, LocalDateTime registeredAt,
+                             LocalDateTime unRegisteredAt) {
+    }
+
+    //ownerId 가 null 이면 계좌 없음 (AccountRepository.OwnershipView 와 같다)
+    public record OwnershipRow(Long userId, Long ownerId) {
+    }
+
+    //소유주 조건으로 계좌를 읽는다 (없으면 유저 없음/계좌 없음/소유주 다름 중 하나)
+    public Mono<AccountRow> findOwnedAccount(Long userId, String accountNumber) {
+        return databaseClient.sql(SELECT_ACCOUNT + " where account_number = :accountNumber and account_user_id = :userId")
+                .bind("accountNumber", accountNumber)
+                .bind("userId", userId)
+                .map(ReactiveAccountRepository::toAccountRow)
+                .one();
+    }
+
+    //findOwnedAccount 가 비었을 때 원인 확인용. 유저가 없으면 결과 없음
+    public Mono<OwnershipRow> findOwnership(Long userId, String accountNumber) {
+        return databaseClient.sql("""
+                        select u.id as user_id, a.account_user_id as owner_id
+                          from account_user u
+                          left join account a on a.account_number = :accountNumber
+                         where u.id = :userId
+                        """)
+                .bind("accountNumber", accountNumber)
+                .bind("userId", userId)
+                .map(row -> new OwnershipRow(row.get("user_id", Long.class), row.get("owner_id", Long.class)))
+                .one();
+    }
+
+    public Mono<AccountRow> findByAccountNumber(String accountNumber) {
+        return databaseClient.sql(SELECT_ACCOUNT + " where account_number = :accountNumber")
+                .bind("accountNumber", accountNumber)
+                .map(ReactiveAccountRepository::toAccountRow)
+                .one();
+    }
+
+    public Flux<AccountRow> findByAccountUserId(Long userId) {
+        return databaseClient.sql(SELECT_ACCOUNT + " where account_user_id = :userId order by id")
+                .bind("userId", userId)
+                .map(ReactiveAccountRepository::toAccountRow)
+                .all();
+    }
+
+    public Mono<Boolean> existsUser(Long userId) {
+        return databaseClient.sql("select count(*) as cnt from account_user where id = :userId")
+                .bind("userId", userId)
+                .map(row -> row.get("cnt", Long.class) > 0)
+                .one();
+    }
+
+    public Mono<Long> countByAccountUserId(Long userId) {
+        return databaseClient.sql("select count(*) as cnt from account where account_user_id = :userId")
+                .bind("userId", userId)
+                .map(row -> row.get("cnt", Long.class))
+                .one();
+    }
+
+    /**
+     * id 는 JPA 와 같은 account_seq 에서 받는다 (pooled-lo 라 값 하나를 따로 가져가도 JPA 구간과 겹치지 않는다)
+     *
+     * @return 저장한 계좌 id
+     */
+    public Mono<Long> insert(Long userId, String accountNumber, Long balance, LocalDateTime now) {
+        return databaseClient.sql("select next value for account_seq as id")
+                .map(row -> row.get("id", Long.class))
+                .one()
+                .flatMap(id -> databaseClient.sql("""
+                                insert into account (id, account_user_id, account_number, balance, account_status,
+                                                     registered_at, version, created_at, updated_at)
+                                values (:id, :userId, :accountNumber, :balance, :accountStatus,
+                                        :now, 0, :now, :now)
+                                """)
+                        .bind("id", id)
+                        .bind("userId", userId)
+                        .bind("accountNumber", accountNumber)
+                        .bind("balance", balance)
+                        .bind("accountStatus", AccountStatus.IN_USE.name())
+                        .bind("now", now)
+                        .fetch()
+                        .rowsUpdated()
+                        .thenReturn(id));
+    }
+
+    /**
+     * 잔액이 충분할 때만 차감한다.
+     * @return 변경된 행 수 (0 이면 잔액 부족)
+     */
+    public Mono<Long> useBalanceIfSufficient(Long accountId, Long amount, LocalDateTime now) {
+        return updateBalance("balance - :amount", " and balance >= :amount", accountId, amount, now);
+    }
+
+    public Mono<Long> cancelBalance(Long accountId, Long amount, LocalDateTime now) {
+        return updateBalance("balance + :amount", "", accountId, amount, now);
+    }
+
+    //잔액을 바꾼 트랜잭션 안에서 읽으면 바뀐 잔액이다 (거래 잔액 스냅샷)
+    public Mono<Long> findBalance(Long accountId) {
+        return databaseClient.sql("select balance from account where id = :accountId")
+                .bind("accountId", accountId)
+                .map(row -> row.get("balance", Long.class))
+                .one();
+    }
+
+    public Mono<Long> unregister(Long accountId, LocalDateTime now) {
+        return databaseClient.sql("""
+                        update account
+                           set account_status = :accountStatus,
+                               un_registered_at = :now,
+                               version = version + 1,
+                               updated_at = :now
+                         where id = :accountId
+                        """)
+                .bind("accountStatus", AccountStatus.UNREGISTERED.name())
+                .bind("now", now)
+                .bind("accountId", accountId)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    //JPA 낙관적 락(optimistic 모드)과 섞여도 충돌을 감지하도록 version 을 올린다
+    private Mono<Long> updateBalance(String balanceExpression, String condition, Long accountId, Long amount,
+                                     LocalDateTime now) {
+        return databaseClient.sql("update account set balance = " + balanceExpression
+                        + ", version = version + 1, updated_at = :now where id = :accountId" + condition)
+                .bind("amount", amount)
+                .bind("now", now)
+                .bind("accountId", accountId)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private static AccountRow toAccountRow(Readable row) {
+        return new AccountRow(
+                row.get("id", Long.class),
+                row.get("account_user_id", Long.class),
+                row.get("account_number", String.class),
+                row.get("balance", Long.class),
+                AccountStatus.valueOf(row.get("account_status", String.class)),
+                row.get("registered_at", LocalDateTime.class),
+                row.get("un_registered_at", LocalDateTime.class));
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.account.repository;
+
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * reactive 프로파일의 거래 조회/저장 (R2DBC DatabaseClient)
+ */
+@Profile("reactive")
+@Repository
+@RequiredArgsConstructor
+public class ReactiveTransactionRepository {
+    private final DatabaseClient databaseClient;
+
+    //취소 검증에 필요한 컬럼만
+    public record TransactionRow(Long accountId, Long amount, LocalDateTime transactedAt) {
+    }
+
+    //거래 확인 응답은 JPA projection 과 같은 TransactionDetailView 로 만든다 (TransactionDto.fromView)
+    @Value
+    static class DetailRow implements TransactionRepository.TransactionDetailView {
+        Long id;
+        Long transactionId;
+        Long linkedTransactionId;
+        TransactionType transactionType;
+        TransactionResultType transactionResultType;
+        Long amount;
+        Long balanceSnapshot;
+        LocalDateTime transactedAt;
+        String accountNumber;
+    }
+
+    public Mono<TransactionRow> findByTransactionId(long transactionId) {
+        return databaseClient.sql("select account_id, amount, transacted_at from transaction where transaction_id = :transactionId")
+                .bind("transactionId", transactionId)
+                .map(row -> new TransactionRow(
+                        row.get("account_id", Long.class),
+                        row.get("amount", Long.class),
+                        row.get("transacted_at", LocalDateTime.class)))
+                .one();
+    }
+
+    public Mono<TransactionRepository.TransactionDetailView> findDetailByTransactionId(long transactionId) {
+        return databaseClient.sql("""
+                        select t.id, t.transaction_id, t.linked_transaction_id,
+                               cast(t.transaction_type as varchar) as transaction_type,
+                               cast(t.transaction_result_type as varchar) as transaction_result_type,
+                               t.amount, t.balance_snapshot, t.transacted_at, a.account_number
+                          from transaction t
+                          join account a on a.id = t.account_id
+                         where t.transaction_id = :transactionId
+                        """)
+                .bind("transactionId", transactionId)
+                .map(ReactiveTransactionRepository::toDetailView)
+                .one();
+    }
+
+    /**
+     * id 는 JPA 와 같은 transaction_seq 에서 받는다 (ReactiveAccountRepository.insert 와 같다)
+     */
+    public Mono<Long> insert(Long accountId, TransactionType transactionType, TransactionResultType transactionResultType,
+                             Long amount, Long balanceSnapshot, long transactionId, LocalDateTime transactedAt) {
+        return databaseClient.sql("""
+                        insert into transaction (id, account_id, transaction_type, transaction_result_type, amount,
+                                                 balance_snapshot, transaction_id, transacted_at, created_at, updated_at)
+                        values (next value for transaction_seq, :accountId, :transactionType, :transactionResultType,
+                                :amount, :balanceSnapshot, :transactionId, :transactedAt, :transactedAt, :transactedAt)
+                        """)
+                .bind("accountId", accountId)
+                .bind("transactionType", transactionType.name())
+                .bind("transactionResultType", transactionResultType.name())
+                .bind("amount", amount)
+                .bind("balanceSnapshot", balanceSnapshot)
+                .bind("transactionId", transactionId)
+                .bind("transactedAt", transactedAt)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private static TransactionRepository.TransactionDetailView toDetailView(Readable row) {
+        return new DetailRow(
+                row.get("id", Long.class),
+                row.get("transaction_id", Long.class),
+                row.get("linked_transaction_id", Long.class),
+                TransactionType.valueOf(row.get("transaction_type", String.class)),
+                TransactionResultType.valueOf(row.get("transaction_result_type", String.class)),
+                row.get("amount", Long.class),
+                row.get("balance_snapshot", Long.class),
+                row.get("transacted_at", LocalDateTime.class),
+                row.get("account_number", String.class));
+    }
+}
@@ -1,13 +1,157 @@
 package com.example.account.repository;
 
 import com.example.account.domain.Transaction;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction,Long> {
 
-    Optional<Transaction> findByTransactionId(String transactionId);
+    Optional<Transaction> findByTransactionId(Long transactionId);
+
+    //write-behind 저널 복구: 이미 DB 에 쓴 거래 id
+    @Query("select t.transactionId from Transaction t where t.transactionId in :transactionIds")
+    List<Long> findExistingTransactionIds(@Param("transactionIds") Collection<Long> transactionIds);
+
+    //거래 확인용 (Transaction/Account 엔티티 없이 계좌번호만 join)
+    @Query("""
+            select t.id as id, t.transactionId as transactionId, t.linkedTransactionId as linkedTransactionId,
+                   t.transactionType as transactionType, t.transactionResultType as transactionResultType,
+                   t.amount as amount, t.balanceSnapshot as balanceSnapshot, t.transactedAt as transactedAt,
+                   a.accountNumber as accountNumber
+              from Transaction t
+              join t.account a
+             where t.transactionId = :transactionId
+            """)
+    Optional<TransactionDetailView> findDetailByTransactionId(@Param("transactionId") Long transactionId);
+
+    /**
+     * 계좌 거래 내역 첫 페이지 (최근 거래부터)
+     * 엔티티 대신 필요한 컬럼만 읽어서 Account/AccountUser 를 함께 읽지 않는다.
+     * (account_id, transacted_at, id) 인덱스를 역순으로 읽는다.
+     */
+    @Query("""
+            select t.id as id, t.transactionId as transactionId, t.linkedTransactionId as linkedTransactionId,
+                   t.transactionType as transactionType, t.transactionResultType as transactionResultType,
+                   t.amount as amount, t.balanceSnapshot as balanceSnapshot, t.transactedAt as transactedAt
+              from Transaction t
+             where t.account.id = :accountId
+               and (:type is null or t.transactionType = :type)
+               and (:result is null or t.transactionResultType = :result)
+             order by t.transactedAt desc, t.id desc
+            """)
+    List<TransactionHistoryView> findHistory(@Param("accountId") Long accountId,
+                                             @Param("type") TransactionType type,
+                                             @Param("result") TransactionResultType result,
+                                             Pageable pageable);
+
+    /**
+     * 커서 (transactedAt, id) 다음 페이지. offset 없이 인덱스에서 커서 위치부터 읽으므로 깊은 페이지도 첫 페이지와 비용이 같다.
+     */
+    @Query("""
+            select t.id as id, t.transactionId as transactionId, t.linkedTransactionId as linkedTransactionId,
+                   t.transactionType as transactionType, t.transactionResultType as transactionResultType,
+                   t.amount as amount, t.balanceSnapshot as balanceSnapshot, t.transactedAt as transactedAt
+              from Transaction t
+             where t.account.id = :accountId
+               and (t.transactedAt < :cursorAt or (t.transactedAt = :cursorAt and t.id < :cursorId))
+               and (:type is null or t.transactionType = :type)
+               and (:result is null or t.transactionResultType = :result)
+             order by t.transactedAt desc, t.id desc
+            """)
+    List<TransactionHistoryView> findHistoryBefore(@Param("accountId") Long accountId,
+                                                   @Param("cursorAt") LocalDateTime cursorAt,
+                                                   @Param("cursorId") Long cursorId,
+                                                   @Param("type") TransactionType type,
+                                                   @Param("result") TransactionResultType result,
+                                                   Pageable pageable);
+
+    interface TransactionHistoryView {
+        Long getId();
+
+        Long getTransactionId();
+
+        Long getLinkedTransactionId();
+
+        TransactionType getTransactionType();
+
+        TransactionResultType getTransactionResultType();
+
+        Long getAmount();
+
+        Long getBalanceSnapshot();
+
+        LocalDateTime getTransactedAt();
+    }
+
+    /**
+     * 기간 내 거래 전체 내보내기 (transactedAt, id 순서)
+     * 결과를 한번에 담지 않고 fetch size 만큼씩 커서로 읽는다. 스트림을 다 쓸 때까지 읽기 전용 트랜잭션 안에 있어야 한다.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            select t.id as id, t.transactionId as transactionId, t.linkedTransactionId as linkedTransactionId,
+                   t.transactionType as transactionType, t.transactionResultType as transactionResultType,
+                   t.amount as amount, t.balanceSnapshot as balanceSnapshot, t.transactedAt as transactedAt,
+                   a.accountNumber as accountNumber
+              from Transaction t
+              join t.account a
+             where t.transactedAt >= :from
+               and t.transactedAt < :to
+             order by t.transactedAt, t.id
+            """)
+    Stream<TransactionDetailView> streamForExport(@Param("from") LocalDateTime from,
+                                                  @Param("to") LocalDateTime to);
+
+    //TransactionHistoryView + 계좌번호 (거래 확인, 내보내기)
+    interface TransactionDetailView extends TransactionHistoryView {
+        String getAccountNumber();
+    }
+
+    /**
+     * 잔액 대사용: 여러 계좌의 성공 거래를 계좌별, 거래 순서대로 읽는다
+     * (같은 밀리초의 거래는 시간순 거래 id 로 정렬, 실패 거래는 잔액을 바꾸지 않으므로 제외)
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            select t.account.id as accountId, t.transactionId as transactionId, t.transactionType as transactionType,
+                   t.amount as amount, t.balanceSnapshot as balanceSnapshot
+              from Transaction t
+             where t.account.id in :accountIds
+               and t.transactionResultType = com.example.account.type.TransactionResultType.S
+             order by t.account.id, t.transactedAt, t.transactionId
+            """)
+    Stream<BalanceChainView> streamBalanceChains(@Param("accountIds") Collection<Long> accountIds);
+
+    interface BalanceChainView {
+        Long getAccountId();
+
+        Long getTransactionId();
+
+        TransactionType getTransactionType();
+
+        Long getAmount();
+
+        Long getBalanceSnapshot();
+    }
 }
@@ -0,0 +1,324 @@
+package com.example.account.service;
+
+import com.example.account.domain.Account;
+import com.example.account.repository.AccountRepository;
+import com.example.account.type.AccountStatus;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.LongSupplier;
+
+/**
+ * 계좌번호 -> (계좌 id, 소유주 id, 상태) 캐시. 소유주/상태 확인용이며 잔액은 담지 않는다.
+ * 10자리 계좌번호를 long 키로 쓰는 open addressing(선형 탐사) 표에 값을 원시 타입 배열로 나눠 담는다. (엔트리 객체, 박싱 없음)
+ * 최대 개수를 넘으면 CLOCK 방식으로 최근에 안 읽힌 항목부터 내보낸다.
+ * 소유주는 바뀌지 않고 해지는 되돌릴 수 없으므로 캐시의 "불일치/해지" 는 오래돼도 맞다.
+ * 사용중(IN_USE) 은 다른 노드에서 해지됐을 수 있으므로 ttl 이 지나면 다시 읽는다.
+ */
+@Component
+public class AccountCache implements MeterBinder {
+    private static final long EMPTY = 0L;//계좌번호는 10자리라 0 이 될 수 없다
+    private static final AccountStatus[] STATUSES = AccountStatus.values();
+
+    private final AccountRepository accountRepository;
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final LongSupplier nanoClock;
+
+    private final int mask;
+    private final long[] keys;
+    private final long[] accountIds;
+    private final long[] userIds;
+    private final byte[] statuses;
+    private final long[] loadedAt;
+    private final boolean[] referenced;
+    private final StampedLock lock = new StampedLock();
+    private int size;
+    private int clockHand;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    @Autowired
+    public AccountCache(
+            AccountRepository accountRepository,
+            @Value("${account.cache.account.max-entries:100000}") int maxEntries,
+            @Value("${account.cache.account.ttl-seconds:60}") long ttlSeconds) {
+        this(accountRepository, maxEntries, ttlSeconds, System::nanoTime);
+    }
+
+    AccountCache(AccountRepository accountRepository, int maxEntries, long ttlSeconds, LongSupplier nanoClock) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("max-entries must be positive");
+        }
+        this.accountRepository = accountRepository;
+        this.maxEntries = maxEntries;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.nanoClock = nanoClock;
+        //적재율 50% 이하로 유지 (탐사 길이를 짧게)
+        int capacity = Integer.highestOneBit(Math.max(2, maxEntries) * 2 - 1) << 1;
+        this.mask = capacity - 1;
+        this.keys = new long[capacity];
+        this.accountIds = new long[capacity];
+        this.userIds = new long[capacity];
+        this.statuses = new byte[capacity];
+        this.loadedAt = new long[capacity];
+        this.referenced = new boolean[capacity];
+    }
+
+    /**
+     * 캐시된 값 (계좌 id, 소유주 id, 상태)
+     */
+    public record Entry(long accountId, long userId, AccountStatus accountStatus) {
+        public boolean isOwnedBy(Long userId) {
+            return userId != null && this.userId == userId;
+        }
+    }
+
+    /**
+     * 캐시에 없으면 DB 에서 읽어서 채운다
+     */
+    public Optional<Entry> get(String accountNumber) {
+        Optional<Entry> cached = getIfPresent(accountNumber);
+        if (cached.isPresent()) {
+            return cached;
+        }
+        return accountRepository.findByAccountNumber(accountNumber).map(this::put);
+    }
+
+    /**
+     * DB 를 읽지 않고 캐시에 있는 값만 본다 (이어서 계좌를 어차피 읽는 경로에서 미리 거절할 때)
+     */
+    public Optional<Entry> getIfPresent(String accountNumber) {
+        long key = toKey(accountNumber);
+        if (key == EMPTY) {
+            return Optional.empty();
+        }
+
+        long stamp = lock.tryOptimisticRead();
+        Entry entry = null;
+        int slot = find(key);
+        long entryLoadedAt = 0L;
+        if (slot >= 0) {
+            entry = entryAt(slot);
+            entryLoadedAt = loadedAt[slot];
+        }
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                entry = null;
+                slot = find(key);
+                if (slot >= 0) {
+                    entry = entryAt(slot);
+                    entryLoadedAt = loadedAt[slot];
+                }
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        if (entry == null || isExpired(entry, entryLoadedAt)) {
+            misses.increment();
+            return Optional.empty();
+        }
+        //자리가 옮겨졌으면 다른 항목에 표시될 수 있지만 교체 순서만 조금 달라진다
+        referenced[slot] = true;
+        hits.increment();
+        return Optional.of(entry);
+    }
+
+    public Entry put(Account account) {
+        return put(account.getAccountNumber(),
+                new Entry(account.getId(), account.getAccountUser().getId(), account.getAccountStatus()));
+    }
+
+    //엔티티 없이 읽은 계좌 (reactive 프로파일의 R2DBC 행)
+    public Entry put(String accountNumber, Entry entry) {
+        long key = toKey(accountNumber);
+        if (key == EMPTY) {
+            return entry;
+        }
+
+        long stamp = lock.writeLock();
+        try {
+            int slot = find(key);
+            if (slot < 0) {
+                if (size >= maxEntries) {
+                    evictOne();
+                }
+                slot = freeSlot(key);
+                keys[slot] = key;
+                size++;
+            }
+            accountIds[slot] = entry.accountId();
+            userIds[slot] = entry.userId();
+            statuses[slot] = (byte) entry.accountStatus().ordinal();
+            loadedAt[slot] = nanoClock.getAsLong();
+            referenced[slot] = false;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        return entry;
+    }
+
+    /**
+     * 계좌 해지 등 상태가 바뀔 때 호출한다
+     */
+    public void invalidate(String accountNumber) {
+        long key = toKey(accountNumber);
+        if (key == EMPTY) {
+            return;
+        }
+
+        long stamp = lock.writeLock();
+        try {
+            int slot = find(key);
+            if (slot >= 0) {
+                remove(slot);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * 지금 지우고 커밋 후에 한번 더 지운다 (커밋 전에 다른 요청이 예전 상태로 다시 채웠을 수 있다)
+     */
+    public void invalidateOnCommit(String accountNumber) {
+        invalidate(accountNumber);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate(accountNumber);
+                }
+            });
+        }
+    }
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    //해지는 되돌릴 수 없으므로 ttl 은 사용중인 계좌에만 적용한다
+    private boolean isExpired(Entry entry, long entryLoadedAt) {
+        return entry.accountStatus() == AccountStatus.IN_USE
+                && nanoClock.getAsLong() - entryLoadedAt > ttlNanos;
+    }
+
+    private int find(long key) {
+        int slot = spread(key) & mask;
+        for (int probe = 0; probe <= mask; probe++) {
+            long current = keys[slot];
+            if (current == key) {
+                return slot;
+            }
+            if (current == EMPTY) {
+                return -1;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private int freeSlot(long key) {
+        int slot = spread(key) & mask;
+        while (keys[slot] != EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    //CLOCK: 최근 읽힌 항목은 표시만 지우고 한 바퀴 더 기회를 준다
+    private void evictOne() {
+        while (true) {
+            int slot = clockHand;
+            clockHand = (clockHand + 1) & mask;
+            if (keys[slot] == EMPTY) {
+                continue;
+            }
+            if (referenced[slot]) {
+                referenced[slot] = false;
+                continue;
+            }
+            remove(slot);
+            evictions.increment();
+            return;
+        }
+    }
+
+    //선형 탐사 삭제: 뒤에 이어진 항목을 당겨서 빈칸(탐사 끊김)이 생기지 않게 한다 (tombstone 없음)
+    private void remove(int slot) {
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (keys[next] != EMPTY) {
+            int home = spread(keys[next]) & mask;
+            //next 의 원래 자리가 (hole, next] 구간 밖이면 hole 로 당길 수 있다
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                move(next, hole);
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[hole] = EMPTY;
+        referenced[hole] = false;
+        size--;
+    }
+
+    private void move(int from, int to) {
+        keys[to] = keys[from];
+        accountIds[to] = accountIds[from];
+        userIds[to] = userIds[from];
+        statuses[to] = statuses[from];
+        loadedAt[to] = loadedAt[from];
+        referenced[to] = referenced[from];
+    }
+
+    private Entry entryAt(int slot) {
+        return new Entry(accountIds[slot], userIds[slot], STATUSES[statuses[slot]]);
+    }
+
+    //형식이 틀린 계좌번호는 캐시하지 않는다
+    private static long toKey(String accountNumber) {
+        if (!AccountNumbers.isValid(accountNumber)) {
+            return EMPTY;
+        }
+        return Long.parseLong(accountNumber);
+    }
+
+    private static int spread(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("account.cache.account.requests", hits, LongAdder::sum)
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("account.cache.account.requests", misses, LongAdder::sum)
+                .tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("account.cache.account.evictions", evictions, LongAdder::sum)
+                .register(registry);
+        Gauge.builder("account.cache.account.size", this, AccountCache::size)
+                .register(registry);
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.account.service;
+
+import com.example.account.domain.AccountNumberBlock;
+import com.example.account.exception.AccountException;
+import com.example.account.repository.AccountNumberBlockRepository;
+import com.example.account.type.ErrorCode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 계좌번호 발급기
+ * DB 카운터(AccountNumberBlock)에서 blockSize 만큼 구간을 받아 메모리에서 하나씩 나눠주고,
+ * 순번은 AccountNumberPermutation 으로 섞어서 9자리 본번호 + 체크 숫자 1자리의 계좌번호로 만든다.
+ * 순번이 겹치지 않으므로 노드가 여러개여도 중복 확인 조회가 필요 없다.
+ * 구간은 남은 순번이 prefetch-threshold 이하가 되면 리스 스레드가 미리 받는다.
+ * (계좌 생성 트랜잭션 안에서 락을 잡은 채 커넥션을 하나 더 열지 않는다)
+ */
+@Slf4j
+@Component
+public class AccountNumberAllocator implements DisposableBean {
+    private static final String BLOCK_NAME = "ACCOUNT_NUMBER";
+    private static final long MIN_ACCOUNT_BODY = 100_000_000L;
+    private static final int LEASE_RETRY = 3;
+
+    private final AccountNumberBlockRepository accountNumberBlockRepository;
+    private final TransactionTemplate leaseTransaction;
+    private final AccountNumberPermutation permutation;
+    private final long blockSize;
+    private final long prefetchThreshold;
+    private final ExecutorService leaser = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "account-number-lease");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private long next;//lock
+    private long limit;//lock
+    //리스 스레드가 받고 있는 다음 구간의 시작 순번
+    private CompletableFuture<Long> prefetched;//lock
+
+    public AccountNumberAllocator(
+            AccountNumberBlockRepository accountNumberBlockRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${account.number.permutation-key:20240501}") long permutationKey,
+            @Value("${account.number.block-size:1000}") long blockSize,
+            @Value("${account.number.prefetch-threshold:200}") long prefetchThreshold) {
+        this.accountNumberBlockRepository = accountNumberBlockRepository;
+        this.leaseTransaction = new TransactionTemplate(transactionManager);
+        this.leaseTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.permutation = new AccountNumberPermutation(permutationKey);
+        this.blockSize = blockSize;
+        this.prefetchThreshold = Math.min(prefetchThreshold, blockSize);
+    }
+
+    //첫 요청이 구간을 기다리지 않도록 기동때 미리 받는다
+    @EventListener(ApplicationReadyEvent.class)
+    public void prefetch() {
+        lock.lock();
+        try {
+            prefetchIfLow();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public String nextAccountNumber() {
+        long sequence;
+        while (true) {
+            CompletableFuture<Long> refill;
+            lock.lock();
+            try {
+                prefetchIfLow();
+                if (next < limit) {
+                    sequence = next++;
+                    break;
+                }
+                refill = prefetched;
+            } finally {
+                lock.unlock();
+            }
+            //미리 받은 구간도 다 쓴 경우에만 기다린다 (락은 놓고 기다리므로 다른 요청이 락에 줄서지 않는다)
+            awaitBlock(refill);
+        }
+        return AccountNumbers.withCheckDigit(MIN_ACCOUNT_BODY + permutation.permute(sequence));
+    }
+
+    @Override
+    public void destroy() {
+        leaser.shutdownNow();
+    }
+
+    //남은 순번이 적으면 다음 구간을 받기 시작하고, 현재 구간을 다 썼으면 받아둔 구간으로 바꾼다
+    private void prefetchIfLow() {
+        //미리 받다가 실패했으면 남은 순번이 있는 동안 다시 받는다
+        if (prefetched != null && prefetched.isCompletedExceptionally() && next < limit) {
+            prefetched = null;
+        }
+        if (prefetched == null && limit - next <= prefetchThreshold) {
+            prefetched = CompletableFuture.supplyAsync(this::leaseBlock, leaser)
+                    .whenComplete((start, e) -> {
+                        if (e != null) {
+                            log.warn("Failed to lease account number block", e);
+                        }
+                    });
+        }
+        if (next >= limit && prefetched.isDone() && !prefetched.isCompletedExceptionally()) {
+            long start = prefetched.join();
+            prefetched = null;
+            next = start;
+            limit = Math.min(start + blockSize, AccountNumberPermutation.DOMAIN);
+            log.debug("Switched to account number block [{}, {})", next, limit);
+            prefetchIfLow();
+        }
+    }
+
+    private void awaitBlock(CompletableFuture<Long> refill) {
+        try {
+            refill.join();
+        } catch (CompletionException e) {
+            //실패한 리스는 다음 요청이 다시 시작한다
+            lock.lock();
+            try {
+                if (prefetched == refill) {
+                    prefetched = null;
+                }
+            } finally {
+                lock.unlock();
+            }
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    //리스 스레드에서만 부른다 (호출한 쪽 트랜잭션과 상관없는 커넥션으로 카운터 행을 잠근다)
+    private long leaseBlock() {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                long start = leaseTransaction.execute(status -> {
+                    AccountNumberBlock block = accountNumberBlockRepository.findWithLockByName(BLOCK_NAME)
+                            .orElseGet(() -> accountNumberBlockRepository.saveAndFlush(
+                                    new AccountNumberBlock(BLOCK_NAME, 0L)));
+                    long blockStart = block.getNextValue();
+                    if (blockStart >= AccountNumberPermutation.DOMAIN) {
+                        throw new AccountException(ErrorCode.ACCOUNT_NUMBER_EXHAUSTED);
+                    }
+                    block.setNextValue(Math.min(blockStart + blockSize, AccountNumberPermutation.DOMAIN));
+                    return blockStart;
+                });
+                log.debug("Leased account number block from {}", start);
+                return start;
+            } catch (DataIntegrityViolationException e) {
+                //다른 노드가 카운터 행을 먼저 만든 경우
+                if (attempt >= LEASE_RETRY) {
+                    throw e;
+                }
+            }
+        }
+    }
+}
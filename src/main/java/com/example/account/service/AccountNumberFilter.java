@@ -0,0 +1,150 @@
+package com.example.account.service;
+
+import com.example.account.exception.AccountException;
+import com.example.account.repository.AccountRepository;
+import com.example.account.type.ErrorCode;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 없는 계좌번호를 락/DB 조회 전에 걸러낸다.
+ * 1. 체크 숫자가 맞지 않으면 바로 거절
+ * 2. 존재하는 계좌번호의 블룸 필터에 없으면 거절 (생성시 추가, 기동시 DB 에서 다시 채움)
+ * 다른 노드에서 만든 계좌는 이 노드 필터에 없을 수 있으므로 verify-miss 가 켜져 있으면
+ * 필터에 없을 때만 DB 로 존재 여부를 한번 확인하고 필터에 넣는다. (단일 노드는 끄면 된다)
+ */
+@Slf4j
+@Component
+public class AccountNumberFilter implements MeterBinder {
+    private static final int REBUILD_PAGE_SIZE = 10_000;
+
+    private final AccountRepository accountRepository;
+    private final boolean verifyMiss;
+    private final AtomicLongArray bits;
+    private final long bitSize;
+    private final int hashCount;
+
+    private final LongAdder invalidRejected = new LongAdder();
+    private final LongAdder unknownRejected = new LongAdder();
+    private final LongAdder missVerified = new LongAdder();
+
+    public AccountNumberFilter(
+            AccountRepository accountRepository,
+            @Value("${account.number.filter.expected-accounts:1000000}") long expectedAccounts,
+            @Value("${account.number.filter.false-positive-rate:0.01}") double falsePositiveRate,
+            @Value("${account.number.filter.verify-miss:true}") boolean verifyMiss) {
+        this.accountRepository = accountRepository;
+        this.verifyMiss = verifyMiss;
+        //m = -n ln p / (ln 2)^2, k = m/n ln 2
+        long words = Math.max(1, (long) Math.ceil(
+                -expectedAccounts * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)) / 64));
+        this.bits = new AtomicLongArray(Math.toIntExact(words));
+        this.bitSize = words * 64;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitSize / expectedAccounts * Math.log(2)));
+    }
+
+    /**
+     * @throws AccountException ACCOUNT_NOT_FOUND - 형식이 틀렸거나 없는 계좌번호
+     */
+    public void checkExists(String accountNumber) {
+        if (!exists(accountNumber)) {
+            throw new AccountException(ErrorCode.ACCOUNT_NOT_FOUND);
+        }
+    }
+
+    //예외 대신 결과로 돌려준다 (일괄 요청처럼 건별로 실패시킬 때)
+    public boolean exists(String accountNumber) {
+        if (!AccountNumbers.isValid(accountNumber)) {
+            invalidRejected.increment();
+            return false;
+        }
+        if (mightContain(accountNumber)) {
+            return true;
+        }
+        if (verifyMiss) {
+            missVerified.increment();
+            if (accountRepository.existsByAccountNumber(accountNumber)) {
+                put(accountNumber);
+                return true;
+            }
+        }
+        unknownRejected.increment();
+        return false;
+    }
+
+    public void put(String accountNumber) {
+        long hash1 = hash(accountNumber, 0x9E3779B97F4A7C15L);
+        long hash2 = hash(accountNumber, 0xC2B2AE3D27D4EB4FL) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(hash1 + i * hash2, bitSize);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current = bits.get(word);
+            while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask)) {
+                current = bits.get(word);
+            }
+        }
+    }
+
+    public boolean mightContain(String accountNumber) {
+        long hash1 = hash(accountNumber, 0x9E3779B97F4A7C15L);
+        long hash2 = hash(accountNumber, 0xC2B2AE3D27D4EB4FL) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(hash1 + i * hash2, bitSize);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    //기동시 DB 의 계좌번호를 id 순서로 나눠 읽어서 채운다
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long afterId = 0L;
+        long count = 0L;
+        while (true) {
+            List<AccountRepository.AccountNumberView> page =
+                    accountRepository.findAccountNumbersAfter(afterId, PageRequest.of(0, REBUILD_PAGE_SIZE));
+            if (page.isEmpty()) {
+                break;
+            }
+            for (AccountRepository.AccountNumberView view : page) {
+                put(view.getAccountNumber());
+            }
+            count += page.size();
+            afterId = page.get(page.size() - 1).getId();
+        }
+        log.info("Account number filter loaded with {} accounts", count);
+    }
+
+    private static long hash(String accountNumber, long seed) {
+        long z = Long.parseLong(accountNumber) + seed;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("account.number.filter.rejected", invalidRejected, LongAdder::sum)
+                .tag("reason", "check_digit")
+                .register(registry);
+        FunctionCounter.builder("account.number.filter.rejected", unknownRejected, LongAdder::sum)
+                .tag("reason", "unknown")
+                .register(registry);
+        FunctionCounter.builder("account.number.filter.miss.verified", missVerified, LongAdder::sum)
+                .register(registry);
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.account.service;
+
+/**
+ * 0 ~ 899,999,999 범위의 순번을 같은 범위의 다른 값으로 1:1 대응시키는 형식 보존 치환 (Feistel)
+ * 900,000,000 = 30,000 x 30,000 이라 두 반쪽을 각각 30,000 진법 한자리로 보고 섞는다.
+ * 키를 모르면 연속된 순번에서 나온 계좌번호가 연속되어 보이지 않는다.
+ */
+public class AccountNumberPermutation {
+    public static final long DOMAIN = 900_000_000L;
+    private static final long HALF = 30_000L;
+    private static final int ROUNDS = 6;
+
+    private final long[] roundKeys = new long[ROUNDS];
+
+    public AccountNumberPermutation(long key) {
+        long seed = key;
+        for (int i = 0; i < ROUNDS; i++) {
+            seed = mix(seed + 0x9E3779B97F4A7C15L);
+            roundKeys[i] = seed;
+        }
+    }
+
+    public long permute(long value) {
+        if (value < 0 || value >= DOMAIN) {
+            throw new IllegalArgumentException("value out of range: " + value);
+        }
+        long left = value / HALF;
+        long right = value % HALF;
+        for (int i = 0; i < ROUNDS; i++) {
+            long next = (left + round(right, i)) % HALF;
+            left = right;
+            right = next;
+        }
+        return left * HALF + right;
+    }
+
+    public long inverse(long value) {
+        if (value < 0 || value >= DOMAIN) {
+            throw new IllegalArgumentException("value out of range: " + value);
+        }
+        long left = value / HALF;
+        long right = value % HALF;
+        for (int i = ROUNDS - 1; i >= 0; i--) {
+            long previous = Math.floorMod(right - round(left, i), HALF);
+            right = left;
+            left = previous;
+        }
+        return left * HALF + right;
+    }
+
+    private long round(long half, int round) {
+        return Math.floorMod(mix(half ^ roundKeys[round]), HALF);
+    }
+
+    //splitmix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.account.service;
+
+/**
+ * 계좌번호 형식: 앞 9자리 본번호 + 마지막 1자리 Luhn 체크 숫자
+ */
+public final class AccountNumbers {
+    public static final int LENGTH = 10;
+
+    private AccountNumbers() {
+    }
+
+    //9자리 본번호에 체크 숫자를 붙여 10자리 계좌번호를 만든다
+    public static String withCheckDigit(long body) {
+        return String.valueOf(body * 10 + checkDigit(body));
+    }
+
+    public static boolean isValid(String accountNumber) {
+        if (accountNumber == null || accountNumber.length() != LENGTH) {
+            return false;
+        }
+        long value = 0;
+        for (int i = 0; i < LENGTH; i++) {
+            char c = accountNumber.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return checkDigit(value / 10) == value % 10;
+    }
+
+    static int checkDigit(long body) {
+        int sum = 0;
+        boolean doubled = true;
+        for (long rest = body; rest > 0; rest /= 10) {
+            int digit = (int) (rest % 10);
+            if (doubled) {
+                digit *= 2;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            sum += digit;
+            doubled = !doubled;
+        }
+        return (10 - sum % 10) % 10;
+    }
+}
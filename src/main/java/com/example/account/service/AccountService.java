@@ -12,10 +12,8 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.security.SecureRandom;
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Optional;
 import java.util.stream.Collectors;
 
 import static com.example.account.type.ErrorCode.*;
@@ -25,6 +23,10 @@ import static com.example.account.type.ErrorCode.*;
 public class AccountService {
     private final AccountRepository accountRepository;
     private final AccountUserRepository accountUserRepository;
+    private final AccountNumberAllocator accountNumberAllocator;
+    private final AccountNumberFilter accountNumberFilter;
+    private final AccountCache accountCache;
+    private final OwnedAccountLoader ownedAccountLoader;
 
     /**
      * //사용자가 있는지 조회
@@ -41,40 +43,21 @@ public class AccountService {
         //유저 계좌수 체크
         validateCreateAccount(accountUser);
 
-        String newAccountNumber = createAccountNumber();
+        //구간 단위로 받아둔 순번을 섞어서 발급 (중복 조회 없음)
+        String newAccountNumber = accountNumberAllocator.nextAccountNumber();
 
+        Account account = accountRepository.save(
+                Account.builder()
+                        .accountUser(accountUser)
+                        .accountNumber(newAccountNumber)
+                        .accountStatus(AccountStatus.IN_USE)
+                        .balance(initialBalance)
+                        .registeredAt(LocalDateTime.now())
+                        .build());
+        //없는 계좌번호 필터에 등록 (롤백되어도 오탐이 하나 늘 뿐이다)
+        accountNumberFilter.put(newAccountNumber);
 
-        return AccountDto.fromEntity(
-                accountRepository.save(
-                        Account.builder()
-                                .accountUser(accountUser)
-                                .accountNumber(newAccountNumber)
-                                .accountStatus(AccountStatus.IN_USE)
-                                .balance(initialBalance)
-                                .registeredAt(LocalDateTime.now())
-                                .build())
-        );
-    }
-
-    //10자리의 계좌번호 랜덤 생성 메소드
-    private String createAccountNumber() {
-
-        boolean checkAccountNumber =true;
-        String newAccountNumber=null;
-        SecureRandom secureRandom = new SecureRandom();
-        //Math.random 보다 강력한 난수를 생성해주는 클래스 왜? random= 48비트,SecureRandom= 최대128비트
-        final int MIN_ACCOUNT_NUM = 900_000_000;
-        final int MAX_ACCOUNT_NUM =1_000_000_000;
-
-        while (checkAccountNumber){
-            newAccountNumber = String.valueOf(secureRandom.nextInt(MIN_ACCOUNT_NUM) + MAX_ACCOUNT_NUM);
-            Optional<Account> byAccountNumber = accountRepository.findByAccountNumber(newAccountNumber);
-            if (byAccountNumber.isEmpty()){
-                checkAccountNumber=false;
-            }
-
-        }
-        return newAccountNumber;
+        return AccountDto.fromEntity(account);
     }
 
     private void validateCreateAccount(AccountUser accountUser) {
@@ -88,22 +71,22 @@ public class AccountService {
         if (id < 0) {
             throw new RuntimeException("Minus");
         }
-        return accountRepository.findById(id).get();
+        return accountRepository.findWithAccountUserById(id).get();
 
     }
 
     @Transactional
     public AccountDto deleteAccount(Long userId, String accountNumber) {
-        AccountUser accountUser = getAccountUser(userId);
-
-        Account account = accountRepository.findByAccountNumber(accountNumber)
-                .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+        //소유주 조건으로 한 문장에 읽는다 (유저 없음/계좌 없음/소유주 다름은 OwnedAccountLoader 가 가린다)
+        Account account = ownedAccountLoader.load(userId, accountNumber);
 
-        validateDeleteAccount(accountUser, account);
+        validateDeleteAccount(account);
         account.setAccountStatus(AccountStatus.UNREGISTERED);
         account.setUnRegisteredAt(LocalDateTime.now());
 
         accountRepository.save(account);
+        //캐시의 사용중 상태를 지운다
+        accountCache.invalidateOnCommit(accountNumber);
 
         return AccountDto.fromEntity(account);
 
@@ -114,26 +97,23 @@ public class AccountService {
                 .orElseThrow(() -> new AccountException(USER_NOT_FOUND));
     }
 
-    private void validateDeleteAccount(AccountUser accountUser, Account account) throws AccountException {
-        if (accountUser.getId() != account.getAccountUser().getId()) {
-            throw new AccountException(USER_ACCOUNT_UN_MATCH);
-        }
-        if (account.getAccountStatus() == AccountStatus.UNREGISTERED) {
-            throw new AccountException(ACCOUNT_ALREADY_UNREGISTERED);
-        }
-        if (account.getBalance() > 0) {
-            throw new AccountException(BALANCE_NOT_EMPTY);
-        }
+    private void validateDeleteAccount(Account account) throws AccountException {
+        TransactionRules.validateDelete(account.getAccountStatus(), account.getBalance());
     }
     @Transactional
     public List<AccountDto> getAccountsByUserId(Long userId) {
         AccountUser accountUser = getAccountUser(userId);
 
-        List<Account> accounts =
-                accountRepository.findByAccountUser(accountUser);
-
-        return accounts.stream()
-                .map(AccountDto::fromEntity)
+        //계좌 엔티티 대신 필요한 컬럼만 읽는다
+        return accountRepository.findSummariesByAccountUserId(accountUser.getId())
+                .stream()
+                .map(summary -> AccountDto.builder()
+                        .userId(accountUser.getId())
+                        .accountNumber(summary.getAccountNumber())
+                        .balance(summary.getBalance())
+                        .registeredAt(summary.getRegisteredAt())
+                        .unRegisteredAt(summary.getUnRegisteredAt())
+                        .build())
                 .collect(Collectors.toList());
     }
 }
@@ -0,0 +1,35 @@
+package com.example.account.service;
+
+import com.example.account.domain.Transaction;
+import com.example.account.repository.TransactionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 호출한 트랜잭션 안에서 바로 저장한다
+ */
+@Component
+@ConditionalOnProperty(prefix = "account.transaction.write-behind", name = "enabled", havingValue = "false", matchIfMissing = true)
+@RequiredArgsConstructor
+public class DirectTransactionRecorder implements TransactionRecorder {
+    private final TransactionRepository transactionRepository;
+
+    @Override
+    public Transaction record(Transaction transaction) {
+        return transactionRepository.save(transaction);
+    }
+
+    @Override
+    public List<Transaction> recordAll(List<Transaction> transactions) {
+        return transactionRepository.saveAll(transactions);
+    }
+
+    @Override
+    public Optional<Transaction> findUnflushed(long transactionId) {
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.account.service;
+
+import com.example.account.exception.AccountException;
+import com.example.account.type.ErrorCode;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 컨트롤러 메소드별 응답 시간 (account.api.requests)
+ * 실패도 HTTP 200 + ErrorResponse 로 나가서 http.server.requests 로는 구분이 안 되므로
+ * GlobalExceptionHandler 와 같은 기준으로 ErrorCode 를 error_code 태그로 남긴다. (성공은 NONE)
+ * 태그는 endpoint(컨트롤러.메소드) 와 error_code 뿐이다. (계좌번호/거래 id 는 남기지 않는다)
+ * 락 대기까지 들어가도록 LockAopAspect 보다 바깥에서 돈다. (요청 검증 실패는 메소드 호출 전이라 빠진다)
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class EndpointMetricsAspect {
+    static final String NO_ERROR = "NONE";
+
+    private final MeterRegistry meterRegistry;
+
+    @Around("within(@org.springframework.web.bind.annotation.RestController *)")
+    public Object time(ProceedingJoinPoint pjp) throws Throwable {
+        String endpoint = pjp.getSignature().getDeclaringType().getSimpleName() + "." + pjp.getSignature().getName();
+        long startNanos = System.nanoTime();
+        Object result;
+        try {
+            result = pjp.proceed();
+        } catch (Throwable e) {
+            record(endpoint, errorCodeOf(e), startNanos);
+            throw e;
+        }
+
+        //비동기 응답은 끝났을 때 기록한다
+        if (result instanceof CompletableFuture<?> future) {
+            future.whenComplete((value, e) -> record(endpoint, errorCodeOf(e), startNanos));
+            return result;
+        }
+        if (result instanceof Mono<?> mono) {
+            return mono.doOnSuccess(value -> record(endpoint, NO_ERROR, startNanos))
+                    .doOnError(e -> record(endpoint, errorCodeOf(e), startNanos));
+        }
+        if (result instanceof Flux<?> flux) {
+            return flux.doOnComplete(() -> record(endpoint, NO_ERROR, startNanos))
+                    .doOnError(e -> record(endpoint, errorCodeOf(e), startNanos));
+        }
+        record(endpoint, NO_ERROR, startNanos);
+        return result;
+    }
+
+    private void record(String endpoint, String errorCode, long startNanos) {
+        Timer.builder("account.api.requests")
+                .description("Controller latency by endpoint and ErrorCode")
+                .tag("endpoint", endpoint)
+                .tag("error_code", errorCode)
+                .register(meterRegistry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    static String errorCodeOf(Throwable e) {
+        if (e == null) {
+            return NO_ERROR;
+        }
+        if (e instanceof CompletionException && e.getCause() != null) {
+            e = e.getCause();
+        }
+        if (e instanceof AccountException accountException) {
+            return accountException.getErrorCode().name();
+        }
+        if (e instanceof DataIntegrityViolationException) {
+            return ErrorCode.INVALID_REQUEST.name();
+        }
+        return ErrorCode.INTERNAL_SERVER_ERROR.name();
+    }
+}
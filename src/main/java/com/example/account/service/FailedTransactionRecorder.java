@@ -0,0 +1,193 @@
+package com.example.account.service;
+
+import com.example.account.domain.Account;
+import com.example.account.domain.Transaction;
+import com.example.account.repository.AccountRepository;
+import com.example.account.repository.TransactionRepository;
+import com.example.account.type.ErrorCode;
+import com.example.account.type.TransactionType;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.example.account.type.TransactionResultType.F;
+
+/**
+ * 실패 거래 기록
+ * 실패한 요청 스레드는 ErrorCode 별 카운터만 올리고 큐에 넣은 뒤 바로 응답한다.
+ * 쓰기 스레드가 모아서 한 트랜잭션에 saveAll 한다. 이미 조회한 계좌는 그대로 쓰고,
+ * 계좌를 조회하기 전에 실패한 건만 계좌번호로 한번에 조회한다. (계좌가 없으면 남기지 않는다)
+ * 큐가 가득 차거나 저장에 실패한 기록은 버리고 dropped 로 센다.
+ * (요청 스레드에서 저장하면 요청 트랜잭션과 별개로 커넥션을 하나 더 잡는다)
+ */
+@Slf4j
+@Component
+public class FailedTransactionRecorder implements MeterBinder, DisposableBean {
+    private static final long SHUTDOWN_WAIT_MILLIS = 10_000L;
+
+    private final TransactionRepository transactionRepository;
+    private final AccountRepository accountRepository;
+    private final TransactionIdGenerator transactionIdGenerator;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<FailedTransaction> queue;
+    private final int batchSize;
+    private final Map<ErrorCode, LongAdder> failures = new EnumMap<>(ErrorCode.class);
+    //남기지 못한 실패 거래 수 (큐가 가득 찼거나 저장 실패)
+    private final LongAdder dropped = new LongAdder();
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public FailedTransactionRecorder(
+            TransactionRepository transactionRepository,
+            AccountRepository accountRepository,
+            TransactionIdGenerator transactionIdGenerator,
+            PlatformTransactionManager transactionManager,
+            @Value("${account.transaction.failure.queue-capacity:10000}") int queueCapacity,
+            @Value("${account.transaction.failure.batch-size:500}") int batchSize) {
+        this.transactionRepository = transactionRepository;
+        this.accountRepository = accountRepository;
+        this.transactionIdGenerator = transactionIdGenerator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        for (ErrorCode errorCode : ErrorCode.values()) {
+            failures.put(errorCode, new LongAdder());
+        }
+        this.writer = new Thread(this::runWriter, "failed-transaction-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * @param account 이미 조회한 계좌 (조회 전에 실패했으면 null)
+     */
+    public void record(TransactionType transactionType, String accountNumber, Account account,
+                       Long amount, ErrorCode errorCode) {
+        failures.get(errorCode).increment();
+        FailedTransaction failed = new FailedTransaction(transactionType, accountNumber, account,
+                amount, transactionIdGenerator.nextId(), LocalDateTime.now());
+        if (!queue.offer(failed)) {
+            dropped.increment();
+            log.warn("Failed transaction queue is full, dropped {} record for {}", errorCode, accountNumber);
+        }
+    }
+
+    public long failureCount(ErrorCode errorCode) {
+        return failures.get(errorCode).sum();
+    }
+
+    public long droppedCount() {
+        return dropped.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        failures.forEach((errorCode, count) ->
+                FunctionCounter.builder("account.transaction.failed", count, LongAdder::sum)
+                        .tag("error_code", errorCode.name())
+                        .register(registry));
+        FunctionCounter.builder("account.transaction.failed.dropped", dropped, LongAdder::sum)
+                .description("Failed transaction records not saved (queue full or write failure)")
+                .register(registry);
+        Gauge.builder("account.transaction.failed.queue.depth", queue, BlockingQueue::size)
+                .register(registry);
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        writer.join(SHUTDOWN_WAIT_MILLIS);
+    }
+
+    private void runWriter() {
+        while (running || !queue.isEmpty()) {
+            List<FailedTransaction> batch = new ArrayList<>(batchSize);
+            try {
+                FailedTransaction first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+            } catch (InterruptedException e) {
+                return;
+            }
+            write(batch);
+        }
+    }
+
+    private void write(List<FailedTransaction> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Map<String, Account> accounts = findMissingAccounts(batch);
+                List<Transaction> transactions = new ArrayList<>(batch.size());
+                for (FailedTransaction failed : batch) {
+                    Account account = failed.account != null
+                            ? failed.account : accounts.get(failed.accountNumber);
+                    if (account != null) {
+                        transactions.add(failed.toTransaction(account));
+                    }
+                }
+                if (!transactions.isEmpty()) {
+                    transactionRepository.saveAll(transactions);
+                }
+            });
+        } catch (RuntimeException e) {
+            dropped.add(batch.size());
+            log.error("Failed to record {} failed transactions", batch.size(), e);
+        }
+    }
+
+    private Map<String, Account> findMissingAccounts(List<FailedTransaction> batch) {
+        Set<String> accountNumbers = batch.stream()
+                .filter(failed -> failed.account == null)
+                .map(failed -> failed.accountNumber)
+                .collect(Collectors.toSet());
+        if (accountNumbers.isEmpty()) {
+            return Map.of();
+        }
+        return accountRepository.findByAccountNumberIn(accountNumbers).stream()
+                .collect(Collectors.toMap(Account::getAccountNumber, Function.identity()));
+    }
+
+    @AllArgsConstructor
+    private static class FailedTransaction {
+        private final TransactionType transactionType;
+        private final String accountNumber;
+        private final Account account;
+        private final Long amount;
+        private final long transactionId;
+        private final LocalDateTime transactedAt;
+
+        Transaction toTransaction(Account account) {
+            return Transaction.builder()
+                    .transactionType(transactionType)
+                    .transactionResultType(F)
+                    .account(account)
+                    .amount(amount)
+                    .balanceSnapshot(account.getBalance())
+                    .transactionId(transactionId)
+                    .transactedAt(transactedAt)
+                    .build();
+        }
+    }
+}
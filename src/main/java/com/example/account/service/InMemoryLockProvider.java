@@ -0,0 +1,279 @@
+package com.example.account.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 단일 노드용 JVM 내부 락 (account.lock.provider=local)
+ * 키별로 CAS 로 (소유자, 리스 만료 시각) 을 한번에 바꾸는 가벼운 락을 ConcurrentHashMap 에 두고,
+ * - 리스 시간이 지난 락은 다음 경쟁자가 가져갈 수 있고
+ * - 소유자 + 대기자 수(refs)가 0 이 되면 맵에서 지워서 계좌 수만큼 맵이 커지지 않는다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "account.lock", name = "provider", havingValue = "local")
+public class InMemoryLockProvider implements LockProvider, MeterBinder, DisposableBean {
+    private static final long SWEEP_INTERVAL_MILLIS = 1_000L;
+
+    private final ConcurrentHashMap<String, LeaseLock> locks = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "in-memory-lock-timer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public InMemoryLockProvider() {
+        scheduler.scheduleWithFixedDelay(this::sweepExpired,
+                SWEEP_INTERVAL_MILLIS, SWEEP_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public boolean tryLock(String key, long waitTime, long leaseTime, TimeUnit unit) throws InterruptedException {
+        long ownerId = Thread.currentThread().getId();
+        long leaseNanos = unit.toNanos(leaseTime);
+        long deadline = System.nanoTime() + unit.toNanos(waitTime);
+
+        LeaseLock lock = retain(key);
+        if (lock.tryAcquire(ownerId, leaseNanos)) {
+            return true;
+        }
+
+        ThreadWaiter waiter = new ThreadWaiter(Thread.currentThread());
+        lock.waiters.add(waiter);
+        try {
+            while (true) {
+                if (lock.tryAcquire(ownerId, leaseNanos)) {
+                    return true;
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    giveUp(lock);
+                    return false;
+                }
+                //리스 만료 시점에도 깨어나서 다시 시도한다
+                LockSupport.parkNanos(this, Math.min(remaining, lock.leaseRemainingNanos()));
+                if (Thread.interrupted()) {
+                    giveUp(lock);
+                    throw new InterruptedException();
+                }
+            }
+        } finally {
+            lock.waiters.remove(waiter);
+        }
+    }
+
+    @Override
+    public void unlock(String key) {
+        unlock(key, Thread.currentThread().getId());
+    }
+
+    @Override
+    public CompletableFuture<Boolean> tryLockAsync(String key, long waitTime, long leaseTime, TimeUnit unit, long ownerId) {
+        long leaseNanos = unit.toNanos(leaseTime);
+
+        LeaseLock lock = retain(key);
+        if (lock.tryAcquire(ownerId, leaseNanos)) {
+            return CompletableFuture.completedFuture(true);
+        }
+
+        AsyncWaiter waiter = new AsyncWaiter(lock, ownerId, leaseNanos);
+        lock.waiters.add(waiter);
+        //등록하는 사이에 풀렸을 수 있으니 한번 더 시도
+        waiter.signal();
+        scheduler.schedule(() -> {
+            if (waiter.result.complete(false)) {
+                lock.waiters.remove(waiter);
+                giveUp(lock);
+            }
+        }, waitTime, unit);
+        return waiter.result;
+    }
+
+    @Override
+    public void unlockAsync(String key, long ownerId) {
+        unlock(key, ownerId);
+    }
+
+    private void unlock(String key, long ownerId) {
+        LeaseLock lock = locks.get(key);
+        //리스가 만료되어 다른 소유자에게 넘어갔으면 아무것도 하지 않는다
+        if (lock == null || !lock.free(ownerId)) {
+            log.debug("Lock {} is not held by {}", key, ownerId);
+            return;
+        }
+        release(lock);
+        lock.signalNext();
+    }
+
+    //대기하다 포기한 경우 참조를 놓고, 락이 비어 있으면 다음 대기자를 깨운다
+    private void giveUp(LeaseLock lock) {
+        release(lock);
+        if (lock.isFree()) {
+            lock.signalNext();
+        }
+    }
+
+    private LeaseLock retain(String key) {
+        return locks.compute(key, (k, lock) -> {
+            LeaseLock retained = lock == null ? new LeaseLock(k) : lock;
+            retained.refs++;
+            return retained;
+        });
+    }
+
+    private void release(LeaseLock lock) {
+        locks.computeIfPresent(lock.key, (k, current) -> {
+            if (current != lock) {
+                return current;
+            }
+            return --current.refs == 0 ? null : current;
+        });
+    }
+
+    //리스가 만료된 채 아무도 찾지 않는 락을 정리한다
+    private void sweepExpired() {
+        try {
+            for (LeaseLock lock : locks.values()) {
+                if (!lock.isExpired()) {
+                    continue;
+                }
+                if (lock.waiters.isEmpty()) {
+                    //확인한 리스 그대로일 때만 푼다 (그사이 새로 잡은 리스는 다른 객체)
+                    Lease expired = lock.lease.get();
+                    if (expired != null && expired.isExpired() && lock.lease.compareAndSet(expired, null)) {
+                        release(lock);
+                    }
+                }
+                lock.signalNext();
+            }
+        } catch (RuntimeException e) {
+            log.error("In-memory lock sweep failed", e);
+        }
+    }
+
+    public int size() {
+        return locks.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("account.lock.local.keys", locks, ConcurrentHashMap::size)
+                .description("Account lock keys held or waited on in the JVM")
+                .register(registry);
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+
+    //소유자와 리스 만료 시각은 한 객체로 같이 바꾼다 (따로 쓰면 방금 잡은 락이 이전 만료 시각으로 보여서 뺏길 수 있다)
+    private record Lease(long owner, long deadline) {
+        private boolean isExpired() {
+            return System.nanoTime() - deadline > 0;
+        }
+    }
+
+    private final class LeaseLock {
+        private final String key;
+        //null 이면 비어 있다
+        private final AtomicReference<Lease> lease = new AtomicReference<>();
+        private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+        //소유자 + 대기자 수. locks.compute 안에서만 바꾼다
+        private int refs;
+
+        private LeaseLock(String key) {
+            this.key = key;
+        }
+
+        private boolean tryAcquire(long ownerId, long leaseNanos) {
+            Lease current = lease.get();
+            if (current != null && !current.isExpired()) {
+                return false;
+            }
+            if (!lease.compareAndSet(current, new Lease(ownerId, System.nanoTime() + leaseNanos))) {
+                return false;
+            }
+            if (current != null) {
+                //리스가 만료된 이전 소유자의 참조를 대신 정리한다
+                log.warn("Lock {} lease expired, taken over", key);
+                release(this);
+            }
+            return true;
+        }
+
+        //리스가 만료되어 다른 소유자에게 넘어갔으면 false
+        private boolean free(long ownerId) {
+            Lease current = lease.get();
+            return current != null && current.owner() == ownerId && lease.compareAndSet(current, null);
+        }
+
+        private boolean isFree() {
+            return lease.get() == null;
+        }
+
+        private boolean isExpired() {
+            Lease current = lease.get();
+            return current != null && current.isExpired();
+        }
+
+        private long leaseRemainingNanos() {
+            Lease current = lease.get();
+            return current == null ? 1L : Math.max(1L, current.deadline() - System.nanoTime());
+        }
+
+        private void signalNext() {
+            Waiter next = waiters.peek();
+            if (next != null) {
+                next.signal();
+            }
+        }
+    }
+
+    private interface Waiter {
+        void signal();
+    }
+
+    private record ThreadWaiter(Thread thread) implements Waiter {
+        @Override
+        public void signal() {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    private static final class AsyncWaiter implements Waiter {
+        private final LeaseLock lock;
+        private final long ownerId;
+        private final long leaseNanos;
+        private final CompletableFuture<Boolean> result = new CompletableFuture<>();
+
+        private AsyncWaiter(LeaseLock lock, long ownerId, long leaseNanos) {
+            this.lock = lock;
+            this.ownerId = ownerId;
+            this.leaseNanos = leaseNanos;
+        }
+
+        @Override
+        public void signal() {
+            if (result.isDone() || !lock.tryAcquire(ownerId, leaseNanos)) {
+                return;
+            }
+            lock.waiters.remove(this);
+            if (!result.complete(true)) {
+                //그사이 대기시간이 끝났으면 잡은 락을 돌려놓는다 (참조는 타임아웃 쪽에서 정리)
+                lock.free(ownerId);
+                lock.signalNext();
+            }
+        }
+    }
+}
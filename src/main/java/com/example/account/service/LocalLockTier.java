@@ -0,0 +1,158 @@
+package com.example.account.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Redis 락 앞단의 JVM 내부 락 (계좌번호 해시로 나눈 striped lock)
+ * 같은 JVM 안의 경쟁자는 여기서 줄을 서고, 이긴 스레드 하나만 Redis 락을 시도한다.
+ * Redis 락이 실제 상호배제를 보장하므로 여기는 Redis 왕복/pub-sub 대기를 줄이는 용도다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "account.lock", name = "provider", havingValue = "redisson", matchIfMissing = true)
+public class LocalLockTier implements MeterBinder {
+    private final boolean enabled;
+    private final ReentrantLock[] stripes;
+
+    //JVM 안에서 바로 잡은 횟수
+    private final LongAdder acquired = new LongAdder();
+    //다른 스레드가 잡고 있어서 Redis 대신 JVM 안에서 기다린 횟수
+    private final LongAdder queued = new LongAdder();
+    //JVM 안에서 대기시간을 넘겨 Redis 호출 없이 실패한 횟수
+    private final LongAdder rejected = new LongAdder();
+    //Redis 락 시도 횟수
+    private final LongAdder redisAttempts = new LongAdder();
+
+    public LocalLockTier(
+            @Value("${account.lock.local-tier.enabled:true}") boolean enabled,
+            @Value("${account.lock.local-tier.stripes:4096}") int stripes) {
+        this.enabled = enabled;
+        //2의 거듭제곱으로 맞춰서 비트 연산으로 stripe 를 고른다
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new ReentrantLock(true);
+        }
+    }
+
+    public boolean tryLock(String accountNumber, long waitTime, TimeUnit unit) throws InterruptedException {
+        if (!enabled) {
+            return true;
+        }
+        return tryLock(stripes[stripeIndex(accountNumber)], waitTime, unit);
+    }
+
+    /**
+     * 여러 계좌를 한번에 잡는다.
+     * 계좌번호 순서와 stripe 순서가 달라서 겹치지 않는 요청끼리도 stripe 를 엇갈려 잡을 수 있으므로
+     * stripe 번호 순서로, 같은 stripe 는 한번만 잡는다. 대기 시간은 모든 stripe 를 합친 시간이고,
+     * 하나라도 실패하면 잡은 stripe 를 풀고 false 를 돌려준다.
+     */
+    public boolean tryLockAll(Collection<String> accountNumbers, long waitTime, TimeUnit unit) throws InterruptedException {
+        if (!enabled) {
+            return true;
+        }
+        long deadline = System.nanoTime() + unit.toNanos(waitTime);
+        int[] indexes = stripeIndexesOf(accountNumbers);
+        int locked = 0;
+        try {
+            for (int index : indexes) {
+                if (!tryLock(stripes[index], deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                    return false;
+                }
+                locked++;
+            }
+            return true;
+        } finally {
+            if (locked < indexes.length) {
+                for (int i = locked - 1; i >= 0; i--) {
+                    stripes[indexes[i]].unlock();
+                }
+            }
+        }
+    }
+
+    private boolean tryLock(ReentrantLock lock, long waitTime, TimeUnit unit) throws InterruptedException {
+        if (lock.tryLock()) {
+            acquired.increment();
+            return true;
+        }
+
+        queued.increment();
+        if (lock.tryLock(waitTime, unit)) {
+            acquired.increment();
+            return true;
+        }
+        rejected.increment();
+        log.error("=====================Local lock acquisition failed");
+        return false;
+    }
+
+    public void unlock(String accountNumber) {
+        if (!enabled) {
+            return;
+        }
+        unlock(stripes[stripeIndex(accountNumber)]);
+    }
+
+    //tryLockAll 로 잡은 stripe 를 반대 순서로 한번씩 푼다
+    public void unlockAll(Collection<String> accountNumbers) {
+        if (!enabled) {
+            return;
+        }
+        int[] indexes = stripeIndexesOf(accountNumbers);
+        for (int i = indexes.length - 1; i >= 0; i--) {
+            unlock(stripes[indexes[i]]);
+        }
+    }
+
+    private void unlock(ReentrantLock lock) {
+        if (lock.isHeldByCurrentThread()) {
+            lock.unlock();
+        }
+    }
+
+    public void recordRedisAttempt() {
+        redisAttempts.increment();
+    }
+
+    int stripeIndex(String accountNumber) {
+        int hash = accountNumber.hashCode();
+        return (hash ^ (hash >>> 16)) & (stripes.length - 1);
+    }
+
+    private int[] stripeIndexesOf(Collection<String> accountNumbers) {
+        return accountNumbers.stream()
+                .mapToInt(this::stripeIndex)
+                .distinct()
+                .sorted()
+                .toArray();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("account.lock.local.acquired", acquired, LongAdder::sum)
+                .description("Locks acquired in the JVM tier")
+                .register(registry);
+        FunctionCounter.builder("account.lock.local.queued", queued, LongAdder::sum)
+                .description("Contenders that waited in the JVM instead of polling Redis")
+                .register(registry);
+        FunctionCounter.builder("account.lock.local.rejected", rejected, LongAdder::sum)
+                .description("Lock attempts rejected in the JVM without a Redis round-trip")
+                .register(registry);
+        FunctionCounter.builder("account.lock.redis.attempts", redisAttempts, LongAdder::sum)
+                .description("Redis lock attempts")
+                .register(registry);
+    }
+}
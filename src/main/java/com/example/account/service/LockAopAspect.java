@@ -1,33 +1,143 @@
 package com.example.account.service;
 
+import com.example.account.aop.AccountLock;
 import com.example.account.aop.AccountLockIdInterface;
+import com.example.account.aop.AccountLockIdsInterface;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
 @Aspect
 @Component
 @Slf4j
 @RequiredArgsConstructor
 public class LockAopAspect {
     private final LockService lockService;
+    private final TaskExecutor accountLockTaskExecutor;
+    private final AccountNumberFilter accountNumberFilter;
+    private final LockMetrics lockMetrics;
+
+    //pessimistic: 계좌 락 / optimistic: 락 없이 Account 버전 충돌시 재시도 / atomic: 락 없이 조건부 UPDATE
+    @Value("${account.concurrency.mode:pessimistic}")
+    private String concurrencyMode;
 
     @Around("@annotation(com.example.account.aop.AccountLock) && args(request)")
     public Object aroundMethod(
             ProceedingJoinPoint pjp,
             AccountLockIdInterface request
     )throws Throwable{
+        //없는 계좌번호는 락/DB 조회 전에 거절
+        accountNumberFilter.checkExists(request.getAccountNumber());
+
+        if (skipsLock(pjp)){
+            return pjp.proceed();
+        }
+        if (returnsCompletableFuture(pjp)){
+            return aroundAsyncMethod(pjp, request);
+        }
+
         //lock 취득 시도
         lockService.lock(request.getAccountNumber());
+        long acquiredNanos = System.nanoTime();
         try{
             return pjp.proceed();
 
         }finally {
             //lock 해제
             lockService.unLock(request.getAccountNumber());
+            lockMetrics.recordHold(LockMetrics.Mode.SYNC, acquiredNanos);
+        }
+    }
+
+    /**
+     * 여러 계좌 요청: 있는 계좌만 계좌번호 순서로 한번씩 잡는다.
+     * 없는 계좌는 잠그지 않고 넘겨서 해당 건만 실패하게 한다.
+     */
+    @Around("@annotation(com.example.account.aop.AccountLock) && args(request)")
+    public Object aroundBatchMethod(
+            ProceedingJoinPoint pjp,
+            AccountLockIdsInterface request
+    )throws Throwable{
+        if (skipsLock(pjp)){
+            return pjp.proceed();
+        }
+
+        List<String> locked = lockService.lockAll(request.getAccountNumbers().stream()
+                .filter(accountNumberFilter::exists)
+                .toList());
+        long acquiredNanos = System.nanoTime();
+        try{
+            return pjp.proceed();
+        }finally {
+            lockService.unLockAll(locked);
+            lockMetrics.recordHold(LockMetrics.Mode.BATCH, acquiredNanos);
         }
     }
+
+    /**
+     * CompletableFuture 를 반환하는 메소드는 락 대기 동안 요청 스레드를 점유하지 않는다.
+     * 락이 잡히면 accountLockTaskExecutor 에서 메소드를 실행하고, 끝나면(실패 포함) 락을 해제한다.
+     */
+    private CompletableFuture<Object> aroundAsyncMethod(
+            ProceedingJoinPoint pjp,
+            AccountLockIdInterface request
+    ){
+        String accountNumber = request.getAccountNumber();
+
+        return lockService.lockAsync(accountNumber)
+                .thenCompose(lockOwnerId -> {
+                    long acquiredNanos = System.nanoTime();
+                    return runOnExecutor(pjp)
+                            .whenComplete((result, e) -> {
+                                lockService.unLockAsync(accountNumber, lockOwnerId);
+                                lockMetrics.recordHold(LockMetrics.Mode.ASYNC, acquiredNanos);
+                            });
+                });
+    }
+
+    //스레드풀이 꽉 차서 거절되어도 락은 풀리도록 실패한 future 로 바꿔서 돌려준다
+    private CompletableFuture<Object> runOnExecutor(ProceedingJoinPoint pjp){
+        try{
+            return CompletableFuture.supplyAsync(() -> proceedAsync(pjp), accountLockTaskExecutor)
+                    .thenCompose(Function.identity());
+        }catch (RuntimeException e){
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static CompletableFuture<Object> proceedAsync(ProceedingJoinPoint pjp){
+        try{
+            return (CompletableFuture<Object>) pjp.proceed();
+        }catch (Throwable e){
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private boolean skipsLock(ProceedingJoinPoint pjp){
+        AccountLock.LockMode mode = pjp.getSignature() instanceof MethodSignature signature
+                && signature.getMethod().isAnnotationPresent(AccountLock.class)
+                ? signature.getMethod().getAnnotation(AccountLock.class).mode()
+                : AccountLock.LockMode.CONFIGURED;
+
+        if (mode == AccountLock.LockMode.CONFIGURED){
+            return "optimistic".equals(concurrencyMode) || "atomic".equals(concurrencyMode);
+        }
+        return mode == AccountLock.LockMode.OPTIMISTIC;
+    }
+
+    private static boolean returnsCompletableFuture(ProceedingJoinPoint pjp){
+        return pjp.getSignature() instanceof MethodSignature signature
+                && CompletableFuture.class.isAssignableFrom(signature.getReturnType());
+    }
 }
@@ -0,0 +1,73 @@
+package com.example.account.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 계좌 락 타이머 (계좌번호는 태그로 쓰지 않는다)
+ * - account.lock.acquire : 락 취득까지 걸린 시간 (mode, result=acquired/timeout/error)
+ * - account.lock.hold    : 락을 잡고 있던 시간 (mode) = 서비스 호출 + DB
+ * 히스토그램은 management.metrics.distribution.percentiles-histogram 으로 켠다.
+ */
+@Component
+public class LockMetrics {
+    public enum Mode {SYNC, ASYNC, BATCH, REACTIVE}
+
+    public enum Result {
+        ACQUIRED, TIMEOUT, ERROR;
+
+        //LockProvider.tryLock 결과 (예외가 났으면 error)
+        public static Result of(Boolean isLock, Throwable error) {
+            if (error != null) {
+                return ERROR;
+            }
+            return Boolean.TRUE.equals(isLock) ? ACQUIRED : TIMEOUT;
+        }
+    }
+
+    private final Map<Mode, Map<Result, Timer>> acquireTimers = new EnumMap<>(Mode.class);
+    private final Map<Mode, Timer> holdTimers = new EnumMap<>(Mode.class);
+
+    public LockMetrics(MeterRegistry registry) {
+        //태그 조합이 고정이라 미리 만들어 둔다 (기록할 때 레지스트리 조회 없음)
+        for (Mode mode : Mode.values()) {
+            Map<Result, Timer> byResult = new EnumMap<>(Result.class);
+            for (Result result : Result.values()) {
+                byResult.put(result, Timer.builder("account.lock.acquire")
+                        .description("Time to acquire an account lock")
+                        .tag("mode", tagValue(mode))
+                        .tag("result", tagValue(result))
+                        .register(registry));
+            }
+            acquireTimers.put(mode, byResult);
+            holdTimers.put(mode, Timer.builder("account.lock.hold")
+                    .description("Time an account lock was held")
+                    .tag("mode", tagValue(mode))
+                    .register(registry));
+        }
+    }
+
+    /**
+     * @param startNanos System.nanoTime() (취득 시도 시작)
+     */
+    public void recordAcquire(Mode mode, Result result, long startNanos) {
+        acquireTimers.get(mode).get(result).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @param acquiredNanos System.nanoTime() (취득 직후)
+     */
+    public void recordHold(Mode mode, long acquiredNanos) {
+        holdTimers.get(mode).record(System.nanoTime() - acquiredNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static String tagValue(Enum<?> value) {
+        return value.name().toLowerCase(Locale.ROOT);
+    }
+}
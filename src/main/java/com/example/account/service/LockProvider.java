@@ -0,0 +1,71 @@
+package com.example.account.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LockService 가 사용하는 락 구현체 (account.lock.provider 로 선택)
+ * - redisson : Redis 분산 락 (기본값, 여러 노드)
+ * - local    : JVM 내부 락 (단일 노드 / 테스트)
+ */
+public interface LockProvider {
+
+    /**
+     * 현재 스레드를 소유자로 락을 잡는다.
+     */
+    boolean tryLock(String key, long waitTime, long leaseTime, TimeUnit unit) throws InterruptedException;
+
+    void unlock(String key);
+
+    /**
+     * 여러 키를 넘겨받은 순서로 잡는다. (중복 없는 키, 호출하는 쪽이 모든 요청에 같은 순서로 넘긴다)
+     * 대기 시간은 모든 키를 합친 시간이고, 하나라도 실패하면 잡은 키를 풀고 false 를 돌려준다.
+     */
+    default boolean tryLockAll(List<String> keys, long waitTime, long leaseTime, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(waitTime);
+        List<String> locked = new ArrayList<>(keys.size());
+        try {
+            for (String key : keys) {
+                if (!tryLock(key, deadline - System.nanoTime(), unit.toNanos(leaseTime), TimeUnit.NANOSECONDS)) {
+                    return false;
+                }
+                locked.add(key);
+            }
+            return true;
+        } finally {
+            if (locked.size() < keys.size()) {
+                unlockAll(locked);
+            }
+        }
+    }
+
+    /**
+     * tryLockAll 로 잡은 키를 반대 순서로 푼다. 하나가 실패해도 나머지는 풀고 첫 예외를 던진다.
+     */
+    default void unlockAll(List<String> keys) {
+        RuntimeException failure = null;
+        for (int i = keys.size() - 1; i >= 0; i--) {
+            try {
+                unlock(keys.get(i));
+            } catch (RuntimeException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * 스레드가 아닌 ownerId 를 소유자로 락을 잡는다. 기다리는 동안 호출 스레드를 막지 않는다.
+     */
+    CompletableFuture<Boolean> tryLockAsync(String key, long waitTime, long leaseTime, TimeUnit unit, long ownerId);
+
+    void unlockAsync(String key, long ownerId);
+}
@@ -4,24 +4,40 @@ import com.example.account.exception.AccountException;
 import com.example.account.type.ErrorCode;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.redisson.api.RLock;
-import org.redisson.api.RedissonClient;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 
+/**
+ * 계좌 락 (실제 락 구현은 LockProvider, account.lock.provider 로 선택)
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class LockService {
-    private final RedissonClient redissonClient;
+    //ReactiveLockService 도 같은 키/시간으로 잡는다
+    static final long LOCK_WAIT_MILLIS = 1_000L;
+    static final long LOCK_LEASE_MILLIS = 15_000L;
+
+    private final LockProvider lockProvider;
+    private final LockMetrics lockMetrics;
 
     public void lock(String accountNumber){
-        RLock lock= redissonClient.getLock(getLockKey(accountNumber));
+        lock(accountNumber, LockMetrics.Mode.SYNC);
+    }
+
+    private void lock(String accountNumber, LockMetrics.Mode mode){
         log.debug("Trying lock for accountNumber {}",accountNumber);
 
+        long startNanos = System.nanoTime();
         try{
-            boolean  isLock = lock.tryLock(1,15, TimeUnit.SECONDS);
+            boolean  isLock = lockProvider.tryLock(getLockKey(accountNumber),
+                    LOCK_WAIT_MILLIS, LOCK_LEASE_MILLIS, TimeUnit.MILLISECONDS);
+            lockMetrics.recordAcquire(mode, LockMetrics.Result.of(isLock, null), startNanos);
 
             if (!isLock){
                 log.error("=====================Lock acquisition failed");
@@ -30,6 +46,7 @@ public class LockService {
         }catch (AccountException e){
             throw e;
         }catch (Exception e){
+            lockMetrics.recordAcquire(mode, LockMetrics.Result.ERROR, startNanos);
             log.error("Redis lock failed",e);
         }
 
@@ -38,10 +55,85 @@ public class LockService {
     public void unLock(String accountNumber){
         log.debug("Unlock for accountNumber : {}",accountNumber);
 
-        redissonClient.getLock(getLockKey(accountNumber)).unlock();
+        lockProvider.unlock(getLockKey(accountNumber));
     }
 
-    private static String getLockKey(String accountNumber) {
+    /**
+     * 여러 계좌를 한번에 잡는다. (LockProvider.tryLockAll)
+     * Redis 락은 계좌번호 순서로, JVM 내부 락은 stripe 순서로 잡아서 요청끼리 엇갈려 잡지는 않는다.
+     * 겹치는 계좌를 먼저 잡은 요청이 있으면 모두 합쳐 LOCK_WAIT_MILLIS 까지 기다리고,
+     * 그 안에 못 잡으면 이미 잡은 락을 풀고 ACCOUNT_TRANSACTION_LOCK 을 던진다.
+     *
+     * @return 잡은 계좌번호 (unLockAll 에 넘긴다)
+     */
+    public List<String> lockAll(Collection<String> accountNumbers){
+        List<String> ordered = accountNumbers.stream().distinct().sorted().toList();
+        log.debug("Trying lock for accountNumbers {}",ordered);
+
+        long startNanos = System.nanoTime();
+        try{
+            boolean isLock = lockProvider.tryLockAll(getLockKeys(ordered),
+                    LOCK_WAIT_MILLIS, LOCK_LEASE_MILLIS, TimeUnit.MILLISECONDS);
+            lockMetrics.recordAcquire(LockMetrics.Mode.BATCH, LockMetrics.Result.of(isLock, null), startNanos);
+
+            if (!isLock){
+                log.error("=====================Lock acquisition failed");
+                throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+            }
+        }catch (AccountException e){
+            throw e;
+        }catch (Exception e){
+            lockMetrics.recordAcquire(LockMetrics.Mode.BATCH, LockMetrics.Result.ERROR, startNanos);
+            log.error("Redis lock failed",e);
+        }
+        return ordered;
+    }
+
+    //잡은 반대 순서로 푼다. 하나가 실패해도 나머지는 푼다
+    public void unLockAll(List<String> accountNumbers){
+        log.debug("Unlock for accountNumbers : {}",accountNumbers);
+        try{
+            lockProvider.unlockAll(getLockKeys(accountNumbers));
+        }catch (RuntimeException e){
+            log.error("Unlock failed for accountNumbers {}", accountNumbers, e);
+        }
+    }
+
+    /**
+     * 스레드를 붙잡지 않고 락을 취득한다.
+     * 락 소유자가 요청 스레드가 아니므로 임의의 소유자 id 로 잡고, 해제할 때 같은 id 를 넘겨야 한다.
+     *
+     * @return 락 소유자 id (unLockAsync 에 넘긴다)
+     */
+    public CompletableFuture<Long> lockAsync(String accountNumber){
+        long lockOwnerId = ThreadLocalRandom.current().nextLong();
+        log.debug("Trying async lock for accountNumber {}",accountNumber);
+
+        long startNanos = System.nanoTime();
+        return lockProvider.tryLockAsync(getLockKey(accountNumber),
+                        LOCK_WAIT_MILLIS, LOCK_LEASE_MILLIS, TimeUnit.MILLISECONDS, lockOwnerId)
+                .whenComplete((isLock, e) ->
+                        lockMetrics.recordAcquire(LockMetrics.Mode.ASYNC, LockMetrics.Result.of(isLock, e), startNanos))
+                .thenApply(isLock -> {
+                    if (!isLock){
+                        log.error("=====================Lock acquisition failed");
+                        throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+                    }
+                    return lockOwnerId;
+                });
+    }
+
+    public void unLockAsync(String accountNumber, long lockOwnerId){
+        log.debug("Async unlock for accountNumber : {}",accountNumber);
+
+        lockProvider.unlockAsync(getLockKey(accountNumber), lockOwnerId);
+    }
+
+    static String getLockKey(String accountNumber) {
         return "ACLK:" + accountNumber;
     }
+
+    private static List<String> getLockKeys(List<String> accountNumbers) {
+        return accountNumbers.stream().map(LockService::getLockKey).toList();
+    }
 }
@@ -0,0 +1,60 @@
+package com.example.account.service;
+
+import com.example.account.exception.AccountException;
+import com.example.account.type.ErrorCode;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * @OptimisticRetry 메소드를 버전 충돌시 지터를 준 지수 백오프로 재시도한다.
+ * 트랜잭션 인터셉터(LOWEST_PRECEDENCE)보다 바깥에서 돌아야 매번 새 트랜잭션으로 실행된다.
+ */
+@Slf4j
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+public class OptimisticRetryAspect {
+
+    @Value("${account.concurrency.optimistic.max-attempts:5}")
+    private int maxAttempts = 5;
+
+    @Value("${account.concurrency.optimistic.backoff-millis:5}")
+    private long backoffMillis = 5L;
+
+    @Value("${account.concurrency.optimistic.max-backoff-millis:100}")
+    private long maxBackoffMillis = 100L;
+
+    @Around("@annotation(com.example.account.aop.OptimisticRetry)")
+    public Object retry(ProceedingJoinPoint pjp) throws Throwable {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return pjp.proceed();
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    log.error("Optimistic lock retry exhausted after {} attempts", attempt);
+                    throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+                }
+                log.debug("Optimistic lock conflict, retry {}", attempt);
+                sleepBackoff(attempt);
+            }
+        }
+    }
+
+    //full jitter: 0 ~ min(max, base * 2^(attempt-1))
+    private void sleepBackoff(int attempt) throws InterruptedException {
+        long ceiling = Math.min(maxBackoffMillis, backoffMillis << Math.min(attempt - 1, 20));
+        long sleepMillis = ThreadLocalRandom.current().nextLong(ceiling + 1);
+        if (sleepMillis > 0) {
+            Thread.sleep(sleepMillis);
+        }
+    }
+}
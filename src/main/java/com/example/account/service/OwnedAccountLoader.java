@@ -0,0 +1,40 @@
+package com.example.account.service;
+
+import com.example.account.domain.Account;
+import com.example.account.exception.AccountException;
+import com.example.account.repository.AccountRepository;
+import com.example.account.type.ErrorCode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * 유저의 계좌를 소유주와 함께 한 문장으로 읽는다. (잔액 사용, 이체 출금, 계좌 해지)
+ * 성공하면 유저를 따로 조회하지 않고, 못 찾았을 때만 한 문장 더 읽어서 원인을 가린다.
+ * 원인 순서는 예전 검증 순서와 같다: 유저 없음 -> 계좌 없음 -> 소유주 다름
+ */
+@Component
+@RequiredArgsConstructor
+public class OwnedAccountLoader {
+    private final AccountRepository accountRepository;
+
+    /**
+     * @throws AccountException USER_NOT_FOUND, ACCOUNT_NOT_FOUND, USER_ACCOUNT_UN_MATCH
+     */
+    public Account load(Long userId, String accountNumber) {
+        return accountRepository.findOwnedAccount(userId, accountNumber)
+                .orElseThrow(() -> resolveFailure(userId, accountNumber));
+    }
+
+    /**
+     * 계좌를 못 찾았거나 (캐시로 보니) 다른 사람 계좌일 때 알맞은 예외를 만든다
+     */
+    public AccountException resolveFailure(Long userId, String accountNumber) {
+        Optional<AccountRepository.OwnershipView> ownership = accountRepository.findOwnership(userId, accountNumber);
+        if (ownership.isEmpty()) {
+            return new AccountException(ErrorCode.USER_NOT_FOUND);
+        }
+        return TransactionRules.ownershipFailure(userId, ownership.get().getOwnerId());
+    }
+}
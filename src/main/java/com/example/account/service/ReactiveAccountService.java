@@ -0,0 +1,99 @@
+package com.example.account.service;
+
+import com.example.account.dto.AccountDto;
+import com.example.account.exception.AccountException;
+import com.example.account.repository.ReactiveAccountRepository;
+import com.example.account.type.ErrorCode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDateTime;
+
+/**
+ * reactive 프로파일의 계좌 생성/해지/목록 (검증 순서와 ErrorCode 는 AccountService 와 같다)
+ */
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveAccountService {
+    private final ReactiveAccountRepository accountRepository;
+    private final ReactiveOwnedAccountLoader ownedAccountLoader;
+    private final AccountNumberAllocator accountNumberAllocator;
+    private final AccountNumberFilter accountNumberFilter;
+    private final AccountCache accountCache;
+    private final TransactionalOperator transactionalOperator;
+
+    public Mono<AccountDto> createAccount(Long userId, Long initialBalance) {
+        return getAccountUserId(userId)
+                .flatMap(accountRepository::countByAccountUserId)
+                .flatMap(count -> {
+                    if (count >= 10) {
+                        return Mono.error(new AccountException(ErrorCode.MEX_ACCOUNT_PER_USER_10));
+                    }
+                    return nextAccountNumber();
+                })
+                .flatMap(accountNumber -> {
+                    LocalDateTime now = LocalDateTime.now();
+                    return accountRepository.insert(userId, accountNumber, initialBalance, now)
+                            .thenReturn(AccountDto.builder()
+                                    .userId(userId)
+                                    .accountNumber(accountNumber)
+                                    .balance(initialBalance)
+                                    .registeredAt(now)
+                                    .build());
+                })
+                .as(transactionalOperator::transactional)
+                //없는 계좌번호 필터에 등록
+                .doOnNext(accountDto -> accountNumberFilter.put(accountDto.getAccountNumber()));
+    }
+
+    public Mono<AccountDto> deleteAccount(Long userId, String accountNumber) {
+        return ownedAccountLoader.load(userId, accountNumber)
+                .flatMap(account -> {
+                    TransactionRules.validateDelete(account.accountStatus(), account.balance());
+
+                    LocalDateTime now = LocalDateTime.now();
+                    return accountRepository.unregister(account.id(), now)
+                            .thenReturn(AccountDto.builder()
+                                    .userId(userId)
+                                    .accountNumber(accountNumber)
+                                    .balance(account.balance())
+                                    .registeredAt(account.registeredAt())
+                                    .unRegisteredAt(now)
+                                    .build());
+                })
+                .as(transactionalOperator::transactional)
+                //캐시의 사용중 상태를 지운다 (커밋 후)
+                .doOnNext(accountDto -> accountCache.invalidate(accountNumber));
+    }
+
+    public Flux<AccountDto> getAccountsByUserId(Long userId) {
+        return getAccountUserId(userId)
+                .flatMapMany(accountRepository::findByAccountUserId)
+                .map(account -> AccountDto.builder()
+                        .userId(userId)
+                        .accountNumber(account.accountNumber())
+                        .balance(account.balance())
+                        .registeredAt(account.registeredAt())
+                        .unRegisteredAt(account.unRegisteredAt())
+                        .build());
+    }
+
+    private Mono<Long> getAccountUserId(Long userId) {
+        return accountRepository.existsUser(userId)
+                .filter(Boolean::booleanValue)
+                .map(exists -> userId)
+                .switchIfEmpty(Mono.error(() -> new AccountException(ErrorCode.USER_NOT_FOUND)));
+    }
+
+    //구간을 새로 받을 때 JPA 로 DB 를 읽으므로 이벤트 루프 밖에서
+    private Mono<String> nextAccountNumber() {
+        return Mono.fromCallable(accountNumberAllocator::nextAccountNumber)
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+}
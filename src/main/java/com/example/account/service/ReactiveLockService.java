@@ -0,0 +1,94 @@
+package com.example.account.service;
+
+import com.example.account.exception.AccountException;
+import com.example.account.type.ErrorCode;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.RedissonReactiveClient;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * reactive 프로파일의 계좌 락 (LockService 와 같은 키, 대기/점유 시간)
+ * account.lock.provider=redisson 이면 Redisson reactive API, local 이면 LockProvider 의 비동기 락을 쓴다.
+ * 락 소유자는 요청 스레드가 아니라 임의의 소유자 id 다. (LockService.lockAsync 와 같다)
+ */
+@Slf4j
+@Service
+@Profile("reactive")
+public class ReactiveLockService {
+    private final LockProvider lockProvider;
+    private final LockMetrics lockMetrics;
+    private final RedissonReactiveClient redissonReactiveClient;
+
+    //잡은 락의 소유자 id 와 잡은 시각 (System.nanoTime)
+    private record HeldLock(long lockOwnerId, long acquiredNanos) {
+    }
+
+    public ReactiveLockService(LockProvider lockProvider, LockMetrics lockMetrics,
+                               ObjectProvider<RedissonClient> redissonClient) {
+        this.lockProvider = lockProvider;
+        this.lockMetrics = lockMetrics;
+        RedissonClient client = redissonClient.getIfAvailable();
+        this.redissonReactiveClient = client == null ? null : client.reactive();
+    }
+
+    /**
+     * 락을 잡고 action 을 실행한 뒤 (성공/실패/취소 모두) 푼다
+     *
+     * @throws AccountException ACCOUNT_TRANSACTION_LOCK - 대기 시간 안에 못 잡았을 때
+     */
+    public <T> Mono<T> withLock(String accountNumber, Supplier<Mono<T>> action) {
+        String key = LockService.getLockKey(accountNumber);
+        return Mono.usingWhen(
+                lock(key),
+                heldLock -> action.get(),
+                heldLock -> unlock(key, heldLock.lockOwnerId())
+                        .doFinally(signal -> lockMetrics.recordHold(LockMetrics.Mode.REACTIVE, heldLock.acquiredNanos())));
+    }
+
+    private Mono<HeldLock> lock(String key) {
+        return Mono.defer(() -> {
+            long lockOwnerId = ThreadLocalRandom.current().nextLong();
+            long startNanos = System.nanoTime();
+            log.debug("Trying reactive lock for {}", key);
+            return tryLock(key, lockOwnerId)
+                    .doOnError(e -> lockMetrics.recordAcquire(LockMetrics.Mode.REACTIVE, LockMetrics.Result.ERROR, startNanos))
+                    .flatMap(isLock -> {
+                        lockMetrics.recordAcquire(LockMetrics.Mode.REACTIVE, LockMetrics.Result.of(isLock, null), startNanos);
+                        if (!isLock) {
+                            log.error("=====================Lock acquisition failed");
+                            return Mono.error(new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK));
+                        }
+                        return Mono.just(new HeldLock(lockOwnerId, System.nanoTime()));
+                    });
+        });
+    }
+
+    private Mono<Boolean> tryLock(String key, long lockOwnerId) {
+        if (redissonReactiveClient != null) {
+            return redissonReactiveClient.getLock(key).tryLock(
+                    LockService.LOCK_WAIT_MILLIS, LockService.LOCK_LEASE_MILLIS, TimeUnit.MILLISECONDS, lockOwnerId);
+        }
+        return Mono.fromFuture(() -> lockProvider.tryLockAsync(key,
+                LockService.LOCK_WAIT_MILLIS, LockService.LOCK_LEASE_MILLIS, TimeUnit.MILLISECONDS, lockOwnerId));
+    }
+
+    //점유 시간이 지나 이미 풀린 락은 로그만 남긴다
+    private Mono<Void> unlock(String key, long lockOwnerId) {
+        log.debug("Reactive unlock for {}", key);
+        Mono<Void> unlock = redissonReactiveClient != null
+                ? redissonReactiveClient.getLock(key).unlock(lockOwnerId)
+                : Mono.fromRunnable(() -> lockProvider.unlockAsync(key, lockOwnerId));
+        return unlock.onErrorResume(e -> {
+            log.error("Reactive unlock failed for {}", key, e);
+            return Mono.empty();
+        });
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.account.service;
+
+import com.example.account.exception.AccountException;
+import com.example.account.repository.ReactiveAccountRepository;
+import com.example.account.type.ErrorCode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * OwnedAccountLoader 의 reactive 버전 (같은 순서로 원인을 가린다: 유저 없음 -> 계좌 없음 -> 소유주 다름)
+ */
+@Component
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveOwnedAccountLoader {
+    private final ReactiveAccountRepository accountRepository;
+
+    /**
+     * @return 못 찾으면 USER_NOT_FOUND, ACCOUNT_NOT_FOUND, USER_ACCOUNT_UN_MATCH 에러
+     */
+    public Mono<ReactiveAccountRepository.AccountRow> load(Long userId, String accountNumber) {
+        return accountRepository.findOwnedAccount(userId, accountNumber)
+                .switchIfEmpty(Mono.defer(() -> resolveFailure(userId, accountNumber)));
+    }
+
+    //계좌를 못 찾은 원인 (캐시로 소유주가 다른 걸 먼저 알았을 때도 유저 없음과 구분한다)
+    <T> Mono<T> resolveFailure(Long userId, String accountNumber) {
+        return accountRepository.findOwnership(userId, accountNumber)
+                .switchIfEmpty(Mono.error(() -> new AccountException(ErrorCode.USER_NOT_FOUND)))
+                .flatMap(ownership -> Mono.error(TransactionRules.ownershipFailure(userId, ownership.ownerId())));
+    }
+}
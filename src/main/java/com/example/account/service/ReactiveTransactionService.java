@@ -0,0 +1,168 @@
+package com.example.account.service;
+
+import com.example.account.domain.TransactionIds;
+import com.example.account.dto.QueryTransactionResponse;
+import com.example.account.dto.TransactionDto;
+import com.example.account.exception.AccountException;
+import com.example.account.repository.ReactiveAccountRepository;
+import com.example.account.repository.ReactiveTransactionRepository;
+import com.example.account.type.AccountStatus;
+import com.example.account.type.ErrorCode;
+import com.example.account.type.TransactionType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDateTime;
+
+import static com.example.account.type.TransactionResultType.S;
+import static com.example.account.type.TransactionType.CANCEL;
+import static com.example.account.type.TransactionType.USE;
+
+/**
+ * reactive 프로파일의 잔액 사용/취소/거래 확인
+ * 검증 순서와 ErrorCode 는 TransactionService 와 같고 (TransactionRules), 계좌 락은 ReactiveLockService 가 잡는다.
+ * 서블릿 스택과 같이 없는 계좌번호는 락 전에 AccountNumberFilter 로 거절하고 (실패 거래로 남기지 않는다)
+ * 계좌 소유주/상태는 AccountCache, 거래 확인은 TransactionQueryCache 의 노드 내부 캐시를 같이 쓴다.
+ * 거래는 R2DBC 로 바로 저장한다. (write-behind 로 아직 DB 에 쓰지 않은 거래는 취소/확인에서 보이지 않는다)
+ */
+@Slf4j
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveTransactionService {
+    private final ReactiveAccountRepository accountRepository;
+    private final ReactiveTransactionRepository transactionRepository;
+    private final ReactiveOwnedAccountLoader ownedAccountLoader;
+    private final ReactiveLockService lockService;
+    private final AccountNumberFilter accountNumberFilter;
+    private final AccountCache accountCache;
+    private final TransactionQueryCache transactionQueryCache;
+    private final TransactionIdGenerator transactionIdGenerator;
+    private final FailedTransactionRecorder failedTransactionRecorder;
+    private final TransactionalOperator transactionalOperator;
+
+    public Mono<TransactionDto> useBalance(Long userId, String accountNumber, Long amount) {
+        return checkExists(accountNumber).then(lockService.withLock(accountNumber, () ->
+                rejectByCachedAccount(userId, accountNumber)
+                .then(ownedAccountLoader.load(userId, accountNumber))
+                .doOnNext(account -> putAccountCache(accountNumber, account))
+                .flatMap(account -> {
+                    TransactionRules.validateUse(account.accountStatus(), account.balance(), amount);
+                    //잔액 조건은 UPDATE 에서 다시 확인하고, 스냅샷은 바뀐 잔액을 DB 에서 읽는다
+                    return accountRepository.useBalanceIfSufficient(account.id(), amount, LocalDateTime.now())
+                            .flatMap(updated -> updated == 0
+                                    ? Mono.<Long>error(new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE))
+                                    : accountRepository.findBalance(account.id()))
+                            .flatMap(balance -> saveTransaction(USE, amount, account, balance));
+                })
+                .as(transactionalOperator::transactional)
+                .doOnNext(transactionQueryCache::put)
+                .onErrorResume(AccountException.class, e -> recordFailure(USE, accountNumber, amount, e))));
+    }
+
+    public Mono<TransactionDto> cancelBalance(String transactionId, String accountNumber, Long amount) {
+        return checkExists(accountNumber).then(lockService.withLock(accountNumber, () -> Mono.defer(() ->
+                        transactionRepository.findByTransactionId(TransactionIds.parse(transactionId)))
+                .switchIfEmpty(Mono.error(() -> new AccountException(ErrorCode.TRANSACTION_NOT_FOUND)))
+                .zipWhen(transaction -> accountRepository.findByAccountNumber(accountNumber)
+                        .switchIfEmpty(Mono.error(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND)))
+                        .doOnNext(account -> putAccountCache(accountNumber, account)))
+                .flatMap(found -> {
+                    ReactiveTransactionRepository.TransactionRow transaction = found.getT1();
+                    ReactiveAccountRepository.AccountRow account = found.getT2();
+                    TransactionRules.validateCancel(transaction.accountId(), account.id(),
+                            transaction.amount(), amount, transaction.transactedAt());
+
+                    return accountRepository.cancelBalance(account.id(), amount, LocalDateTime.now())
+                            .then(accountRepository.findBalance(account.id()))
+                            .flatMap(balance -> saveTransaction(CANCEL, amount, account, balance));
+                })
+                .as(transactionalOperator::transactional)
+                .doOnNext(transactionQueryCache::put)
+                .onErrorResume(AccountException.class, e -> recordFailure(CANCEL, accountNumber, amount, e))));
+    }
+
+    /**
+     * 거래 확인 응답 (TransactionQueryCache 노드 내부 캐시 -> 없으면 queryTransaction 후 캐시에 채운다)
+     */
+    public Mono<QueryTransactionResponse> queryTransactionResponse(String transactionId) {
+        return Mono.defer(() -> transactionQueryCache.getIfPresent(transactionId)
+                .map(Mono::just)
+                .orElseGet(() -> queryTransaction(transactionId)
+                        .doOnNext(transactionQueryCache::put)
+                        .map(QueryTransactionResponse::from)));
+    }
+
+    /**
+     * 거래 + 계좌번호 한 문장 (TransactionService.queryTransaction 과 같은 응답)
+     */
+    public Mono<TransactionDto> queryTransaction(String transactionId) {
+        return Mono.defer(() -> transactionRepository.findDetailByTransactionId(TransactionIds.parse(transactionId)))
+                .map(TransactionDto::fromView)
+                .switchIfEmpty(Mono.error(() -> new AccountException(ErrorCode.TRANSACTION_NOT_FOUND)));
+    }
+
+    private Mono<TransactionDto> saveTransaction(TransactionType transactionType, Long amount,
+                                                 ReactiveAccountRepository.AccountRow account, Long balanceSnapshot) {
+        return Mono.defer(() -> {
+            long transactionId = transactionIdGenerator.nextId();
+            LocalDateTime transactedAt = LocalDateTime.now();
+            return transactionRepository.insert(account.id(), transactionType, S, amount, balanceSnapshot,
+                            transactionId, transactedAt)
+                    .thenReturn(TransactionDto.builder()
+                            .accountNumber(account.accountNumber())
+                            .transactionType(transactionType)
+                            .transactionResultType(S)
+                            .amount(amount)
+                            .balanceSnapshot(balanceSnapshot)
+                            .transactionId(TransactionIds.format(transactionId))
+                            .transactedAt(transactedAt)
+                            .build());
+        });
+    }
+
+    /**
+     * 없는 계좌번호는 락 전에 거절한다. (LockAopAspect 와 같이 ACCOUNT_NOT_FOUND, 실패 거래로 남기지 않는다)
+     * 형식이 틀렸거나 필터에 있으면 바로 판단하고, 필터에 없어 DB 로 확인해야 할 때만 이벤트 루프 밖에서 확인한다.
+     */
+    private Mono<Void> checkExists(String accountNumber) {
+        Mono<Void> check = Mono.fromRunnable(() -> accountNumberFilter.checkExists(accountNumber));
+        if (!AccountNumbers.isValid(accountNumber) || accountNumberFilter.mightContain(accountNumber)) {
+            return check;
+        }
+        return check.subscribeOn(Schedulers.boundedElastic());
+    }
+
+    //캐시에 있는 계좌가 다른 사람 것이거나 해지됐으면 계좌를 읽기 전에 거절한다 (TransactionService 와 같다)
+    private Mono<Void> rejectByCachedAccount(Long userId, String accountNumber) {
+        return Mono.defer(() -> accountCache.getIfPresent(accountNumber)
+                .map(cached -> {
+                    if (!cached.isOwnedBy(userId)) {
+                        //유저가 없는 경우와 구분한다
+                        return ownedAccountLoader.<Void>resolveFailure(userId, accountNumber);
+                    }
+                    if (cached.accountStatus() != AccountStatus.IN_USE) {
+                        return Mono.<Void>error(new AccountException(ErrorCode.ACCOUNT_ALREADY_UNREGISTERED));
+                    }
+                    return Mono.<Void>empty();
+                })
+                .orElseGet(Mono::empty));
+    }
+
+    private void putAccountCache(String accountNumber, ReactiveAccountRepository.AccountRow account) {
+        accountCache.put(accountNumber,
+                new AccountCache.Entry(account.id(), account.userId(), account.accountStatus()));
+    }
+
+    //실패 거래는 FailedTransactionRecorder 가 계좌번호로 계좌를 찾아 남긴다 (큐에 넣기만 하므로 이벤트 루프에서 바로)
+    private <T> Mono<T> recordFailure(TransactionType transactionType, String accountNumber, Long amount, AccountException e) {
+        return Mono.fromRunnable(() -> failedTransactionRecorder.record(
+                        transactionType, accountNumber, null, amount, e.getErrorCode()))
+                .then(Mono.error(e));
+    }
+}
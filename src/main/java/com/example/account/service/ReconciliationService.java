@@ -0,0 +1,312 @@
+package com.example.account.service;
+
+import com.example.account.domain.TransactionIds;
+import com.example.account.dto.Reconciliation;
+import com.example.account.repository.AccountRepository;
+import com.example.account.repository.TransactionRepository;
+import com.example.account.type.DiscrepancyType;
+import com.example.account.type.TransactionType;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * 잔액 대사: 계좌별 거래의 잔액 스냅샷이 이어지는지, 마지막 스냅샷이 계좌 잔액과 같은지 확인한다.
+ * 계좌를 id 순서로 page-size 씩 읽고, 한 페이지를 fork-join 풀에서 chunk-size 단위로 나눠서
+ * 조각마다 읽기 전용 트랜잭션 하나로 그 계좌들의 거래를 한 번에 스트림으로 읽는다. (계좌마다 쿼리하지 않는다)
+ * 거래가 없는 계좌는 비교할 스냅샷이 없어서 건너뛴다. (계좌 수에는 포함)
+ * 운영 중에 돌리면 대사 중에 바뀐 계좌가 불일치로 잡힐 수 있어서, 불일치 계좌는 끝나고 한 번 더 확인한다.
+ * (write-behind 를 쓰면 아직 DB 에 쓰지 않은 거래 때문에 불일치로 보일 수 있다)
+ */
+@Slf4j
+@Service
+public class ReconciliationService implements MeterBinder {
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final TransactionTemplate readOnlyTemplate;
+    private final int parallelism;
+    private final int pageSize;
+    private final int chunkSize;
+    private final int maxReported;
+
+    private final AtomicLong accountsTotal = new AtomicLong();
+    private final AtomicLong accountsChecked = new AtomicLong();
+    private volatile boolean running;
+    private volatile Reconciliation.Report lastReport;
+
+    public ReconciliationService(
+            AccountRepository accountRepository,
+            TransactionRepository transactionRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${account.reconciliation.parallelism:8}") int parallelism,
+            @Value("${account.reconciliation.page-size:10000}") int pageSize,
+            @Value("${account.reconciliation.chunk-size:500}") int chunkSize,
+            @Value("${account.reconciliation.max-reported:1000}") int maxReported) {
+        this.accountRepository = accountRepository;
+        this.transactionRepository = transactionRepository;
+        this.readOnlyTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTemplate.setReadOnly(true);
+        this.parallelism = parallelism;
+        this.pageSize = pageSize;
+        this.chunkSize = chunkSize;
+        this.maxReported = maxReported;
+    }
+
+    /**
+     * 백그라운드로 대사를 시작한다 (이미 돌고 있으면 그대로 둔다)
+     */
+    public synchronized Reconciliation.Status start() {
+        if (!running) {
+            running = true;
+            Thread thread = new Thread(() -> {
+                try {
+                    reconcile();
+                } catch (RuntimeException e) {
+                    log.error("Reconciliation failed", e);
+                } finally {
+                    running = false;
+                }
+            }, "reconciliation");
+            thread.setDaemon(true);
+            thread.start();
+        }
+        return status();
+    }
+
+    public Reconciliation.Status status() {
+        return Reconciliation.Status.builder()
+                .running(running)
+                .accountsTotal(accountsTotal.get())
+                .accountsChecked(accountsChecked.get())
+                .lastReport(lastReport)
+                .build();
+    }
+
+    /**
+     * 전체 계좌를 대사하고 결과를 돌려준다 (호출한 스레드에서 끝까지 돈다)
+     */
+    public Reconciliation.Report reconcile() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        long startNanos = System.nanoTime();
+        accountsTotal.set(accountRepository.count());
+        accountsChecked.set(0);
+
+        Partial total = new Partial();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            long afterId = 0L;
+            while (true) {
+                List<AccountRepository.AccountBalanceView> page =
+                        accountRepository.findBalancesAfter(afterId, PageRequest.of(0, pageSize));
+                if (page.isEmpty()) {
+                    break;
+                }
+                total.merge(pool.invoke(new ChunkTask(page)));
+                afterId = page.get(page.size() - 1).getId();
+
+                long elapsedMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+                log.info("Reconciled {}/{} accounts ({} accounts/s, {} discrepancies)",
+                        accountsChecked.get(), accountsTotal.get(),
+                        accountsChecked.get() * 1000 / elapsedMillis, total.discrepancies.size());
+            }
+
+            //대사 중에 거래가 있었던 계좌는 다시 확인해서 아직 맞지 않는 것만 남긴다
+            List<Reconciliation.Discrepancy> confirmed = recheck(pool, total.discrepancies);
+            Reconciliation.Report report = Reconciliation.Report.builder()
+                    .startedAt(startedAt)
+                    .finishedAt(LocalDateTime.now())
+                    .accountsChecked(total.accounts)
+                    .transactionsChecked(total.transactions)
+                    .discrepancyCount(confirmed.size())
+                    .discrepancies(confirmed.size() > maxReported ? List.copyOf(confirmed.subList(0, maxReported)) : confirmed)
+                    .build();
+            lastReport = report;
+            log.info("Reconciliation finished: {} accounts, {} transactions, {} discrepancies",
+                    report.getAccountsChecked(), report.getTransactionsChecked(), report.getDiscrepancyCount());
+            return report;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private List<Reconciliation.Discrepancy> recheck(ForkJoinPool pool, List<Reconciliation.Discrepancy> discrepancies) {
+        if (discrepancies.isEmpty()) {
+            return discrepancies;
+        }
+        List<String> accountNumbers = discrepancies.stream()
+                .map(Reconciliation.Discrepancy::getAccountNumber)
+                .distinct()
+                .toList();
+        List<AccountRepository.AccountBalanceView> accounts = new ArrayList<>();
+        for (int from = 0; from < accountNumbers.size(); from += pageSize) {
+            accountRepository.findByAccountNumberIn(accountNumbers.subList(from, Math.min(accountNumbers.size(), from + pageSize)))
+                    .forEach(account -> accounts.add(new AccountSnapshot(account.getId(), account.getAccountNumber(), account.getBalance())));
+        }
+        return pool.invoke(new ChunkTask(accounts, false)).discrepancies;
+    }
+
+    /**
+     * 계좌 목록을 chunk-size 이하가 될 때까지 반으로 나눈다
+     */
+    private class ChunkTask extends RecursiveTask<Partial> {
+        private final List<AccountRepository.AccountBalanceView> accounts;
+        private final boolean countProgress;
+
+        ChunkTask(List<AccountRepository.AccountBalanceView> accounts) {
+            this(accounts, true);
+        }
+
+        ChunkTask(List<AccountRepository.AccountBalanceView> accounts, boolean countProgress) {
+            this.accounts = accounts;
+            this.countProgress = countProgress;
+        }
+
+        @Override
+        protected Partial compute() {
+            if (accounts.size() <= chunkSize) {
+                Partial partial = readOnlyTemplate.execute(status -> verifyChunk(accounts));
+                if (countProgress) {
+                    accountsChecked.addAndGet(accounts.size());
+                }
+                return partial;
+            }
+            int middle = accounts.size() / 2;
+            ChunkTask left = new ChunkTask(accounts.subList(0, middle), countProgress);
+            ChunkTask right = new ChunkTask(accounts.subList(middle, accounts.size()), countProgress);
+            left.fork();
+            Partial result = right.compute();
+            result.merge(left.join());
+            return result;
+        }
+    }
+
+    //계좌 id 순서로 정렬된 거래 스트림을 계좌 단위로 끊어서 확인한다
+    Partial verifyChunk(List<AccountRepository.AccountBalanceView> accounts) {
+        Map<Long, AccountRepository.AccountBalanceView> byId = new HashMap<>(accounts.size() * 2);
+        accounts.forEach(account -> byId.put(account.getId(), account));
+
+        Partial partial = new Partial();
+        partial.accounts = accounts.size();
+        try (Stream<TransactionRepository.BalanceChainView> rows =
+                     transactionRepository.streamBalanceChains(byId.keySet())) {
+            Iterator<TransactionRepository.BalanceChainView> iterator = rows.iterator();
+            Long currentAccountId = null;
+            Long previousSnapshot = null;
+            Long lastTransactionId = null;
+            while (iterator.hasNext()) {
+                TransactionRepository.BalanceChainView row = iterator.next();
+                if (!row.getAccountId().equals(currentAccountId)) {
+                    if (currentAccountId != null) {
+                        checkFinalBalance(byId.get(currentAccountId), previousSnapshot, lastTransactionId, partial);
+                    }
+                    currentAccountId = row.getAccountId();
+                    previousSnapshot = null;
+                }
+
+                if (previousSnapshot != null) {
+                    long expected = previousSnapshot + balanceDelta(row.getTransactionType(), row.getAmount());
+                    if (expected != row.getBalanceSnapshot()) {
+                        partial.add(Reconciliation.Discrepancy.builder()
+                                .accountNumber(byId.get(currentAccountId).getAccountNumber())
+                                .type(DiscrepancyType.CHAIN_BREAK)
+                                .transactionId(TransactionIds.format(row.getTransactionId()))
+                                .expected(expected)
+                                .actual(row.getBalanceSnapshot())
+                                .build());
+                    }
+                }
+                previousSnapshot = row.getBalanceSnapshot();
+                lastTransactionId = row.getTransactionId();
+                partial.transactions++;
+            }
+            if (currentAccountId != null) {
+                checkFinalBalance(byId.get(currentAccountId), previousSnapshot, lastTransactionId, partial);
+            }
+        }
+        return partial;
+    }
+
+    private static void checkFinalBalance(AccountRepository.AccountBalanceView account, Long lastSnapshot,
+                                          Long lastTransactionId, Partial partial) {
+        if (!lastSnapshot.equals(account.getBalance())) {
+            partial.add(Reconciliation.Discrepancy.builder()
+                    .accountNumber(account.getAccountNumber())
+                    .type(DiscrepancyType.BALANCE_MISMATCH)
+                    .transactionId(TransactionIds.format(lastTransactionId))
+                    .expected(lastSnapshot)
+                    .actual(account.getBalance())
+                    .build());
+        }
+    }
+
+    //거래 종류별 잔액 변화 (사용/이체 출금은 차감, 취소/이체 입금은 증가)
+    static long balanceDelta(TransactionType transactionType, long amount) {
+        return switch (transactionType) {
+            case USE, TRANSFER_OUT -> -amount;
+            case CANCEL, TRANSFER_IN -> amount;
+        };
+    }
+
+    //재확인용 계좌 값 (projection 과 같은 모양)
+    private record AccountSnapshot(Long id, String accountNumber, Long balance)
+            implements AccountRepository.AccountBalanceView {
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public String getAccountNumber() {
+            return accountNumber;
+        }
+
+        @Override
+        public Long getBalance() {
+            return balance;
+        }
+    }
+
+    static class Partial {
+        long accounts;
+        long transactions;
+        final List<Reconciliation.Discrepancy> discrepancies = new ArrayList<>();
+
+        void add(Reconciliation.Discrepancy discrepancy) {
+            discrepancies.add(discrepancy);
+        }
+
+        void merge(Partial other) {
+            accounts += other.accounts;
+            transactions += other.transactions;
+            discrepancies.addAll(other.discrepancies);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("account.reconciliation.accounts.checked", accountsChecked, AtomicLong::get)
+                .register(registry);
+        Gauge.builder("account.reconciliation.accounts.total", accountsTotal, AtomicLong::get)
+                .register(registry);
+        Gauge.builder("account.reconciliation.running", this, service -> service.running ? 1 : 0)
+                .register(registry);
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.account.service;
+
+import lombok.RequiredArgsConstructor;
+import org.redisson.api.RedissonClient;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redisson 분산 락
+ * 동기 락은 JVM 내부 락(LocalLockTier)을 먼저 잡고, 이긴 스레드만 Redis 락을 시도한다.
+ * 대기 시간은 두 단계를 합쳐서 계산한다.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "account.lock", name = "provider", havingValue = "redisson", matchIfMissing = true)
+public class RedissonLockProvider implements LockProvider {
+    private final RedissonClient redissonClient;
+    private final LocalLockTier localLockTier;
+
+    @Override
+    public boolean tryLock(String key, long waitTime, long leaseTime, TimeUnit unit) throws InterruptedException {
+        long waitStart = System.nanoTime();
+        if (!localLockTier.tryLock(key, waitTime, unit)) {
+            return false;
+        }
+
+        boolean isLock = false;
+        try {
+            long remainWaitNanos = Math.max(0, unit.toNanos(waitTime) - (System.nanoTime() - waitStart));
+            localLockTier.recordRedisAttempt();
+            isLock = redissonClient.getLock(key)
+                    .tryLock(remainWaitNanos, unit.toNanos(leaseTime), TimeUnit.NANOSECONDS);
+            return isLock;
+        } finally {
+            if (!isLock) {
+                localLockTier.unlock(key);
+            }
+        }
+    }
+
+    @Override
+    public void unlock(String key) {
+        try {
+            redissonClient.getLock(key).unlock();
+        } finally {
+            localLockTier.unlock(key);
+        }
+    }
+
+    /**
+     * JVM 락은 stripe 순서로 한번에 잡고 (LocalLockTier.tryLockAll), Redis 락은 넘겨받은 순서(계좌번호 순서)로 잡는다.
+     * 계좌번호 순서대로 stripe 를 하나씩 잡으면 겹치지 않는 요청끼리도 stripe 를 엇갈려 잡아 둘 다 대기시간을 넘긴다.
+     */
+    @Override
+    public boolean tryLockAll(List<String> keys, long waitTime, long leaseTime, TimeUnit unit) throws InterruptedException {
+        long waitStart = System.nanoTime();
+        if (!localLockTier.tryLockAll(keys, waitTime, unit)) {
+            return false;
+        }
+
+        List<String> locked = new ArrayList<>(keys.size());
+        try {
+            for (String key : keys) {
+                long remainWaitNanos = Math.max(0, unit.toNanos(waitTime) - (System.nanoTime() - waitStart));
+                localLockTier.recordRedisAttempt();
+                if (!redissonClient.getLock(key)
+                        .tryLock(remainWaitNanos, unit.toNanos(leaseTime), TimeUnit.NANOSECONDS)) {
+                    return false;
+                }
+                locked.add(key);
+            }
+            return true;
+        } finally {
+            if (locked.size() < keys.size()) {
+                unlockAll(locked, keys);
+            }
+        }
+    }
+
+    @Override
+    public void unlockAll(List<String> keys) {
+        unlockAll(keys, keys);
+    }
+
+    //Redis 락은 반대 순서로 풀고, 하나가 실패해도 나머지와 JVM 락은 모두 푼다
+    private void unlockAll(List<String> redisKeys, List<String> localKeys) {
+        RuntimeException failure = null;
+        for (int i = redisKeys.size() - 1; i >= 0; i--) {
+            try {
+                redissonClient.getLock(redisKeys.get(i)).unlock();
+            } catch (RuntimeException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        localLockTier.unlockAll(localKeys);
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * 스레드 기반인 LocalLockTier 는 거치지 않고 바로 Redis 로 간다.
+     */
+    @Override
+    public CompletableFuture<Boolean> tryLockAsync(String key, long waitTime, long leaseTime, TimeUnit unit, long ownerId) {
+        localLockTier.recordRedisAttempt();
+        return redissonClient.getLock(key)
+                .tryLockAsync(waitTime, leaseTime, unit, ownerId)
+                .toCompletableFuture();
+    }
+
+    @Override
+    public void unlockAsync(String key, long ownerId) {
+        redissonClient.getLock(key).unlockAsync(ownerId);
+    }
+}
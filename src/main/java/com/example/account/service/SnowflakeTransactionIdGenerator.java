@@ -0,0 +1,57 @@
+package com.example.account.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Snowflake 형식 거래 id
+ * [부호 1bit][기준 시각 이후 밀리초 41bit][노드 id 10bit][순번 12bit]
+ * 같은 밀리초에 순번(4096개)을 다 쓰거나 시계가 뒤로 가면 다음 밀리초 값을 미리 당겨 쓴다 (대기 없음)
+ */
+@Component
+public class SnowflakeTransactionIdGenerator implements TransactionIdGenerator {
+    static final long EPOCH_MILLIS = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private final long nodeBits;
+    private final LongSupplier clock;
+    //(기준 시각 이후 밀리초 << 12 | 순번) 을 하나로 묶어 CAS 한다
+    private final AtomicLong lastState = new AtomicLong();
+
+    @Autowired
+    public SnowflakeTransactionIdGenerator(
+            @Value("${account.transaction-id.node-id:0}") long nodeId) {
+        this(nodeId, System::currentTimeMillis);
+    }
+
+    SnowflakeTransactionIdGenerator(long nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("node-id must be between 0 and " + MAX_NODE_ID);
+        }
+        this.nodeBits = nodeId << SEQUENCE_BITS;
+        this.clock = clock;
+    }
+
+    @Override
+    public long nextId() {
+        long now = (clock.getAsLong() - EPOCH_MILLIS) << SEQUENCE_BITS;
+        long state;
+        long next;
+        do {
+            state = lastState.get();
+            //같은(또는 지난) 밀리초면 순번 증가, 순번이 넘치면 자연스럽게 다음 밀리초로 올라간다
+            next = now > state ? now : state + 1;
+        } while (!lastState.compareAndSet(state, next));
+
+        long millis = next >>> SEQUENCE_BITS;
+        return (millis << (NODE_BITS + SEQUENCE_BITS)) | nodeBits | (next & SEQUENCE_MASK);
+    }
+}
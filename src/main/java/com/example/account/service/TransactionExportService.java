@@ -0,0 +1,90 @@
+package com.example.account.service;
+
+import com.example.account.dto.TransactionExport;
+import com.example.account.exception.AccountException;
+import com.example.account.repository.TransactionRepository;
+import com.example.account.type.ErrorCode;
+import com.example.account.type.ExportFormat;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * 기간 내 거래를 NDJSON / CSV 로 응답 스트림에 바로 쓴다.
+ * DB 커서(fetch size 단위)로 한 행씩 읽어서 쓰므로 행 수와 상관없이 메모리는 버퍼 크기만 쓴다.
+ * 클라이언트가 느리면 응답 쓰기가 막히고 그동안 커서도 더 읽지 않는다. (배압)
+ */
+@Slf4j
+@Service
+public class TransactionExportService {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    //이 행 수마다 응답으로 내보내고 영속성 컨텍스트를 비운다
+    private static final int FLUSH_EVERY = 1000;
+
+    private final TransactionRepository transactionRepository;
+    private final ObjectWriter rowWriter;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public TransactionExportService(TransactionRepository transactionRepository, ObjectMapper objectMapper) {
+        this.transactionRepository = transactionRepository;
+        this.rowWriter = objectMapper.writerFor(TransactionExport.class);
+    }
+
+    /**
+     * 응답을 쓰기 시작하기 전에 호출한다 (쓰기 시작한 뒤에는 ErrorResponse 로 바꿀 수 없다)
+     *
+     * @throws AccountException INVALID_REQUEST - from 이 to 보다 앞이 아닐 때
+     */
+    public void checkRange(LocalDateTime from, LocalDateTime to) {
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new AccountException(ErrorCode.INVALID_REQUEST);
+        }
+    }
+
+    /**
+     * @return 내보낸 거래 수
+     */
+    @Transactional(readOnly = true)
+    public long export(LocalDateTime from, LocalDateTime to, ExportFormat format, OutputStream out) throws IOException {
+        checkRange(from, to);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        if (format == ExportFormat.CSV) {
+            writer.write(TransactionExport.CSV_HEADER);
+            writer.write('\n');
+        }
+
+        long count = 0;
+        try (Stream<TransactionRepository.TransactionDetailView> rows =
+                     transactionRepository.streamForExport(from, to)) {
+            Iterator<TransactionRepository.TransactionDetailView> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                TransactionExport row = TransactionExport.from(iterator.next());
+                writer.write(format == ExportFormat.CSV ? row.toCsvLine() : rowWriter.writeValueAsString(row));
+                writer.write('\n');
+                if (++count % FLUSH_EVERY == 0) {
+                    writer.flush();
+                    entityManager.clear();
+                }
+            }
+        }
+        writer.flush();
+        log.info("Exported {} transactions ({} ~ {}, {})", count, from, to, format);
+        return count;
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.account.service;
+
+/**
+ * 거래 id 발급기. 발급 순서대로 커지는 값이어야 인덱스 끝에만 추가된다
+ */
+public interface TransactionIdGenerator {
+    long nextId();
+}
@@ -0,0 +1,281 @@
+package com.example.account.service;
+
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * write-behind 거래 기록의 로컬 저널 (줄 단위 텍스트, 세그먼트 파일)
+ * R|트랜잭션|거래 내용 : DB 커밋 전에 쓰기만 하고 (페이지 캐시), fsync 는 sync 를 부르는 쪽에서 모아서 한다.
+ * 한 DB 트랜잭션의 기록은 같은 트랜잭션 값 (첫 거래 id) 으로 묶는다.
+ * 커밋 여부는 저널에 남기지 않는다. 복구할 때 계좌의 커밋된 잔액과 기록의 잔액을 맞춰보고 판단한다.
+ * 세그먼트의 기록이 모두 DB 에 쓰였거나 롤백되면 세그먼트 파일을 지운다.
+ * 복구할 때도 DB 에 넣지 못한 기록은 dead-letter.journal 로 옮긴다.
+ */
+@Slf4j
+class TransactionJournal implements Closeable {
+    private static final String PREFIX = "transactions-";
+    private static final String SUFFIX = ".journal";
+    //복구에서도 DB 에 넣지 못한 기록 (세그먼트가 아니라서 다시 읽지 않는다)
+    private static final String DEAD_LETTER = "dead-letter.journal";
+
+    private final Path directory;
+    private final int segmentRecords;
+    private final List<Path> recoveredSegments;
+    private final Map<Long, Segment> segmentOf = new ConcurrentHashMap<>();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private Segment current;//writeLock
+    //다음 세그먼트로 넘어갔지만 아직 fsync 하지 않은 세그먼트 (sync 에서 fsync 하고 닫는다)
+    private final List<Segment> rolled = new ArrayList<>();//writeLock
+
+    TransactionJournal(Path directory, int segmentRecords) throws IOException {
+        this.directory = directory;
+        this.segmentRecords = segmentRecords;
+        Files.createDirectories(directory);
+        try (Stream<Path> files = Files.list(directory)) {
+            recoveredSegments = files.filter(TransactionJournal::isSegment)
+                    .sorted(Comparator.comparingLong(TransactionJournal::segmentNumber))
+                    .toList();
+        }
+        long nextNumber = recoveredSegments.isEmpty()
+                ? 1L : segmentNumber(recoveredSegments.get(recoveredSegments.size() - 1)) + 1;
+        current = Segment.open(directory, nextNumber);
+    }
+
+    //쓰기만 한다. 프로세스가 죽어도 남지만 OS 가 죽으면 마지막 sync 이후 기록은 잃을 수 있다
+    void append(List<Entry> entries) throws IOException {
+        writeLock.lock();
+        try {
+            for (Entry entry : entries) {
+                if (current.records >= segmentRecords) {
+                    roll();
+                }
+                current.write(entry.toLine());
+                current.records++;
+                current.unresolved.incrementAndGet();
+                segmentOf.put(entry.getTransactionId(), current);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    //그때까지 쓴 기록을 한번에 fsync 한다
+    void sync() throws IOException {
+        syncLock.lock();
+        try {
+            List<Segment> segments;
+            writeLock.lock();
+            try {
+                segments = new ArrayList<>(rolled);
+                segments.add(current);
+                rolled.clear();
+            } finally {
+                writeLock.unlock();
+            }
+            for (Segment segment : segments) {
+                segment.force();
+            }
+            for (Segment segment : segments.subList(0, segments.size() - 1)) {
+                segment.close();
+                segment.deleteIfResolved();
+            }
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    //DB 에 쓰였거나 롤백된 기록. 세그먼트에 남은 기록이 없으면 지운다
+    void resolve(Collection<Long> transactionIds) {
+        for (Long transactionId : transactionIds) {
+            Segment segment = segmentOf.remove(transactionId);
+            if (segment != null && segment.unresolved.decrementAndGet() == 0) {
+                segment.deleteIfResolved();
+            }
+        }
+    }
+
+    //지난 실행에서 남은 세그먼트의 기록, 저널 순서대로 (커밋 여부는 호출하는 쪽에서 DB 의 잔액으로 판단한다)
+    List<Entry> recover() throws IOException {
+        Map<Long, Entry> entries = new LinkedHashMap<>();
+        for (Path segment : recoveredSegments) {
+            for (String line : Files.readAllLines(segment, StandardCharsets.UTF_8)) {
+                try {
+                    String[] fields = line.split("\\|", -1);
+                    if (!"R".equals(fields[0]) || fields.length != Entry.FIELDS) {
+                        log.warn("Skip unknown journal line in {}", segment);
+                        continue;
+                    }
+                    Entry entry = Entry.parse(fields);
+                    entries.put(entry.getTransactionId(), entry);
+                } catch (RuntimeException e) {
+                    //쓰다가 죽은 마지막 줄
+                    log.warn("Skip broken journal line in {}", segment);
+                }
+            }
+        }
+        return new ArrayList<>(entries.values());
+    }
+
+    //저널과 같은 줄 형식으로 남긴다
+    void deadLetter(Entry entry) throws IOException {
+        try (FileChannel channel = FileChannel.open(directory.resolve(DEAD_LETTER),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap((entry.toLine() + "\n").getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+    }
+
+    void deleteRecovered() throws IOException {
+        for (Path segment : recoveredSegments) {
+            Files.deleteIfExists(segment);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        sync();
+        writeLock.lock();
+        try {
+            current.close();
+            current.deleteIfResolved();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    //요청 스레드에서 부르므로 fsync 하지 않고 sync 로 넘긴다
+    private void roll() throws IOException {
+        rolled.add(current);
+        current = Segment.open(directory, current.number + 1);
+    }
+
+    private static boolean isSegment(Path path) {
+        String name = path.getFileName().toString();
+        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+    }
+
+    private static long segmentNumber(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+
+    @Getter
+    @Builder
+    @AllArgsConstructor
+    static class Entry {
+        private static final int FIELDS = 10;
+
+        //같은 DB 트랜잭션에서 쓴 기록은 같은 값 (첫 거래 id)
+        private final long groupId;
+        private final long transactionId;
+        private final Long linkedTransactionId;
+        private final long accountId;
+        private final TransactionType transactionType;
+        private final TransactionResultType transactionResultType;
+        private final Long amount;
+        private final Long balanceSnapshot;
+        private final LocalDateTime transactedAt;
+
+        String toLine() {
+            return String.join("|", "R",
+                    String.valueOf(groupId),
+                    String.valueOf(transactionId),
+                    Objects.toString(linkedTransactionId, ""),
+                    String.valueOf(accountId),
+                    transactionType.name(),
+                    transactionResultType.name(),
+                    String.valueOf(amount),
+                    String.valueOf(balanceSnapshot),
+                    transactedAt.toString());
+        }
+
+        static Entry parse(String[] fields) {
+            return Entry.builder()
+                    .groupId(Long.parseLong(fields[1]))
+                    .transactionId(Long.parseLong(fields[2]))
+                    .linkedTransactionId(fields[3].isEmpty() ? null : Long.valueOf(fields[3]))
+                    .accountId(Long.parseLong(fields[4]))
+                    .transactionType(TransactionType.valueOf(fields[5]))
+                    .transactionResultType(TransactionResultType.valueOf(fields[6]))
+                    .amount(Long.valueOf(fields[7]))
+                    .balanceSnapshot(Long.valueOf(fields[8]))
+                    .transactedAt(LocalDateTime.parse(fields[9]))
+                    .build();
+        }
+    }
+
+    private static class Segment {
+        private final long number;
+        private final Path path;
+        private final FileChannel channel;
+        private final AtomicInteger unresolved = new AtomicInteger();
+        private int records;//writeLock
+        private volatile boolean closed;
+
+        private Segment(long number, Path path, FileChannel channel) {
+            this.number = number;
+            this.path = path;
+            this.channel = channel;
+        }
+
+        static Segment open(Path directory, long number) throws IOException {
+            Path path = directory.resolve(String.format("%s%020d%s", PREFIX, number, SUFFIX));
+            return new Segment(number, path, FileChannel.open(path,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND));
+        }
+
+        void write(String line) throws IOException {
+            ByteBuffer buffer = ByteBuffer.wrap((line + "\n").getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+
+        void force() throws IOException {
+            try {
+                channel.force(false);
+            } catch (ClosedChannelException e) {
+                //닫기 전에 이미 fsync 했다
+            }
+        }
+
+        void close() throws IOException {
+            closed = true;
+            channel.close();
+        }
+
+        void deleteIfResolved() {
+            if (closed && unresolved.get() == 0) {
+                try {
+                    Files.deleteIfExists(path);
+                } catch (IOException e) {
+                    log.warn("Failed to delete journal segment {}", path, e);
+                }
+            }
+        }
+    }
+}
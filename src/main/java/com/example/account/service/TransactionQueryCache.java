@@ -0,0 +1,274 @@
+package com.example.account.service;
+
+import com.example.account.domain.Transaction;
+import com.example.account.domain.TransactionIds;
+import com.example.account.dto.QueryTransactionResponse;
+import com.example.account.dto.TransactionDto;
+import com.example.account.exception.AccountException;
+import com.example.account.type.ErrorCode;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RBucket;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * 거래 확인(GET /transaction/{transactionId}) 응답 캐시
+ * 거래는 저장된 뒤 바뀌지 않으므로 커밋될 때 바로 채워 두고 ttl 동안 그대로 쓴다.
+ * 1. 노드 내부 near-cache (LRU, 최대 개수)
+ * 2. Redis (RedissonClient 가 있을 때만, 노드끼리 공유)
+ * 3. DB
+ * 없는 거래 id 는 짧은 ttl 로 "없음" 을 기억해서 같은 id 로 계속 조회해도 DB 까지 가지 않는다.
+ * (커밋되면 바로 덮어쓰므로 같은 노드에서는 늦게 보이지 않고, 다른 노드는 최대 negative-ttl 만큼 늦게 보인다)
+ */
+@Slf4j
+@Component
+public class TransactionQueryCache implements MeterBinder {
+    private static final String KEY_PREFIX = "account:transaction:";
+    private static final String NOT_FOUND = "-";
+
+    private final RedissonClient redissonClient;
+    private final ObjectMapper objectMapper;
+    private final long ttlNanos;
+    private final long negativeTtlNanos;
+    private final LongSupplier nanoClock;
+    private final Map<Long, Cached> nearCache;
+    //access-order LinkedHashMap 은 get 도 순서를 바꾸므로 읽기/쓰기 모두 잠근다
+    //(synchronized 는 JDK 21 가상 스레드에서 경합시 캐리어 스레드를 붙잡는다)
+    private final ReentrantLock nearCacheLock = new ReentrantLock();
+
+    private final LongAdder nearHits = new LongAdder();
+    private final LongAdder redisHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder negativeHits = new LongAdder();
+
+    @Autowired
+    public TransactionQueryCache(
+            ObjectProvider<RedissonClient> redissonClient,
+            ObjectMapper objectMapper,
+            @Value("${account.cache.transaction.max-entries:10000}") int maxEntries,
+            @Value("${account.cache.transaction.ttl-seconds:600}") long ttlSeconds,
+            @Value("${account.cache.transaction.negative-ttl-millis:2000}") long negativeTtlMillis,
+            @Value("${account.cache.transaction.redis-enabled:true}") boolean redisEnabled) {
+        this(redisEnabled ? redissonClient.getIfAvailable() : null, objectMapper,
+                maxEntries, ttlSeconds, negativeTtlMillis, System::nanoTime);
+    }
+
+    TransactionQueryCache(RedissonClient redissonClient, ObjectMapper objectMapper, int maxEntries,
+                          long ttlSeconds, long negativeTtlMillis, LongSupplier nanoClock) {
+        this.redissonClient = redissonClient;
+        this.objectMapper = objectMapper;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.negativeTtlNanos = TimeUnit.MILLISECONDS.toNanos(negativeTtlMillis);
+        this.nanoClock = nanoClock;
+        this.nearCache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Cached> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    //response 가 null 이면 없는 거래
+    private record Cached(QueryTransactionResponse response, long expiresAt) {
+    }
+
+    /**
+     * @param loader 캐시에 없을 때 DB 에서 찾는다 (없으면 TRANSACTION_NOT_FOUND)
+     * @throws AccountException TRANSACTION_NOT_FOUND - 형식이 틀렸거나 없는 거래 id
+     */
+    public QueryTransactionResponse get(String transactionId, Function<String, TransactionDto> loader) {
+        long id = TransactionIds.parse(transactionId);
+
+        Cached cached = getNear(id);
+        if (cached == null) {
+            cached = getRedis(id);
+        }
+        if (cached == null) {
+            misses.increment();
+            cached = load(id, transactionId, loader);
+        }
+
+        if (cached.response() == null) {
+            negativeHits.increment();
+            throw new AccountException(ErrorCode.TRANSACTION_NOT_FOUND);
+        }
+        return cached.response();
+    }
+
+    /**
+     * DB/Redis 를 읽지 않고 노드 내부 캐시만 본다 (블로킹 호출을 할 수 없는 reactive 경로)
+     * @throws AccountException TRANSACTION_NOT_FOUND - 형식이 틀렸거나 없다고 기억한 거래 id
+     */
+    public Optional<QueryTransactionResponse> getIfPresent(String transactionId) {
+        Cached cached = getNear(TransactionIds.parse(transactionId));
+        if (cached == null) {
+            misses.increment();
+            return Optional.empty();
+        }
+        if (cached.response() == null) {
+            negativeHits.increment();
+            throw new AccountException(ErrorCode.TRANSACTION_NOT_FOUND);
+        }
+        return Optional.of(cached.response());
+    }
+
+    /**
+     * 이미 커밋된 거래를 채운다 (트랜잭션 동기화가 없는 reactive 경로, Redis 는 비동기로 쓴다)
+     */
+    public void put(TransactionDto transaction) {
+        put(QueryTransactionResponse.from(transaction));
+    }
+
+    /**
+     * 저장한 거래를 커밋된 뒤에 채운다 (롤백되면 채우지 않는다)
+     */
+    public void putOnCommit(List<Transaction> transactions) {
+        List<QueryTransactionResponse> responses = transactions.stream()
+                .map(transaction -> QueryTransactionResponse.from(TransactionDto.fromEntity(transaction)))
+                .toList();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            responses.forEach(this::put);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                responses.forEach(TransactionQueryCache.this::put);
+            }
+        });
+    }
+
+    public int size() {
+        nearCacheLock.lock();
+        try {
+            return nearCache.size();
+        } finally {
+            nearCacheLock.unlock();
+        }
+    }
+
+    private void put(QueryTransactionResponse response) {
+        long id = TransactionIds.parse(response.getTransactionId());
+        putNear(id, response, ttlNanos);
+        putRedis(id, response, ttlNanos);
+    }
+
+    private Cached load(long id, String transactionId, Function<String, TransactionDto> loader) {
+        QueryTransactionResponse response;
+        try {
+            response = QueryTransactionResponse.from(loader.apply(transactionId));
+        } catch (AccountException e) {
+            if (e.getErrorCode() != ErrorCode.TRANSACTION_NOT_FOUND) {
+                throw e;
+            }
+            response = null;
+        }
+        long ttl = response == null ? negativeTtlNanos : ttlNanos;
+        putRedis(id, response, ttl);
+        return putNear(id, response, ttl);
+    }
+
+    private Cached getNear(long id) {
+        nearCacheLock.lock();
+        try {
+            Cached cached = nearCache.get(id);
+            if (cached == null) {
+                return null;
+            }
+            if (nanoClock.getAsLong() - cached.expiresAt() > 0) {
+                nearCache.remove(id);
+                return null;
+            }
+            nearHits.increment();
+            return cached;
+        } finally {
+            nearCacheLock.unlock();
+        }
+    }
+
+    private Cached putNear(long id, QueryTransactionResponse response, long ttl) {
+        Cached cached = new Cached(response, nanoClock.getAsLong() + ttl);
+        nearCacheLock.lock();
+        try {
+            nearCache.put(id, cached);
+        } finally {
+            nearCacheLock.unlock();
+        }
+        return cached;
+    }
+
+    //Redis 는 캐시일 뿐이라 실패하면 DB 로 간다
+    private Cached getRedis(long id) {
+        if (redissonClient == null) {
+            return null;
+        }
+        try {
+            RBucket<String> bucket = redissonClient.getBucket(KEY_PREFIX + TransactionIds.format(id), StringCodec.INSTANCE);
+            String value = bucket.get();
+            if (value == null) {
+                return null;
+            }
+            long remainingMillis = bucket.remainTimeToLive();
+            long ttl = remainingMillis > 0 ? TimeUnit.MILLISECONDS.toNanos(remainingMillis) : ttlNanos;
+            QueryTransactionResponse response = NOT_FOUND.equals(value)
+                    ? null : objectMapper.readValue(value, QueryTransactionResponse.class);
+            redisHits.increment();
+            return putNear(id, response, ttl);
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("transaction cache read failed: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void putRedis(long id, QueryTransactionResponse response, long ttl) {
+        if (redissonClient == null) {
+            return;
+        }
+        try {
+            String value = response == null ? NOT_FOUND : objectMapper.writeValueAsString(response);
+            redissonClient.<String>getBucket(KEY_PREFIX + TransactionIds.format(id), StringCodec.INSTANCE)
+                    .setAsync(value, TimeUnit.NANOSECONDS.toMillis(ttl), TimeUnit.MILLISECONDS);
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("transaction cache write failed: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("account.cache.transaction.requests", nearHits, LongAdder::sum)
+                .tag("result", "near_hit")
+                .register(registry);
+        FunctionCounter.builder("account.cache.transaction.requests", redisHits, LongAdder::sum)
+                .tag("result", "redis_hit")
+                .register(registry);
+        FunctionCounter.builder("account.cache.transaction.requests", misses, LongAdder::sum)
+                .tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("account.cache.transaction.not_found", negativeHits, LongAdder::sum)
+                .register(registry);
+        Gauge.builder("account.cache.transaction.size", this, TransactionQueryCache::size)
+                .register(registry);
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.account.service;
+
+import com.example.account.domain.Transaction;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 거래(Transaction) 기록 저장소
+ * 기본은 바로 저장, account.transaction.write-behind.enabled=true 이면 커밋 후 모아서 저장한다.
+ */
+public interface TransactionRecorder {
+    Transaction record(Transaction transaction);
+
+    List<Transaction> recordAll(List<Transaction> transactions);
+
+    //기록은 됐지만 아직 DB 에 쓰지 않은 거래 (바로 저장하는 구현은 항상 비어있다)
+    Optional<Transaction> findUnflushed(long transactionId);
+}
@@ -0,0 +1,66 @@
+package com.example.account.service;
+
+import com.example.account.exception.AccountException;
+import com.example.account.type.AccountStatus;
+import com.example.account.type.ErrorCode;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * 잔액 사용/취소/계좌 해지 검증 규칙
+ * 서블릿(TransactionService, AccountService)과 리액티브(ReactiveTransactionService, ReactiveAccountService)가
+ * 같은 순서로 같은 ErrorCode 를 내도록 값만 받아서 검사한다.
+ */
+final class TransactionRules {
+    private TransactionRules() {
+    }
+
+    /**
+     * 소유주는 조회 조건으로 이미 확인한 계좌
+     */
+    static void validateUse(AccountStatus accountStatus, Long balance, Long amount) {
+        if (accountStatus != AccountStatus.IN_USE) {
+            throw new AccountException(ErrorCode.ACCOUNT_ALREADY_UNREGISTERED);
+        }
+        if (balance < amount) {
+            throw new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE);
+        }
+    }
+
+    static void validateCancel(Long transactionAccountId, Long accountId, Long transactionAmount,
+                               Long amount, LocalDateTime transactedAt) {
+        if (!Objects.equals(transactionAccountId, accountId)) {
+            throw new AccountException(ErrorCode.TRANSACTION_ACCOUNT_UN_MATCH);
+        }
+        if (!Objects.equals(transactionAmount, amount)) {
+            throw new AccountException(ErrorCode.CANCEL_MUST_FULLY);
+        }
+        if (transactedAt.isBefore(LocalDateTime.now().minusYears(1))) {
+            throw new AccountException(ErrorCode.TOO_OLD_ORDER_TO_CANCEL);
+        }
+        if (amount < 0) {
+            throw new AccountException(ErrorCode.INVALID_REQUEST);
+        }
+    }
+
+    static void validateDelete(AccountStatus accountStatus, Long balance) {
+        if (accountStatus == AccountStatus.UNREGISTERED) {
+            throw new AccountException(ErrorCode.ACCOUNT_ALREADY_UNREGISTERED);
+        }
+        if (balance > 0) {
+            throw new AccountException(ErrorCode.BALANCE_NOT_EMPTY);
+        }
+    }
+
+    /**
+     * 소유주 조건 조회가 비었을 때 (유저는 있음) 계좌 소유주 id 로 원인을 가린다
+     * 두 조회 사이에 그 유저의 계좌가 생긴 경우도 (처음 조회 기준) 없는 계좌로 본다
+     */
+    static AccountException ownershipFailure(Long userId, Long ownerId) {
+        if (ownerId == null || ownerId.equals(userId)) {
+            return new AccountException(ErrorCode.ACCOUNT_NOT_FOUND);
+        }
+        return new AccountException(ErrorCode.USER_ACCOUNT_UN_MATCH);
+    }
+}
@@ -1,9 +1,15 @@
 package com.example.account.service;
 
+import com.example.account.aop.OptimisticRetry;
 import com.example.account.domain.Account;
 import com.example.account.domain.AccountUser;
 import com.example.account.domain.Transaction;
+import com.example.account.domain.TransactionIds;
+import com.example.account.dto.QueryTransactionResponse;
 import com.example.account.dto.TransactionDto;
+import com.example.account.dto.TransactionHistory;
+import com.example.account.dto.UseBalance;
+import com.example.account.dto.UseBalanceBatch;
 import com.example.account.exception.AccountException;
 import com.example.account.repository.AccountRepository;
 import com.example.account.repository.AccountUserRepository;
@@ -14,12 +20,20 @@ import com.example.account.type.TransactionResultType;
 import com.example.account.type.TransactionType;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.UUID;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static com.example.account.type.TransactionResultType.*;
 import static com.example.account.type.TransactionType.*;
@@ -28,102 +42,367 @@ import static com.example.account.type.TransactionType.*;
 @Service
 @RequiredArgsConstructor
 public class TransactionService {
+    static final int MAX_HISTORY_PAGE_SIZE = 100;
+
     private final TransactionRepository transactionRepository;
     private final AccountUserRepository accountUserRepository;
     private final AccountRepository accountRepository;
+    private final TransactionIdGenerator transactionIdGenerator;
+    private final TransactionRecorder transactionRecorder;
+    private final FailedTransactionRecorder failedTransactionRecorder;
+    private final AccountCache accountCache;
+    private final TransactionQueryCache transactionQueryCache;
+    private final OwnedAccountLoader ownedAccountLoader;
+
+    //atomic 이면 잔액 변경을 조건부 UPDATE 한 문장으로 처리한다 (계좌 락 없음)
+    @Value("${account.concurrency.mode:pessimistic}")
+    private String concurrencyMode;
 
     @Transactional
+    @OptimisticRetry
     public TransactionDto useBalance(Long userId, String accountNumber, Long amount) {
-        AccountUser user = accountUserRepository.findById(userId)
-                .orElseThrow(() -> new AccountException(ErrorCode.USER_NOT_FOUND));
+        if (isAtomicMode()) {
+            return useBalanceAtomically(userId, accountNumber, amount);
+        }
 
-        Account account = accountRepository.findByAccountNumber(accountNumber)
-                .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
-        validateUserBalance(user, account, amount);
+        Account account = null;
+        try {
+            rejectByCachedAccount(userId, accountNumber);
 
-        account.useBalance(amount);
+            account = findOwnedAccount(userId, accountNumber);
+            validateBalance(account, amount);
+
+            account.useBalance(amount);
+        } catch (AccountException e) {
+            //실패 거래는 비동기로 남긴다 (조회한 계좌를 그대로 넘긴다)
+            failedTransactionRecorder.record(USE, accountNumber, account, amount, e.getErrorCode());
+            throw e;
+        }
 
         Transaction transaction = saveAndGetTransaction(USE, S, amount, account);
 
         return TransactionDto.fromEntity(transaction);
     }
 
-    private void validateUserBalance(AccountUser user, Account account, Long amount) {
-        if (!Objects.equals(user.getId(), account.getAccountUser().getId())) {
-            throw new AccountException(ErrorCode.USER_ACCOUNT_UN_MATCH);
-        }
-        if (account.getAccountStatus() != AccountStatus.IN_USE) {
-            throw new AccountException(ErrorCode.ACCOUNT_ALREADY_UNREGISTERED);
+    /**
+     * 계좌 이체: 출금과 입금을 한 트랜잭션으로 처리하고 서로 연결된 거래 두 건을 남긴다.
+     * 두 계좌의 락은 LockAopAspect 가 계좌번호 순서로 잡는다. (반대 방향 이체끼리 교착되지 않는다)
+     *
+     * @return 출금 거래 (linkedTransactionId 가 입금 거래)
+     */
+    @Transactional
+    @OptimisticRetry
+    public TransactionDto transferBalance(Long userId, String fromAccountNumber, String toAccountNumber, Long amount) {
+        Account toAccount;
+        try {
+            if (Objects.equals(fromAccountNumber, toAccountNumber)) {
+                throw new AccountException(ErrorCode.TRANSFER_SAME_ACCOUNT);
+            }
+            toAccount = findAccount(toAccountNumber);
+            if (toAccount.getAccountStatus() != AccountStatus.IN_USE) {
+                throw new AccountException(ErrorCode.ACCOUNT_ALREADY_UNREGISTERED);
+            }
+        } catch (AccountException e) {
+            failedTransactionRecorder.record(TRANSFER_OUT, fromAccountNumber, null, amount, e.getErrorCode());
+            throw e;
         }
-        if (account.getBalance() < amount) {
-            throw new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE);
+
+        Account fromAccount = null;
+        if (isAtomicMode()) {
+            //계좌 락이 없으므로 두 행의 DB 락을 계좌번호 순서로 잡는다 (반대 방향 이체끼리 교착되지 않는다)
+            //입금 계좌가 앞이면 먼저 더하고, 출금이 실패하면 트랜잭션 롤백으로 되돌린다
+            LocalDateTime now = LocalDateTime.now();
+            boolean creditFirst = toAccountNumber.compareTo(fromAccountNumber) < 0;
+            if (creditFirst) {
+                accountRepository.cancelBalance(toAccount.getId(), amount, now);
+            }
+            if (accountRepository.useBalanceIfSufficient(userId, fromAccountNumber, amount, now) == 0) {
+                throw resolveUseBalanceFailure(TRANSFER_OUT, userId, fromAccountNumber, amount);
+            }
+            if (!creditFirst) {
+                accountRepository.cancelBalance(toAccount.getId(), amount, now);
+            }
+            fromAccount = accountRepository.findByAccountNumber(fromAccountNumber)
+                    .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+            toAccount = accountRepository.findById(toAccount.getId())
+                    .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+        } else {
+            try {
+                rejectByCachedAccount(userId, fromAccountNumber);
+                fromAccount = findOwnedAccount(userId, fromAccountNumber);
+                validateBalance(fromAccount, amount);
+
+                fromAccount.useBalance(amount);
+            } catch (AccountException e) {
+                failedTransactionRecorder.record(TRANSFER_OUT, fromAccountNumber, fromAccount, amount, e.getErrorCode());
+                throw e;
+            }
+            toAccount.cancelBalance(amount);//입금 (잔액 증가)
         }
+
+        Transaction withdrawal = newTransaction(TRANSFER_OUT, S, amount, fromAccount);
+        Transaction deposit = newTransaction(TRANSFER_IN, S, amount, toAccount);
+        withdrawal.setLinkedTransactionId(deposit.getTransactionId());
+        deposit.setLinkedTransactionId(withdrawal.getTransactionId());
+        transactionRecorder.recordAll(List.of(withdrawal, deposit));
+        transactionQueryCache.putOnCommit(List.of(withdrawal, deposit));
+
+        return TransactionDto.fromEntity(withdrawal);
     }
 
+    /**
+     * 여러 건의 잔액 사용을 한 트랜잭션으로 처리한다. (계좌 락은 LockAopAspect 가 계좌번호 순서로 한번씩 잡는다)
+     * 유저/계좌는 한번에 조회하고, 건별로 useBalance 와 같은 순서로 검증해서 요청 순서대로 차감한다.
+     * 실패한 건은 같은 트랜잭션에서 실패 거래로 남기고 (계좌가 없으면 남기지 않는다)
+     * 거래는 모아서 saveAll 로 저장한다. (hibernate.jdbc.batch_size 로 배치 insert)
+     */
     @Transactional
-    public void saveFailedUseTransaction(String accountNumber, Long amount) {
+    @OptimisticRetry
+    public List<UseBalanceBatch.ItemResult> useBalanceBatch(List<UseBalance.Request> requests) {
+        Map<Long, AccountUser> users = accountUserRepository.findAllById(
+                        requests.stream().map(UseBalance.Request::getUserId).collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(AccountUser::getId, Function.identity()));
+        Map<String, Account> accounts = accountRepository.findByAccountNumberIn(
+                        requests.stream().map(UseBalance.Request::getAccountNumber).collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Account::getAccountNumber, Function.identity()));
+
+        List<Transaction> transactions = new ArrayList<>(requests.size());
+        List<ErrorCode> errorCodes = new ArrayList<>(requests.size());
+        for (UseBalance.Request request : requests) {
+            Account account = accounts.get(request.getAccountNumber());
+            try {
+                useBalanceOf(users.get(request.getUserId()), account, request.getAmount());
+                transactions.add(newTransaction(USE, S, request.getAmount(), account));
+                errorCodes.add(null);
+            } catch (AccountException e) {
+                transactions.add(account == null ? null : newTransaction(USE, F, request.getAmount(), account));
+                errorCodes.add(e.getErrorCode());
+            }
+        }
+        List<Transaction> recorded = transactions.stream().filter(Objects::nonNull).toList();
+        transactionRecorder.recordAll(recorded);
+        transactionQueryCache.putOnCommit(recorded);
+
+        List<UseBalanceBatch.ItemResult> results = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            TransactionDto transactionDto = transactions.get(i) == null
+                    ? null : TransactionDto.fromEntity(transactions.get(i));
+            results.add(errorCodes.get(i) == null
+                    ? UseBalanceBatch.ItemResult.from(transactionDto)
+                    : UseBalanceBatch.ItemResult.failed(requests.get(i), transactionDto, errorCodes.get(i)));
+        }
+        return results;
+    }
+
+    private void useBalanceOf(AccountUser user, Account account, Long amount) {
+        if (user == null) {
+            throw new AccountException(ErrorCode.USER_NOT_FOUND);
+        }
+        if (account == null) {
+            throw new AccountException(ErrorCode.ACCOUNT_NOT_FOUND);
+        }
+        validateUserBalance(user, account, amount);
+        account.useBalance(amount);
+    }
+
+    /**
+     * 소유주/상태/잔액 확인과 차감을 UPDATE 한 문장으로 처리한다.
+     * 차감된 행은 커밋까지 DB 가 잠그므로 이어서 읽는 잔액이 곧 이 거래의 잔액 스냅샷이다.
+     * 실패했을 때만 다시 조회해서 알맞은 ErrorCode 를 찾는다.
+     */
+    private TransactionDto useBalanceAtomically(Long userId, String accountNumber, Long amount) {
+        LocalDateTime now = LocalDateTime.now();
+        if (accountRepository.useBalanceIfSufficient(userId, accountNumber, amount, now) == 0) {
+            throw resolveUseBalanceFailure(USE, userId, accountNumber, amount);
+        }
+
         Account account = accountRepository.findByAccountNumber(accountNumber)
                 .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
 
-        saveAndGetTransaction(USE, F, amount, account);
+        return TransactionDto.fromEntity(saveAndGetTransaction(USE, S, amount, account));
+    }
+
+    /**
+     * 실패 원인을 찾아서 실패 거래로 남기고 돌려준다
+     * 소유주/상태는 계좌 캐시로 확인한다. 둘 다 맞으면 UPDATE 가 실패한 이유는 잔액뿐이라 계좌를 다시 읽지 않는다.
+     * (실패 거래의 계좌는 FailedTransactionRecorder 가 모아서 찾는다)
+     */
+    private AccountException resolveUseBalanceFailure(TransactionType transactionType, Long userId, String accountNumber, Long amount) {
+        AccountException failure;
+        try {
+            AccountUser user = accountUserRepository.findById(userId)
+                    .orElseThrow(() -> new AccountException(ErrorCode.USER_NOT_FOUND));
 
+            AccountCache.Entry cached = accountCache.get(accountNumber)
+                    .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+            validateCachedAccount(user.getId(), cached);
 
+            failure = new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE);
+        } catch (AccountException e) {
+            failure = e;
+        }
+        failedTransactionRecorder.record(transactionType, accountNumber, null, amount, failure.getErrorCode());
+        return failure;
+    }
+
+    //계좌를 읽고 소유주/상태를 캐시에 남긴다
+    private Account findAccount(String accountNumber) {
+        Account account = accountRepository.findByAccountNumber(accountNumber)
+                .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+        accountCache.put(account);
+        return account;
+    }
+
+    //유저의 계좌를 소유주와 함께 한 문장으로 읽고 소유주/상태를 캐시에 남긴다
+    private Account findOwnedAccount(Long userId, String accountNumber) {
+        Account account = ownedAccountLoader.load(userId, accountNumber);
+        accountCache.put(account);
+        return account;
+    }
+
+    //캐시에 있는 계좌가 다른 사람 것이거나 해지됐으면 계좌를 읽기 전에 거절한다 (둘 다 되돌릴 수 없어 캐시가 오래돼도 맞다)
+    private void rejectByCachedAccount(Long userId, String accountNumber) {
+        accountCache.getIfPresent(accountNumber).ifPresent(cached -> {
+            if (!cached.isOwnedBy(userId)) {
+                //유저가 없는 경우와 구분한다
+                throw ownedAccountLoader.resolveFailure(userId, accountNumber);
+            }
+            validateCachedAccount(userId, cached);
+        });
+    }
+
+    private void validateCachedAccount(Long userId, AccountCache.Entry cached) {
+        if (!cached.isOwnedBy(userId)) {
+            throw new AccountException(ErrorCode.USER_ACCOUNT_UN_MATCH);
+        }
+        if (cached.accountStatus() != AccountStatus.IN_USE) {
+            throw new AccountException(ErrorCode.ACCOUNT_ALREADY_UNREGISTERED);
+        }
+    }
+
+    private boolean isAtomicMode() {
+        return "atomic".equals(concurrencyMode);
+    }
+
+    private void validateUserBalance(AccountUser user, Account account, Long amount) {
+        if (!Objects.equals(user.getId(), account.getAccountUser().getId())) {
+            throw new AccountException(ErrorCode.USER_ACCOUNT_UN_MATCH);
+        }
+        validateBalance(account, amount);
+    }
+
+    //소유주는 조회 조건으로 이미 확인한 계좌
+    private void validateBalance(Account account, Long amount) {
+        TransactionRules.validateUse(account.getAccountStatus(), account.getBalance(), amount);
     }
 
     private Transaction saveAndGetTransaction(TransactionType transactionType, TransactionResultType transactionResultType, Long amount, Account account) {
-        return transactionRepository.save(
-                Transaction.builder()
-                        .transactionType(transactionType)
-                        .transactionResultType(transactionResultType)
-                        .account(account)
-                        .amount(amount)
-                        .balanceSnapshot(account.getBalance())
-                        .transactionId(UUID.randomUUID().toString().replace("-", ""))
-                        .transactedAt(LocalDateTime.now())
-                        .build()
-        );
+        Transaction transaction = transactionRecorder.record(
+                newTransaction(transactionType, transactionResultType, amount, account));
+        //거래 확인 캐시를 커밋 후에 채운다
+        transactionQueryCache.putOnCommit(List.of(transaction));
+        return transaction;
+    }
+
+    private Transaction newTransaction(TransactionType transactionType, TransactionResultType transactionResultType, Long amount, Account account) {
+        return Transaction.builder()
+                .transactionType(transactionType)
+                .transactionResultType(transactionResultType)
+                .account(account)
+                .amount(amount)
+                .balanceSnapshot(account.getBalance())
+                .transactionId(transactionIdGenerator.nextId())
+                .transactedAt(LocalDateTime.now())
+                .build();
     }
 
     @Transactional
+    @OptimisticRetry
     public TransactionDto cancelBalance(String transactionId, String accountNumber, Long amount) {
-        Transaction transaction = transactionRepository.findByTransactionId(transactionId)
-                .orElseThrow(() -> new AccountException(ErrorCode.TRANSACTION_NOT_FOUND));
+        Account account = null;
+        try {
+            Transaction transaction = findTransaction(transactionId)
+                    .orElseThrow(() -> new AccountException(ErrorCode.TRANSACTION_NOT_FOUND));
 
-        Account account = accountRepository.findByAccountNumber(accountNumber)
-                .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+            account = findAccount(accountNumber);
 
-        validateCancelBalance(transaction, account, amount);
+            TransactionRules.validateCancel(transaction.getAccount().getId(), account.getId(),
+                    transaction.getAmount(), amount, transaction.getTransactedAt());
+        } catch (AccountException e) {
+            failedTransactionRecorder.record(CANCEL, accountNumber, account, amount, e.getErrorCode());
+            throw e;
+        }
 
-        account.cancelBalance(amount);
+        if (isAtomicMode()) {
+            //락 없이 동시에 차감될 수 있으므로 읽은 값이 아니라 DB 에서 더한다
+            accountRepository.cancelBalance(account.getId(), amount, LocalDateTime.now());
+            account = accountRepository.findById(account.getId())
+                    .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+        } else {
+            account.cancelBalance(amount);
+        }
 
         return TransactionDto.fromEntity(saveAndGetTransaction(CANCEL, S, amount, account));
     }
 
-    private void validateCancelBalance(Transaction transaction, Account account, Long amount) {
-        if (!Objects.equals(transaction.getAccount().getId(), account.getId())) {
-            throw new AccountException(ErrorCode.TRANSACTION_ACCOUNT_UN_MATCH);
-        }
-        if (!Objects.equals(transaction.getAmount(), amount)) {
-            throw new AccountException(ErrorCode.CANCEL_MUST_FULLY);
-        }
-        if (transaction.getTransactedAt().isBefore(LocalDateTime.now().minusYears(1))) {
-            throw new AccountException(ErrorCode.TOO_OLD_ORDER_TO_CANCEL);
-        }
 
+    /**
+     * 아직 DB 에 쓰지 않은 거래 -> DB (projection 한 문장, 계좌/유저 엔티티를 읽지 않는다)
+     */
+    public TransactionDto queryTransaction(String transactionId) {
+        long id = TransactionIds.parse(transactionId);
+        return transactionRecorder.findUnflushed(id)
+                .map(TransactionDto::fromEntity)
+                .or(() -> transactionRepository.findDetailByTransactionId(id).map(TransactionDto::fromView))
+                .orElseThrow(() -> new AccountException(ErrorCode.TRANSACTION_NOT_FOUND));
     }
 
-    public void saveFailedCancelTransaction(String accountNumber, Long amount) {
-        Account account = accountRepository.findByAccountNumber(accountNumber)
-                .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+    /**
+     * 거래 확인 응답 (TransactionQueryCache -> 없으면 queryTransaction)
+     */
+    public QueryTransactionResponse queryTransactionResponse(String transactionId) {
+        return transactionQueryCache.get(transactionId, this::queryTransaction);
+    }
 
-        saveAndGetTransaction(CANCEL, F, amount, account);
+    /**
+     * 계좌 거래 내역 (최근 거래부터 size 건, cursor 가 있으면 그 다음부터)
+     * 계좌 id 는 계좌 캐시에서 찾고, 거래는 필요한 컬럼만 keyset 으로 읽는다.
+     * (write-behind 로 아직 DB 에 쓰지 않은 거래는 flush 된 뒤에 보인다)
+     */
+    @Transactional(readOnly = true)
+    public TransactionHistory.Response getTransactionHistory(
+            String accountNumber, TransactionType type, TransactionResultType result, String cursor, int size) {
+        if (size < 1 || size > MAX_HISTORY_PAGE_SIZE) {
+            throw new AccountException(ErrorCode.INVALID_REQUEST);
+        }
+        long accountId = accountCache.get(accountNumber)
+                .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND))
+                .accountId();
+
+        //한 건 더 읽어서 다음 페이지가 있는지 본다
+        Pageable pageable = PageRequest.of(0, size + 1);
+        List<TransactionRepository.TransactionHistoryView> rows;
+        if (cursor == null) {
+            rows = transactionRepository.findHistory(accountId, type, result, pageable);
+        } else {
+            TransactionHistory.Cursor after = TransactionHistory.Cursor.decode(cursor);
+            rows = transactionRepository.findHistoryBefore(
+                    accountId, after.getTransactedAt(), after.getId(), type, result, pageable);
+        }
 
+        boolean hasNext = rows.size() > size;
+        List<TransactionRepository.TransactionHistoryView> page = hasNext ? rows.subList(0, size) : rows;
+        return new TransactionHistory.Response(
+                page.stream().map(TransactionHistory.Item::from).toList(),
+                hasNext ? TransactionHistory.Cursor.of(page.get(size - 1)).encode() : null);
     }
 
-    public TransactionDto queryTransaction(String transactionId) {
-        return TransactionDto.fromEntity(
-                transactionRepository.findByTransactionId(transactionId)
-                        .orElseThrow(() -> new AccountException(ErrorCode.TRANSACTION_NOT_FOUND))
-        );
+    //write-behind 로 아직 DB 에 쓰지 않은 거래도 찾는다 (DB 보다 먼저 봐야 flush 와 엇갈려도 놓치지 않는다)
+    private Optional<Transaction> findTransaction(String transactionId) {
+        long id = TransactionIds.parse(transactionId);
+        return transactionRecorder.findUnflushed(id)
+                .or(() -> transactionRepository.findByTransactionId(id));
     }
 }
@@ -0,0 +1,433 @@
+package com.example.account.service;
+
+import com.example.account.domain.Account;
+import com.example.account.domain.Transaction;
+import com.example.account.repository.AccountRepository;
+import com.example.account.repository.TransactionRepository;
+import com.example.account.type.TransactionResultType;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 거래 기록 write-behind (account.transaction.write-behind.enabled=true)
+ * 잔액 변경은 요청 트랜잭션에서 바로 커밋하고, 거래 기록은
+ * 1. 커밋 직전에 로컬 저널에 쓴다. fsync 는 계좌 락 밖에서 sync 스레드가 sync-interval-millis 마다 모아서 한다
+ *    (서버가 죽으면 다음 기동때 저널의 기록을 계좌의 커밋된 잔액과 맞춰보고 커밋된 기록만 다시 넣는다.
+ *    OS 가 죽으면 마지막 fsync 이후 기록은 잃을 수 있다)
+ * 2. 커밋되면 크기 제한이 있는 큐에 넣고 (가득 차면 요청 스레드를 막지 않고 넘친 목록에 둔다)
+ * 3. 쓰기 스레드가 batch-size 만큼 모아서 saveAll (hibernate.jdbc.batch_size 로 배치 insert)
+ *    max-retries 번 실패하면 배치를 나눠서 쓰고, 한 건만으로도 실패하는 기록은 격리해서 저널에 남긴다.
+ *    (다음 기동때 다시 넣어도 실패하면 dead-letter 파일로 옮긴다)
+ * 종료할 때는 큐를 비울 때까지 쓴다. 아직 쓰지 않은 기록은 cancel/조회를 위해 findUnflushed 로 찾을 수 있다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "account.transaction.write-behind", name = "enabled", havingValue = "true")
+public class WriteBehindTransactionRecorder implements TransactionRecorder, MeterBinder, DisposableBean {
+    private static final long SHUTDOWN_WAIT_MILLIS = 30_000L;
+    private static final long RETRY_BACKOFF_MILLIS = 1_000L;
+
+    private final TransactionRepository transactionRepository;
+    private final AccountRepository accountRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionJournal journal;
+    private final BlockingQueue<Transaction> queue;
+    //큐가 가득 찼을 때 넣은 기록. 쓰기 스레드가 큐와 같이 비운다 (unflushed 에 이미 있는 기록이라 메모리가 더 늘지 않는다)
+    private final Queue<Transaction> overflow = new ConcurrentLinkedQueue<>();
+    private final ConcurrentHashMap<Long, Transaction> unflushed = new ConcurrentHashMap<>();
+    private final int batchSize;
+    private final int maxRetries;
+    private final long syncIntervalMillis;
+    private final Thread writer;
+    private final Thread syncer;
+    //큐가 가득 차서 넘친 목록에 넣은 기록 수
+    private final LongAdder overflowed = new LongAdder();
+    //나눠서 써도 실패해서 다음 기동때로 미룬 기록 수
+    private final LongAdder quarantined = new LongAdder();
+    //다음 기동때도 넣지 못해서 dead-letter 파일로 옮긴 기록 수
+    private final LongAdder deadLettered = new LongAdder();
+    private volatile boolean running = true;
+    private volatile Timer flushTimer;
+
+    public WriteBehindTransactionRecorder(
+            TransactionRepository transactionRepository,
+            AccountRepository accountRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${account.transaction.write-behind.queue-capacity:10000}") int queueCapacity,
+            @Value("${account.transaction.write-behind.batch-size:500}") int batchSize,
+            @Value("${account.transaction.write-behind.max-retries:3}") int maxRetries,
+            @Value("${account.transaction.write-behind.journal-dir:./data/transaction-journal}") String journalDir,
+            @Value("${account.transaction.write-behind.segment-records:100000}") int segmentRecords,
+            @Value("${account.transaction.write-behind.sync-interval-millis:10}") long syncIntervalMillis
+    ) throws IOException {
+        this.transactionRepository = transactionRepository;
+        this.accountRepository = accountRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.journal = new TransactionJournal(Path.of(journalDir), segmentRecords);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.maxRetries = maxRetries;
+        this.syncIntervalMillis = syncIntervalMillis;
+        this.writer = new Thread(this::runWriter, "transaction-write-behind");
+        this.writer.start();
+        this.syncer = new Thread(this::runSyncer, "transaction-journal-sync");
+        this.syncer.start();
+    }
+
+    @Override
+    public Transaction record(Transaction transaction) {
+        return recordAll(List.of(transaction)).get(0);
+    }
+
+    @Override
+    public List<Transaction> recordAll(List<Transaction> transactions) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            //트랜잭션 밖 (실패 거래 기록 등) 은 기다릴 커밋이 없으므로 바로 저장
+            return transactionRepository.saveAll(transactions);
+        }
+        PendingRecords pending = (PendingRecords) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingRecords();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.transactions.addAll(transactions);
+        return transactions;
+    }
+
+    @Override
+    public Optional<Transaction> findUnflushed(long transactionId) {
+        return Optional.ofNullable(unflushed.get(transactionId));
+    }
+
+    /**
+     * 지난 실행에서 DB 에 쓰지 못한 기록을 다시 넣는다.
+     * 커밋된 기록은 committedEntries 로 고르고, 이미 DB 에 쓴 기록은 빼서 여러번 넣지 않는다.
+     * 쓰기 스레드와 같이 나눠서 쓰고, 한 건만으로도 실패하는 기록은 dead-letter 파일로 옮기고 기동은 계속한다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void replayJournal() throws IOException {
+        List<TransactionJournal.Entry> replay = withoutFlushed(committedEntries(journal.recover()));
+        Map<Long, TransactionJournal.Entry> entries = replay.stream()
+                .collect(Collectors.toMap(TransactionJournal.Entry::getTransactionId, Function.identity()));
+        LongAdder replayed = new LongAdder();
+        for (int from = 0; from < replay.size(); from += batchSize) {
+            List<TransactionJournal.Entry> batch = replay.subList(from, Math.min(from + batchSize, replay.size()));
+            saveSplitting(batch.stream().map(this::toTransaction).toList(),
+                    saved -> replayed.add(saved.size()),
+                    poison -> deadLetter(entries.get(poison.getTransactionId())));
+        }
+        journal.deleteRecovered();
+        if (!replay.isEmpty()) {
+            log.info("Replayed {} of {} transaction records from journal", replayed.sum(), replay.size());
+        }
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        //쓰기 스레드는 큐를 다 비우면 끝난다 (쓰는 도중 JDBC 가 끊기지 않도록 interrupt 하지 않는다)
+        running = false;
+        writer.join(SHUTDOWN_WAIT_MILLIS);
+        //fsync 중에 interrupt 하면 세그먼트 채널이 닫히므로 sync 스레드도 스스로 끝나기를 기다린다
+        syncer.join();
+        int left = queue.size() + overflow.size();
+        if (left > 0) {
+            log.warn("{} transaction records left in journal for next start", left);
+        }
+        journal.close();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("account.transaction.write_behind.queue.depth", queue, BlockingQueue::size)
+                .register(registry);
+        FunctionCounter.builder("account.transaction.write_behind.overflow", overflowed, LongAdder::sum)
+                .description("Records queued past the queue capacity instead of blocking the request thread")
+                .register(registry);
+        FunctionCounter.builder("account.transaction.write_behind.quarantined", quarantined, LongAdder::sum)
+                .description("Records that failed to flush alone and were left in the journal for the next start")
+                .register(registry);
+        FunctionCounter.builder("account.transaction.write_behind.dead_lettered", deadLettered, LongAdder::sum)
+                .description("Journal records that failed to replay alone and were moved to the dead-letter file")
+                .register(registry);
+        flushTimer = Timer.builder("account.transaction.write_behind.flush")
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private void runWriter() {
+        while (running || !queue.isEmpty() || !overflow.isEmpty()) {
+            List<Transaction> batch = new ArrayList<>(batchSize);
+            try {
+                Transaction first = overflow.isEmpty() ? queue.poll(100, TimeUnit.MILLISECONDS) : queue.poll();
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+                }
+            } catch (InterruptedException e) {
+                return;
+            }
+            while (batch.size() < batchSize && !overflow.isEmpty()) {
+                batch.add(overflow.poll());
+            }
+            if (batch.isEmpty()) {
+                continue;
+            }
+            if (!saveSplitting(batch, this::resolve, this::quarantine)) {
+                return;
+            }
+        }
+    }
+
+    //계좌 락을 잡은 요청 스레드 대신 저널 fsync 를 모아서 한다
+    private void runSyncer() {
+        while (running) {
+            try {
+                Thread.sleep(syncIntervalMillis);
+            } catch (InterruptedException e) {
+                return;
+            }
+            try {
+                journal.sync();
+            } catch (IOException e) {
+                log.error("Failed to sync transaction journal", e);
+            }
+        }
+    }
+
+    /**
+     * 실패하면 max-retries 번까지 다시 시도하고, 그래도 실패하면 반으로 나눠서 쓴다.
+     * 한 건만으로도 실패하는 기록은 poison 으로 넘긴다.
+     * 종료 중이면 저널에 남겨두고 포기한다.
+     *
+     * @return false 면 종료 중이라 포기했다 (쓰기 스레드를 끝낸다)
+     */
+    private boolean saveSplitting(List<Transaction> batch, Consumer<List<Transaction>> saved,
+                                  Consumer<Transaction> poison) {
+        for (int attempt = 0; ; attempt++) {
+            long start = System.nanoTime();
+            try {
+                save(batch);
+                Timer timer = flushTimer;
+                if (timer != null) {
+                    timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+                saved.accept(batch);
+                return true;
+            } catch (RuntimeException e) {
+                log.error("Failed to flush {} transaction records (attempt {})", batch.size(), attempt + 1, e);
+                if (!running) {
+                    return false;
+                }
+                if (attempt >= maxRetries) {
+                    break;
+                }
+                try {
+                    Thread.sleep(RETRY_BACKOFF_MILLIS);
+                } catch (InterruptedException interrupted) {
+                    return false;
+                }
+            }
+        }
+
+        if (batch.size() == 1) {
+            poison.accept(batch.get(0));
+            return true;
+        }
+        int half = batch.size() / 2;
+        return saveSplitting(batch.subList(0, half), saved, poison)
+                && saveSplitting(batch.subList(half, batch.size()), saved, poison);
+    }
+
+    private void resolve(List<Transaction> transactions) {
+        List<Long> transactionIds = transactions.stream().map(Transaction::getTransactionId).toList();
+        journal.resolve(transactionIds);
+        transactionIds.forEach(unflushed::remove);
+    }
+
+    //저널에 남아서 다음 기동때 다시 넣는다
+    private void quarantine(Transaction transaction) {
+        quarantined.increment();
+        log.error("Quarantined transaction record {}, left in journal for next start",
+                transaction.getTransactionId());
+    }
+
+    //복구에서도 넣지 못한 기록. 세그먼트는 지우므로 dead-letter 파일에 옮겨두고 기동은 계속한다
+    private void deadLetter(TransactionJournal.Entry entry) {
+        deadLettered.increment();
+        try {
+            journal.deadLetter(entry);
+            log.error("Moved transaction record {} to the journal dead-letter file", entry.getTransactionId());
+        } catch (IOException e) {
+            log.error("Failed to dead-letter transaction record {}", entry.toLine(), e);
+        }
+    }
+
+    private void save(List<Transaction> transactions) {
+        transactionTemplate.executeWithoutResult(status -> transactionRepository.saveAll(transactions));
+    }
+
+    /**
+     * 저널의 기록 중 잔액 변경이 커밋된 트랜잭션의 기록.
+     * 계좌별로 저널을 거꾸로 읽으면서 현재 잔액에서 커밋된 잔액 변경을 되짚는다.
+     * 트랜잭션이 남긴 마지막 잔액이 기대한 잔액과 같으면 커밋된 것으로 보고, 그 트랜잭션 전 잔액을 다음 기대값으로 둔다.
+     * 롤백된 트랜잭션은 (계좌 락 아래서) 커밋된 잔액에서 시작해 다른 잔액으로 끝나므로 (금액은 0 보다 크다) 걸러진다.
+     * 실패 거래만 있는 트랜잭션은 잔액으로 판단할 수 없어서 그대로 넣는다.
+     */
+    private List<TransactionJournal.Entry> committedEntries(List<TransactionJournal.Entry> entries) {
+        Map<Long, List<TransactionJournal.Entry>> groups = entries.stream()
+                .collect(Collectors.groupingBy(TransactionJournal.Entry::getGroupId, LinkedHashMap::new,
+                        Collectors.toList()));
+        Set<Long> accountIds = entries.stream()
+                .filter(entry -> entry.getTransactionResultType() == TransactionResultType.S)
+                .map(TransactionJournal.Entry::getAccountId)
+                .collect(Collectors.toSet());
+        Map<Long, Long> expected = accountRepository.findAllById(accountIds).stream()
+                .collect(Collectors.toMap(Account::getId, Account::getBalance));
+
+        List<List<TransactionJournal.Entry>> ordered = new ArrayList<>(groups.values());
+        Set<Long> rolledBack = new HashSet<>();
+        for (int i = ordered.size() - 1; i >= 0; i--) {
+            Map<Long, List<TransactionJournal.Entry>> changes = ordered.get(i).stream()
+                    .filter(entry -> entry.getTransactionResultType() == TransactionResultType.S)
+                    .collect(Collectors.groupingBy(TransactionJournal.Entry::getAccountId));
+            changes.forEach((accountId, changed) -> {
+                TransactionJournal.Entry first = changed.get(0);
+                TransactionJournal.Entry last = changed.get(changed.size() - 1);
+                if (!last.getBalanceSnapshot().equals(expected.get(accountId))) {
+                    rolledBack.add(first.getGroupId());
+                    return;
+                }
+                expected.put(accountId, first.getBalanceSnapshot()
+                        - ReconciliationService.balanceDelta(first.getTransactionType(), first.getAmount()));
+            });
+        }
+        return entries.stream()
+                .filter(entry -> {
+                    if (rolledBack.contains(entry.getGroupId())) {
+                        log.debug("Skip rolled back journal record {}", entry.getTransactionId());
+                        return false;
+                    }
+                    return true;
+                })
+                .toList();
+    }
+
+    //이미 DB 에 쓴 기록 (세그먼트가 다 풀리지 않아서 저널에 남은 기록)
+    private List<TransactionJournal.Entry> withoutFlushed(List<TransactionJournal.Entry> entries) {
+        Set<Long> flushed = new HashSet<>();
+        for (int from = 0; from < entries.size(); from += batchSize) {
+            flushed.addAll(transactionRepository.findExistingTransactionIds(
+                    entries.subList(from, Math.min(from + batchSize, entries.size())).stream()
+                            .map(TransactionJournal.Entry::getTransactionId)
+                            .toList()));
+        }
+        return entries.stream()
+                .filter(entry -> !flushed.contains(entry.getTransactionId()))
+                .toList();
+    }
+
+    private Transaction toTransaction(TransactionJournal.Entry entry) {
+        return Transaction.builder()
+                .transactionType(entry.getTransactionType())
+                .transactionResultType(entry.getTransactionResultType())
+                .account(accountRepository.getReferenceById(entry.getAccountId()))
+                .amount(entry.getAmount())
+                .balanceSnapshot(entry.getBalanceSnapshot())
+                .transactionId(entry.getTransactionId())
+                .linkedTransactionId(entry.getLinkedTransactionId())
+                .transactedAt(entry.getTransactedAt())
+                .build();
+    }
+
+    private static TransactionJournal.Entry toEntry(long groupId, Transaction transaction) {
+        return TransactionJournal.Entry.builder()
+                .groupId(groupId)
+                .transactionId(transaction.getTransactionId())
+                .linkedTransactionId(transaction.getLinkedTransactionId())
+                .accountId(transaction.getAccount().getId())
+                .transactionType(transaction.getTransactionType())
+                .transactionResultType(transaction.getTransactionResultType())
+                .amount(transaction.getAmount())
+                .balanceSnapshot(transaction.getBalanceSnapshot())
+                .transactedAt(transaction.getTransactedAt())
+                .build();
+    }
+
+    /**
+     * 한 트랜잭션에서 기록한 거래들. 커밋 직전에 저널, 커밋 후에 큐로 보낸다.
+     */
+    private class PendingRecords implements TransactionSynchronization {
+        private final List<Transaction> transactions = new ArrayList<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            if (transactions.isEmpty()) {
+                return;
+            }
+            //계좌 락을 잡고 있으므로 쓰기만 하고 fsync 는 sync 스레드에 맡긴다 (DB 에도 따로 쓰지 않는다)
+            long groupId = transactions.get(0).getTransactionId();
+            try {
+                journal.append(transactions.stream().map(transaction -> toEntry(groupId, transaction)).toList());
+            } catch (IOException e) {
+                //저널에 못 쓰면 잔액 변경도 커밋하지 않는다
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResource(WriteBehindTransactionRecorder.this);
+            List<Long> transactionIds = transactions.stream().map(Transaction::getTransactionId).toList();
+            if (status != STATUS_COMMITTED) {
+                journal.resolve(transactionIds);
+                return;
+            }
+            //요청 스레드는 아직 계좌 락을 잡고 있으므로 큐가 가득 차도 기다리지 않는다
+            for (Transaction transaction : transactions) {
+                unflushed.put(transaction.getTransactionId(), transaction);
+                if (!queue.offer(transaction)) {
+                    overflow.add(transaction);
+                    overflowed.increment();
+                }
+            }
+        }
+    }
+}
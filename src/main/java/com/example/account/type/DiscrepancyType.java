@@ -0,0 +1,6 @@
+package com.example.account.type;
+
+public enum DiscrepancyType {
+    CHAIN_BREAK,//이전 거래 잔액 스냅샷 ± 금액 != 이 거래 잔액 스냅샷
+    BALANCE_MISMATCH//마지막 거래 잔액 스냅샷 != 계좌 잔액
+}
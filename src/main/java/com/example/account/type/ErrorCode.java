@@ -20,6 +20,8 @@ public enum ErrorCode {
     BALANCE_NOT_EMPTY("잔액이 있는 계좌는 해지 할수 없습니다."),
     AMOUNT_EXCEED_BALANCE("잔액이 부족합니다"),
     INVALID_REQUEST("잘못된 요청입니다"),
-    TRANSACTION_NOT_FOUND("거래 정보가 없습니다");
+    TRANSACTION_NOT_FOUND("거래 정보가 없습니다"),
+    ACCOUNT_NUMBER_EXHAUSTED("발급 가능한 계좌번호가 없습니다"),
+    TRANSFER_SAME_ACCOUNT("같은 계좌로 이체할 수 없습니다");
     private final String description;
 }
@@ -1,5 +1,6 @@
 package com.example.account.type;
 
 public enum TransactionType {
-    USE,CANCEL
+    USE,CANCEL,
+    TRANSFER_OUT,TRANSFER_IN//이체 출금/입금 (서로 linkedTransactionId 로 연결)
 }
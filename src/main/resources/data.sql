@@ -1,2 +1,4 @@
 insert into account_user(id,name,created_at,updated_at
-)values (1,'pororo',now(),now());
\ No newline at end of file
+)values (1,'pororo',now(),now());
+-- 직접 넣은 id 와 시퀀스가 겹치지 않도록
+alter sequence account_user_seq restart with 1001;
\ No newline at end of file
@@ -0,0 +1,186 @@
+package com.example.account.controller;
+
+import com.example.account.domain.AccountUser;
+import com.example.account.dto.CancelBalance;
+import com.example.account.dto.CreateAccount;
+import com.example.account.dto.DeleteAccount;
+import com.example.account.dto.UseBalance;
+import com.example.account.repository.AccountUserRepository;
+import com.example.account.type.ErrorCode;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpMethod;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * reactive 프로파일 (WebFlux + R2DBC H2) 의 요청/응답과 ErrorCode 가 서블릿 스택과 같은지
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "account.lock.provider=local",
+        "account.cache.transaction.redis-enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:reactivedb",
+        "account.reactive.r2dbc-url=r2dbc:h2:mem:///reactivedb"
+})
+@ActiveProfiles("reactive")
+class ReactiveApiTest {
+    private static final long USER_ID = 1L;//data.sql
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private AccountUserRepository accountUserRepository;
+
+    @Test
+    @DisplayName("잔액 사용 -> 거래 확인 -> 취소 -> 계좌 목록")
+    void useQueryCancel() {
+        //given
+        String accountNumber = createAccount(USER_ID, 10000L);
+
+        //when
+        UseBalance.Response used = webTestClient.post().uri("/transaction/use")
+                .bodyValue(new UseBalance.Request(USER_ID, accountNumber, 1000L))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(UseBalance.Response.class)
+                .returnResult().getResponseBody();
+        assertNotNull(used);
+
+        webTestClient.get().uri("/transaction/" + used.getTransactionId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.accountNumber").isEqualTo(accountNumber)
+                .jsonPath("$.transactionType").isEqualTo("USE")
+                .jsonPath("$.transactionResult").isEqualTo("S")
+                .jsonPath("$.amount").isEqualTo(1000);
+
+        webTestClient.post().uri("/transaction/cancel")
+                .bodyValue(new CancelBalance.Request(used.getTransactionId(), accountNumber, 1000L))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.transactionResult").isEqualTo("S")
+                .jsonPath("$.amount").isEqualTo(1000);
+
+        //then
+        webTestClient.get().uri("/account?user_id=" + USER_ID)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[?(@.accountNumber == '" + accountNumber + "')].balance").isEqualTo(10000);
+    }
+
+    @Test
+    @DisplayName("잔액 사용 실패 - 유저 없음")
+    void useBalance_UserNotFound() {
+        //given
+        String accountNumber = createAccount(USER_ID, 10000L);
+
+        //when
+        //then
+        expectErrorCode(webTestClient.post().uri("/transaction/use")
+                        .bodyValue(new UseBalance.Request(9999L, accountNumber, 1000L)),
+                ErrorCode.USER_NOT_FOUND);
+    }
+
+    @Test
+    @DisplayName("잔액 사용 실패 - 계좌 소유주 다름")
+    void useBalance_userUnMatch() {
+        //given
+        String accountNumber = createAccount(USER_ID, 10000L);
+        AccountUser harry = accountUserRepository.save(AccountUser.builder()
+                .name("Harry").build());
+
+        //when
+        //then
+        expectErrorCode(webTestClient.post().uri("/transaction/use")
+                        .bodyValue(new UseBalance.Request(harry.getId(), accountNumber, 1000L)),
+                ErrorCode.USER_ACCOUNT_UN_MATCH);
+    }
+
+    @Test
+    @DisplayName("잔액 사용 실패 - 잔액 부족")
+    void useBalance_exceedAmount() {
+        //given
+        String accountNumber = createAccount(USER_ID, 100L);
+
+        //when
+        //then
+        expectErrorCode(webTestClient.post().uri("/transaction/use")
+                        .bodyValue(new UseBalance.Request(USER_ID, accountNumber, 1000L)),
+                ErrorCode.AMOUNT_EXCEED_BALANCE);
+    }
+
+    @Test
+    @DisplayName("계좌 해지 -> 이미 해지된 계좌")
+    void deleteAccount() {
+        //given
+        String accountNumber = createAccount(USER_ID, 0L);
+
+        //when
+        webTestClient.method(HttpMethod.DELETE).uri("/account")
+                .bodyValue(new DeleteAccount.Request(USER_ID, accountNumber))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.accountNumber").isEqualTo(accountNumber)
+                .jsonPath("$.unRegisteredAt").exists();
+
+        //then
+        expectErrorCode(webTestClient.method(HttpMethod.DELETE).uri("/account")
+                        .bodyValue(new DeleteAccount.Request(USER_ID, accountNumber)),
+                ErrorCode.ACCOUNT_ALREADY_UNREGISTERED);
+    }
+
+    @Test
+    @DisplayName("체크 숫자가 틀린 계좌번호 - 서블릿 스택과 같이 락 전에 ACCOUNT_NOT_FOUND")
+    void malformedAccountNumber() {
+        //given
+        String malformed = "1000000019";//체크 숫자는 8
+
+        //when
+        //then
+        expectErrorCode(webTestClient.post().uri("/transaction/use")
+                        .bodyValue(new UseBalance.Request(USER_ID, malformed, 1000L)),
+                ErrorCode.ACCOUNT_NOT_FOUND);
+        expectErrorCode(webTestClient.post().uri("/transaction/cancel")
+                        .bodyValue(new CancelBalance.Request("0000000000000001", malformed, 1000L)),
+                ErrorCode.ACCOUNT_NOT_FOUND);
+    }
+
+    @Test
+    @DisplayName("요청 검증 실패")
+    void useBalance_invalidRequest() {
+        //given
+        //when
+        //then
+        expectErrorCode(webTestClient.post().uri("/transaction/use")
+                        .bodyValue(new UseBalance.Request(USER_ID, "1000000000", 1L)),
+                ErrorCode.INVALID_REQUEST);
+    }
+
+    private String createAccount(Long userId, Long initialBalance) {
+        CreateAccount.Response response = webTestClient.post().uri("/account")
+                .bodyValue(new CreateAccount.Request(userId, initialBalance))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(CreateAccount.Response.class)
+                .returnResult().getResponseBody();
+        assertNotNull(response);
+        return response.getAccountNumber();
+    }
+
+    //서블릿 스택과 같이 200 + ErrorResponse
+    private void expectErrorCode(WebTestClient.RequestHeadersSpec<?> request, ErrorCode errorCode) {
+        request.exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.errorCode").isEqualTo(errorCode.name());
+    }
+}
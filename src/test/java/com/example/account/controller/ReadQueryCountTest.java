@@ -0,0 +1,126 @@
+package com.example.account.controller;
+
+import com.example.account.dto.AccountDto;
+import com.example.account.dto.TransactionDto;
+import com.example.account.service.AccountCache;
+import com.example.account.service.AccountService;
+import com.example.account.service.TransactionService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 조회 API 가 실행하는 SQL 문장 수 (연관관계 지연 로딩 + projection 이 깨지면 N+1 로 늘어난다)
+ */
+@SpringBootTest(properties = {
+        "account.lock.provider=local",
+        "account.cache.transaction.max-entries=0",
+        "account.cache.transaction.redis-enabled=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureMockMvc
+class ReadQueryCountTest {
+    private static final long USER_ID = 1L;//data.sql
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private AccountCache accountCache;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private AccountDto account;
+    private TransactionDto transaction;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        account = accountService.createAccount(USER_ID, 10000L);
+        accountService.createAccount(USER_ID, 20000L);
+        transaction = transactionService.useBalance(USER_ID, account.getAccountNumber(), 1000L);
+        transactionService.useBalance(USER_ID, account.getAccountNumber(), 2000L);
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("계좌 목록 - 유저 1 + 계좌 projection 1")
+    void getAccountsByUserId() throws Exception {
+        //given
+        //when
+        mvc.perform(get("/account?user_id=" + USER_ID))
+                .andExpect(status().isOk());
+
+        //then
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("계좌 조회 - 소유주까지 join 1")
+    void findAccount() throws Exception {
+        //given
+        long id = accountCache.get(account.getAccountNumber()).orElseThrow().accountId();
+        statistics.clear();
+
+        //when
+        mvc.perform(get("/account/" + id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accountUser.id").value(USER_ID));
+
+        //then
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("거래 확인 - 거래 + 계좌번호 projection 1")
+    void queryTransaction() throws Exception {
+        //given
+        //when
+        mvc.perform(get("/transaction/" + transaction.getTransactionId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accountNumber").value(account.getAccountNumber()));
+
+        //then
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("거래 내역 - 계좌(캐시 없을 때만) 1 + 내역 projection 1")
+    void getTransactionHistory() throws Exception {
+        //given
+        accountCache.invalidate(account.getAccountNumber());
+
+        //when
+        mvc.perform(get("/account/" + account.getAccountNumber() + "/transactions"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2));
+        long first = statistics.getPrepareStatementCount();
+        statistics.clear();
+        mvc.perform(get("/account/" + account.getAccountNumber() + "/transactions"))
+                .andExpect(status().isOk());
+
+        //then
+        assertEquals(2, first);
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+}
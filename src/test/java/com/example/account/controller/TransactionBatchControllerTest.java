@@ -0,0 +1,88 @@
+package com.example.account.controller;
+
+import com.example.account.dto.UseBalance;
+import com.example.account.dto.UseBalanceBatch;
+import com.example.account.service.TransactionService;
+import com.example.account.type.ErrorCode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.example.account.type.TransactionResultType.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(TransactionBatchController.class)
+class TransactionBatchControllerTest {
+
+    @MockBean
+    private TransactionService transactionService;
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void successUseBalanceBatch() throws Exception {
+        //given
+        given(transactionService.useBalanceBatch(anyList()))
+                .willReturn(List.of(
+                        UseBalanceBatch.ItemResult.builder()
+                                .accountNumber("1000000018")
+                                .transactionResult(S)
+                                .transactionId("transactionId")
+                                .amount(1000L)
+                                .transactedAt(LocalDateTime.now())
+                                .build(),
+                        UseBalanceBatch.ItemResult.builder()
+                                .accountNumber("1000000018")
+                                .transactionResult(F)
+                                .amount(9000L)
+                                .errorCode(ErrorCode.AMOUNT_EXCEED_BALANCE)
+                                .errorMessage(ErrorCode.AMOUNT_EXCEED_BALANCE.getDescription())
+                                .build()));
+        //when
+        //then
+        mvc.perform(post("/transaction/use/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new UseBalanceBatch.Request(List.of(
+                                        new UseBalance.Request(1L, "1000000018", 1000L),
+                                        new UseBalance.Request(1L, "1000000018", 9000L)))
+                        ))
+                ).andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[0].transactionResult").value("S"))
+                .andExpect(jsonPath("$.results[0].transactionId").value("transactionId"))
+                .andExpect(jsonPath("$.results[1].transactionResult").value("F"))
+                .andExpect(jsonPath("$.results[1].errorCode").value("AMOUNT_EXCEED_BALANCE"));
+    }
+
+    @Test
+    void failUseBalanceBatch_emptyItems() throws Exception {
+        //given
+        //when
+        //then
+        mvc.perform(post("/transaction/use/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new UseBalanceBatch.Request(List.of())
+                        ))
+                ).andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.errorCode").value("INVALID_REQUEST"));
+    }
+}
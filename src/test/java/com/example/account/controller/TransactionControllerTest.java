@@ -2,6 +2,7 @@ package com.example.account.controller;
 
 import com.example.account.dto.AccountDto;
 import com.example.account.dto.CancelBalance;
+import com.example.account.dto.QueryTransactionResponse;
 import com.example.account.dto.TransactionDto;
 import com.example.account.dto.UseBalance;
 import com.example.account.service.TransactionService;
@@ -102,14 +103,14 @@ class TransactionControllerTest {
     void successGetQueryTransaction() throws Exception {
         //given
 
-        given(transactionService.queryTransaction(anyString()))
-                .willReturn(TransactionDto.builder()
+        given(transactionService.queryTransactionResponse(anyString()))
+                .willReturn(QueryTransactionResponse.builder()
                         .accountNumber("1234567890")
                         .transactedAt(LocalDateTime.now())
                         .amount(1234L)
                         .transactionType(USE)
                         .transactionId("transactionId")
-                        .transactionResultType(S)
+                        .transactionResult(S)
                         .build());
         //when
 
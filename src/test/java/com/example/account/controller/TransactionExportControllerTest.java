@@ -0,0 +1,71 @@
+package com.example.account.controller;
+
+import com.example.account.exception.AccountException;
+import com.example.account.service.TransactionExportService;
+import com.example.account.type.ErrorCode;
+import com.example.account.type.ExportFormat;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(TransactionExportController.class)
+class TransactionExportControllerTest {
+    private static final LocalDateTime FROM = LocalDateTime.of(2024, 5, 1, 0, 0);
+    private static final LocalDateTime TO = LocalDateTime.of(2024, 6, 1, 0, 0);
+
+    @MockBean
+    private TransactionExportService transactionExportService;
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Test
+    void successExportCsv() throws Exception {
+        //given
+        given(transactionExportService.export(eq(FROM), eq(TO), eq(ExportFormat.CSV), any()))
+                .willAnswer(invocation -> {
+                    OutputStream out = invocation.getArgument(3);
+                    out.write("header\nrow\n".getBytes(StandardCharsets.UTF_8));
+                    return 1L;
+                });
+        //when
+        //then
+        mvc.perform(get("/transaction/export")
+                        .param("from", "2024-05-01T00:00:00")
+                        .param("to", "2024-06-01T00:00:00")
+                        .param("format", "CSV"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"transactions.csv\""))
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andExpect(content().string("header\nrow\n"));
+    }
+
+    @Test
+    void exportFailed_invalidRange() throws Exception {
+        //given
+        willThrow(new AccountException(ErrorCode.INVALID_REQUEST))
+                .given(transactionExportService).checkRange(TO, FROM);
+        //when
+        //then
+        mvc.perform(get("/transaction/export")
+                        .param("from", "2024-06-01T00:00:00")
+                        .param("to", "2024-05-01T00:00:00"))
+                .andDo(print())
+                .andExpect(jsonPath("$.errorCode").value("INVALID_REQUEST"));
+    }
+}
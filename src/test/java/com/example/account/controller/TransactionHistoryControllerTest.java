@@ -0,0 +1,71 @@
+package com.example.account.controller;
+
+import com.example.account.dto.TransactionHistory;
+import com.example.account.service.TransactionService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.example.account.type.TransactionResultType.*;
+import static com.example.account.type.TransactionType.*;
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(TransactionHistoryController.class)
+class TransactionHistoryControllerTest {
+
+    @MockBean
+    private TransactionService transactionService;
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Test
+    void successGetTransactionHistory() throws Exception {
+        //given
+        given(transactionService.getTransactionHistory("1000000012", USE, S, null, 2))
+                .willReturn(new TransactionHistory.Response(
+                        List.of(TransactionHistory.Item.builder()
+                                .transactionId("0000000000000003")
+                                .transactionType(USE)
+                                .transactionResult(S)
+                                .amount(1000L)
+                                .balanceSnapshot(9000L)
+                                .transactedAt(LocalDateTime.now())
+                                .build()),
+                        "nextCursor"));
+        //when
+        //then
+        mvc.perform(get("/account/1000000012/transactions")
+                        .param("type", "USE")
+                        .param("result", "S")
+                        .param("size", "2"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].transactionId").value("0000000000000003"))
+                .andExpect(jsonPath("$.items[0].transactionType").value("USE"))
+                .andExpect(jsonPath("$.items[0].balanceSnapshot").value(9000L))
+                .andExpect(jsonPath("$.nextCursor").value("nextCursor"));
+    }
+
+    @Test
+    void getTransactionHistory_defaultSize() throws Exception {
+        //given
+        given(transactionService.getTransactionHistory("1000000012", null, null, null, 20))
+                .willReturn(new TransactionHistory.Response(List.of(), null));
+        //when
+        //then
+        mvc.perform(get("/account/1000000012/transactions"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items").isEmpty());
+    }
+}
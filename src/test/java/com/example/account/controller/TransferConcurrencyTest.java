@@ -0,0 +1,75 @@
+package com.example.account.controller;
+
+import com.example.account.repository.AccountRepository;
+import com.example.account.service.AccountService;
+import com.example.account.service.TransactionService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * atomic 모드 (계좌 락 없음) 에서 반대 방향 이체가 동시에 와도 DB 행 락이 교착되지 않는지
+ */
+@SpringBootTest(properties = {
+        "account.concurrency.mode=atomic",
+        "account.lock.provider=local",
+        "account.cache.transaction.redis-enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:transferdb"
+})
+class TransferConcurrencyTest {
+    private static final long USER_ID = 1L;//data.sql
+    private static final int ROUNDS = 50;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Test
+    @DisplayName("A->B 와 B->A 를 동시에 - 모두 성공하고 잔액 합이 그대로")
+    void transferBothDirections() throws InterruptedException {
+        //given
+        String a = accountService.createAccount(USER_ID, 1_000_000L).getAccountNumber();
+        String b = accountService.createAccount(USER_ID, 1_000_000L).getAccountNumber();
+        ConcurrentLinkedQueue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        //when
+        for (List<String> direction : List.of(List.of(a, b), List.of(b, a))) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < ROUNDS; i++) {
+                        transactionService.transferBalance(USER_ID, direction.get(0), direction.get(1), 100L);
+                    }
+                } catch (Throwable e) {
+                    failures.add(e);
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS));
+
+        //then
+        assertTrue(failures.isEmpty(), () -> "transfer failed: " + failures);
+        assertEquals(1_000_000L, accountRepository.findByAccountNumber(a).orElseThrow().getBalance());
+        assertEquals(1_000_000L, accountRepository.findByAccountNumber(b).orElseThrow().getBalance());
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.account.controller;
+
+import com.example.account.dto.TransactionDto;
+import com.example.account.dto.TransferBalance;
+import com.example.account.exception.AccountException;
+import com.example.account.service.TransactionService;
+import com.example.account.type.ErrorCode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+
+import static com.example.account.type.TransactionResultType.*;
+import static com.example.account.type.TransactionType.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(TransferController.class)
+class TransferControllerTest {
+
+    @MockBean
+    private TransactionService transactionService;
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void successTransferBalance() throws Exception {
+        //given
+        given(transactionService.transferBalance(anyLong(), anyString(), anyString(), anyLong()))
+                .willReturn(TransactionDto.builder()
+                        .accountNumber("1000000018")
+                        .transactionType(TRANSFER_OUT)
+                        .transactionResultType(S)
+                        .transactionId("transactionId")
+                        .linkedTransactionId("linkedTransactionId")
+                        .amount(1000L)
+                        .transactedAt(LocalDateTime.now())
+                        .build());
+        //when
+        //then
+        mvc.perform(post("/transaction/transfer")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new TransferBalance.Request(1L, "1000000018", "1000000026", 1000L)
+                        ))
+                ).andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accountNumber").value("1000000018"))
+                .andExpect(jsonPath("$.transactionId").value("transactionId"))
+                .andExpect(jsonPath("$.linkedTransactionId").value("linkedTransactionId"))
+                .andExpect(jsonPath("$.transactionResult").value("S"));
+    }
+
+    @Test
+    void failTransferBalance() throws Exception {
+        //given
+        given(transactionService.transferBalance(anyLong(), anyString(), anyString(), anyLong()))
+                .willThrow(new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE));
+        //when
+        //then
+        mvc.perform(post("/transaction/transfer")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new TransferBalance.Request(1L, "1000000018", "1000000026", 1000L)
+                        ))
+                ).andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.errorCode").value("AMOUNT_EXCEED_BALANCE"));
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.account.domain;
+
+import org.hibernate.MappingException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PooledSequenceGeneratorTest {
+
+    @Test
+    @DisplayName("엔티티별 구간 크기가 있으면 그 값을 쓴다")
+    void allocationSizePerEntity() {
+        //given
+        Map<String, Object> settings = Map.of(
+                "account.id.allocation-size.default", "50",
+                "account.id.allocation-size.transaction", "500");
+
+        //when
+        //then
+        assertEquals(500, PooledSequenceGenerator.allocationSize(settings, "Transaction"));
+        assertEquals(50, PooledSequenceGenerator.allocationSize(settings, "Account"));
+    }
+
+    @Test
+    @DisplayName("설정이 없으면 기본 구간 크기")
+    void allocationSizeDefault() {
+        //given
+        //when
+        //then
+        assertEquals(PooledSequenceGenerator.DEFAULT_ALLOCATION_SIZE,
+                PooledSequenceGenerator.allocationSize(Map.of(), "AccountUser"));
+    }
+
+    @Test
+    @DisplayName("구간 크기가 1보다 작으면 실패")
+    void allocationSizeMustBePositive() {
+        //given
+        Map<String, Object> settings = Map.of("account.id.allocation-size.default", 0);
+
+        //when
+        //then
+        assertThrows(MappingException.class,
+                () -> PooledSequenceGenerator.allocationSize(settings, "Account"));
+    }
+
+    @Test
+    @DisplayName("시퀀스 이름은 테이블명_seq")
+    void sequenceName() {
+        //given
+        //when
+        //then
+        assertEquals("account_user_seq", PooledSequenceGenerator.sequenceName("account_user", "AccountUser"));
+        assertEquals("transaction_seq", PooledSequenceGenerator.sequenceName("`transaction`", "Transaction"));
+        assertEquals("account_seq", PooledSequenceGenerator.sequenceName(null, "Account"));
+    }
+}
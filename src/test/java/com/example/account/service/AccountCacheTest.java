@@ -0,0 +1,129 @@
+package com.example.account.service;
+
+import com.example.account.domain.Account;
+import com.example.account.domain.AccountUser;
+import com.example.account.repository.AccountRepository;
+import com.example.account.type.AccountStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class AccountCacheTest {
+    @Mock
+    private AccountRepository accountRepository;
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    @DisplayName("없으면 DB 에서 읽고 다음부터는 캐시에서 돌려준다")
+    void readThrough() {
+        //given
+        AccountCache cache = new AccountCache(accountRepository, 10, 60, now::get);
+        given(accountRepository.findByAccountNumber(number(1)))
+                .willReturn(Optional.of(account(1L, number(1), 12L, AccountStatus.IN_USE)));
+        //when
+        AccountCache.Entry first = cache.get(number(1)).orElseThrow();
+        AccountCache.Entry second = cache.get(number(1)).orElseThrow();
+        //then
+        verify(accountRepository, times(1)).findByAccountNumber(number(1));
+        assertEquals(first, second);
+        assertEquals(1L, second.accountId());
+        assertTrue(second.isOwnedBy(12L));
+        assertFalse(second.isOwnedBy(13L));
+    }
+
+    @Test
+    @DisplayName("최대 개수를 넘으면 최근에 읽히지 않은 항목부터 내보낸다")
+    void evictNotReferenced() {
+        //given
+        AccountCache cache = new AccountCache(accountRepository, 3, 60, now::get);
+        cache.put(account(1L, number(1), 12L, AccountStatus.IN_USE));
+        cache.put(account(2L, number(2), 12L, AccountStatus.IN_USE));
+        cache.put(account(3L, number(3), 12L, AccountStatus.IN_USE));
+        cache.getIfPresent(number(1));
+        cache.getIfPresent(number(3));
+        //when
+        cache.put(account(4L, number(4), 12L, AccountStatus.IN_USE));
+        //then
+        assertEquals(3, cache.size());
+        assertTrue(cache.getIfPresent(number(1)).isPresent());
+        assertTrue(cache.getIfPresent(number(2)).isEmpty());
+        assertTrue(cache.getIfPresent(number(3)).isPresent());
+        assertTrue(cache.getIfPresent(number(4)).isPresent());
+    }
+
+    @Test
+    @DisplayName("지운 뒤에도 같은 탐사 구간의 다른 항목은 찾을 수 있다")
+    void invalidateKeepsProbeChain() {
+        //given
+        AccountCache cache = new AccountCache(accountRepository, 1000, 60, now::get);
+        for (int i = 1; i <= 1000; i++) {
+            cache.put(account((long) i, number(i), 12L, AccountStatus.IN_USE));
+        }
+        //when
+        for (int i = 1; i <= 1000; i += 2) {
+            cache.invalidate(number(i));
+        }
+        //then
+        assertEquals(500, cache.size());
+        for (int i = 1; i <= 1000; i++) {
+            assertEquals(i % 2 == 0, cache.getIfPresent(number(i)).isPresent(), number(i));
+        }
+    }
+
+    @Test
+    @DisplayName("사용중 상태는 ttl 이 지나면 다시 읽고, 해지 상태는 계속 쓴다")
+    void expireInUseOnly() {
+        //given
+        AccountCache cache = new AccountCache(accountRepository, 10, 60, now::get);
+        cache.put(account(1L, number(1), 12L, AccountStatus.IN_USE));
+        cache.put(account(2L, number(2), 12L, AccountStatus.UNREGISTERED));
+        //when
+        now.addAndGet(TimeUnit.SECONDS.toNanos(61));
+        //then
+        assertTrue(cache.getIfPresent(number(1)).isEmpty());
+        assertEquals(AccountStatus.UNREGISTERED,
+                cache.getIfPresent(number(2)).orElseThrow().accountStatus());
+    }
+
+    @Test
+    @DisplayName("형식이 틀린 계좌번호는 캐시하지 않는다")
+    void skipInvalidAccountNumber() {
+        //given
+        AccountCache cache = new AccountCache(accountRepository, 10, 60, now::get);
+        //when
+        cache.put(account(1L, "7992739871", 12L, AccountStatus.IN_USE));
+        //then
+        assertEquals(0, cache.size());
+        assertTrue(cache.getIfPresent("7992739871").isEmpty());
+    }
+
+    private static String number(long body) {
+        return AccountNumbers.withCheckDigit(100_000_000L + body);
+    }
+
+    private static Account account(Long id, String accountNumber, Long userId, AccountStatus status) {
+        AccountUser accountUser = AccountUser.builder().name("pobi").build();
+        accountUser.setId(userId);
+        Account account = Account.builder()
+                .accountUser(accountUser)
+                .accountNumber(accountNumber)
+                .accountStatus(status)
+                .balance(0L)
+                .build();
+        account.setId(id);
+        return account;
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.account.service;
+
+import com.example.account.domain.AccountNumberBlock;
+import com.example.account.repository.AccountNumberBlockRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class AccountNumberAllocatorTest {
+    @Mock
+    private AccountNumberBlockRepository accountNumberBlockRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void allocateFromLeasedBlock() {
+        //given
+        AccountNumberBlock block = new AccountNumberBlock("ACCOUNT_NUMBER", 0L);
+        Set<String> leaseThreads = ConcurrentHashMap.newKeySet();
+        given(accountNumberBlockRepository.findWithLockByName(anyString())).willAnswer(invocation -> {
+            leaseThreads.add(Thread.currentThread().getName());
+            return Optional.of(block);
+        });
+        AccountNumberAllocator allocator = new AccountNumberAllocator(
+                accountNumberBlockRepository, transactionManager, 1L, 10L, 3L);
+
+        //when
+        Set<String> accountNumbers = new HashSet<>();
+        try {
+            for (int i = 0; i < 25; i++) {
+                accountNumbers.add(allocator.nextAccountNumber());
+            }
+        } finally {
+            allocator.destroy();
+        }
+
+        //then
+        assertEquals(25, accountNumbers.size());
+        accountNumbers.forEach(accountNumber -> {
+            assertEquals(10, accountNumber.length());
+            assertTrue(accountNumber.compareTo("1000000000") >= 0);
+            assertTrue(AccountNumbers.isValid(accountNumber));
+        });
+        //10개 단위로 3번 구간을 받는다 (남은 순번이 3개 이하일 때 다음 구간을 미리 받으므로 25번째에서는 받지 않는다)
+        verify(accountNumberBlockRepository, times(3)).findWithLockByName("ACCOUNT_NUMBER");
+        assertEquals(30L, block.getNextValue());
+        //구간은 호출 스레드가 아니라 리스 스레드에서만 받는다
+        assertEquals(Set.of("account-number-lease"), leaseThreads);
+    }
+}
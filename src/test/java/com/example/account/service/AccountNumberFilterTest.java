@@ -0,0 +1,75 @@
+package com.example.account.service;
+
+import com.example.account.exception.AccountException;
+import com.example.account.repository.AccountRepository;
+import com.example.account.type.ErrorCode;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class AccountNumberFilterTest {
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Test
+    @DisplayName("체크 숫자가 틀리면 DB 조회 없이 거절")
+    void rejectInvalidCheckDigit() {
+        //given
+        AccountNumberFilter filter = new AccountNumberFilter(accountRepository, 1000, 0.01, true);
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> filter.checkExists("7992739871"));
+        //then
+        assertEquals(ErrorCode.ACCOUNT_NOT_FOUND, exception.getErrorCode());
+        verify(accountRepository, never()).existsByAccountNumber(anyString());
+    }
+
+    @Test
+    @DisplayName("필터에 있는 계좌는 DB 조회 없이 통과")
+    void passKnownAccount() {
+        //given
+        AccountNumberFilter filter = new AccountNumberFilter(accountRepository, 1000, 0.01, true);
+        filter.put("7992739875");
+        //when
+        filter.checkExists("7992739875");
+        //then
+        verify(accountRepository, never()).existsByAccountNumber(anyString());
+    }
+
+    @Test
+    @DisplayName("필터에 없으면 DB 로 확인 후 필터에 추가")
+    void verifyMissAndRemember() {
+        //given
+        AccountNumberFilter filter = new AccountNumberFilter(accountRepository, 1000, 0.01, true);
+        given(accountRepository.existsByAccountNumber("7992739875")).willReturn(true);
+        //when
+        filter.checkExists("7992739875");
+        filter.checkExists("7992739875");
+        //then
+        verify(accountRepository, times(1)).existsByAccountNumber("7992739875");
+        assertTrue(filter.mightContain("7992739875"));
+    }
+
+    @Test
+    @DisplayName("verify-miss 가 꺼져 있으면 필터에 없는 계좌는 바로 거절")
+    void rejectMissWithoutVerify() {
+        //given
+        AccountNumberFilter filter = new AccountNumberFilter(accountRepository, 1000, 0.01, false);
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> filter.checkExists("7992739875"));
+        //then
+        assertEquals(ErrorCode.ACCOUNT_NOT_FOUND, exception.getErrorCode());
+        verify(accountRepository, never()).existsByAccountNumber(anyString());
+    }
+}
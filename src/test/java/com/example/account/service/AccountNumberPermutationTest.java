@@ -0,0 +1,53 @@
+package com.example.account.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountNumberPermutationTest {
+
+    private final AccountNumberPermutation permutation = new AccountNumberPermutation(20240501L);
+
+    @Test
+    void permuteIsInvertibleAndInRange() {
+        for (long value = 0; value < 100_000; value++) {
+            long permuted = permutation.permute(value);
+            assertTrue(permuted >= 0 && permuted < AccountNumberPermutation.DOMAIN);
+            assertEquals(value, permutation.inverse(permuted));
+        }
+        long last = AccountNumberPermutation.DOMAIN - 1;
+        assertEquals(last, permutation.inverse(permutation.permute(last)));
+    }
+
+    @Test
+    void consecutiveSequencesDoNotCollideOrLookSequential() {
+        Set<Long> seen = new HashSet<>();
+        int adjacent = 0;
+        long previous = permutation.permute(0);
+        seen.add(previous);
+        for (long value = 1; value < 10_000; value++) {
+            long permuted = permutation.permute(value);
+            assertTrue(seen.add(permuted));
+            if (Math.abs(permuted - previous) == 1) {
+                adjacent++;
+            }
+            previous = permuted;
+        }
+        assertTrue(adjacent < 10);
+    }
+
+    @Test
+    void differentKeyGivesDifferentNumbers() {
+        AccountNumberPermutation other = new AccountNumberPermutation(1L);
+        assertNotEquals(permutation.permute(0), other.permute(0));
+    }
+
+    @Test
+    void outOfRange() {
+        assertThrows(IllegalArgumentException.class,
+                () -> permutation.permute(AccountNumberPermutation.DOMAIN));
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.account.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountNumbersTest {
+    @Test
+    void appendLuhnCheckDigit() {
+        //given
+        //when
+        String accountNumber = AccountNumbers.withCheckDigit(799_273_987L);
+        //then
+        assertEquals("7992739875", accountNumber);
+        assertTrue(AccountNumbers.isValid(accountNumber));
+    }
+
+    @Test
+    void rejectInvalidAccountNumber() {
+        //given
+        //when
+        //then
+        assertFalse(AccountNumbers.isValid("7992739871"));
+        assertFalse(AccountNumbers.isValid("799273987"));
+        assertFalse(AccountNumbers.isValid("79927398a1"));
+        assertFalse(AccountNumbers.isValid(null));
+    }
+}
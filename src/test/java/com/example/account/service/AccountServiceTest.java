@@ -16,6 +16,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -35,6 +36,18 @@ class AccountServiceTest {
     @Mock
     private AccountUserRepository accountUserRepository;
 
+    @Mock
+    private AccountNumberAllocator accountNumberAllocator;
+
+    @Mock
+    private AccountNumberFilter accountNumberFilter;
+
+    @Mock
+    private AccountCache accountCache;
+
+    @Mock
+    private OwnedAccountLoader ownedAccountLoader;
+
     @InjectMocks
     private AccountService accountService;
 
@@ -50,6 +63,7 @@ class AccountServiceTest {
                         Optional.of(
                                 accountUser));
 
+        given(accountNumberAllocator.nextAccountNumber()).willReturn("1000000013");
         given(accountRepository.save(any())).willReturn(
                 Account.builder()
                         .accountUser(accountUser)
@@ -62,6 +76,9 @@ class AccountServiceTest {
         //then
         verify(accountRepository, times(1)).save(captor.capture());
         assertEquals(accountUser.getId(), accountDto.getUserId());
+        assertEquals("1000000013", captor.getValue().getAccountNumber());
+        verify(accountRepository, times(0)).findByAccountNumber(anyString());
+        verify(accountNumberFilter, times(1)).put("1000000013");
 
 
     }
@@ -77,6 +94,7 @@ class AccountServiceTest {
                         Optional.of(
                                 accountUser));
 
+        given(accountNumberAllocator.nextAccountNumber()).willReturn("1000000015");
         given(accountRepository.save(any())).willReturn(
                 Account.builder()
                         .accountUser(accountUser)
@@ -89,6 +107,8 @@ class AccountServiceTest {
         //then
         verify(accountRepository, times(1)).save(captor.capture());
         assertEquals(accountUser.getId(), accountDto.getUserId());
+        assertEquals("1000000015", captor.getValue().getAccountNumber());
+        verify(accountRepository, times(0)).findByAccountNumber(anyString());
 
     }
 
@@ -138,15 +158,12 @@ class AccountServiceTest {
         AccountUser accountUser = AccountUser.builder()
                 .name("pobi").build();
         accountUser.setId(12L);
-        given(accountUserRepository.findById(anyLong()))
-                .willReturn(Optional.of(accountUser));
-
-        given(accountRepository.findByAccountNumber(anyString()))
-                .willReturn(Optional.of(Account
+        given(ownedAccountLoader.load(anyLong(), anyString()))
+                .willReturn(Account
                         .builder()
                         .accountUser(accountUser)
                         .balance(0L)
-                        .accountNumber("1000000012").build()));
+                        .accountNumber("1000000012").build());
         ArgumentCaptor<Account> captor = ArgumentCaptor.forClass(Account.class);
         //when
         AccountDto accountDto = accountService.deleteAccount(12L, "1000000012");
@@ -156,7 +173,9 @@ class AccountServiceTest {
         assertEquals(12L, accountDto.getUserId());
         assertEquals("1000000012", captor.getValue().getAccountNumber());
         assertEquals(AccountStatus.UNREGISTERED, captor.getValue().getAccountStatus());
-
+        verify(accountCache).invalidateOnCommit("1000000012");
+        verify(ownedAccountLoader).load(12L, "1000000012");
+        verify(accountUserRepository, times(0)).findById(anyLong());
     }
 
     @Test
@@ -166,9 +185,8 @@ class AccountServiceTest {
         AccountUser accountUser = AccountUser.builder()
                 .name("pobi").build();
         accountUser.setId(12L);
-        given(accountUserRepository.findById(anyLong()))
-                .willReturn(
-                        Optional.empty());
+        given(ownedAccountLoader.load(anyLong(), anyString()))
+                .willThrow(new AccountException(ErrorCode.USER_NOT_FOUND));
 
         //when
         AccountException accountException = assertThrows(AccountException.class, () ->
@@ -186,11 +204,8 @@ class AccountServiceTest {
         AccountUser accountUser = AccountUser.builder()
                 .name("pobi").build();
         accountUser.setId(12L);
-        given(accountUserRepository.findById(anyLong()))
-                .willReturn(
-                        Optional.of(accountUser));
-        given(accountRepository.findByAccountNumber(any()))
-                .willReturn(Optional.empty());
+        given(ownedAccountLoader.load(anyLong(), anyString()))
+                .willThrow(new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
         //when
         AccountException accountException = assertThrows(AccountException.class, () ->
                 accountService.deleteAccount(1L, "1000000000"));
@@ -207,19 +222,8 @@ class AccountServiceTest {
         AccountUser accountUser = AccountUser.builder()
                 .name("pobi").build();
         accountUser.setId(12L);
-        AccountUser accountUser2 = AccountUser.builder()
-                .name("ppp").build();
-        accountUser2.setId(13L);
-        given(accountUserRepository.findById(anyLong()))
-                .willReturn(Optional.of(accountUser));
-
-        given(accountRepository.findByAccountNumber(anyString()))
-                .willReturn(Optional.of(Account
-                        .builder()
-                        .accountUser(accountUser2)
-                        .balance(0L)
-                        .accountNumber("1000000012").build()));
-        ArgumentCaptor<Account> captor = ArgumentCaptor.forClass(Account.class);
+        given(ownedAccountLoader.load(anyLong(), anyString()))
+                .willThrow(new AccountException(ErrorCode.USER_ACCOUNT_UN_MATCH));
         //when
         AccountException accountException = assertThrows(AccountException.class, () -> accountService.deleteAccount(12L, "1000000012"));
 
@@ -234,17 +238,13 @@ class AccountServiceTest {
         AccountUser accountUser = AccountUser.builder()
                 .name("pobi").build();
         accountUser.setId(12L);
-        given(accountUserRepository.findById(anyLong()))
+        given(ownedAccountLoader.load(anyLong(), anyString()))
                 .willReturn(
-                        Optional.of(
-                                accountUser));
-        given(accountRepository.findByAccountNumber(anyString()))
-                .willReturn(Optional.of(
                         Account.builder()
                                 .accountUser(accountUser)
                                 .accountNumber("1000000002")
                                 .balance(110L)
-                                .build()));
+                                .build());
         ArgumentCaptor<Account> captor = ArgumentCaptor.forClass(Account.class);
         //when
         AccountException accountException = assertThrows(AccountException.class, () -> accountService.deleteAccount(1L, "1000000002"));
@@ -260,17 +260,13 @@ class AccountServiceTest {
         AccountUser accountUser = AccountUser.builder()
                 .name("pobi").build();
         accountUser.setId(12L);
-        given(accountUserRepository.findById(anyLong()))
+        given(ownedAccountLoader.load(anyLong(), anyString()))
                 .willReturn(
-                        Optional.of(
-                                accountUser));
-        given(accountRepository.findByAccountNumber(anyString()))
-                .willReturn(Optional.of(
                         Account.builder()
                                 .accountUser(accountUser)
                                 .accountNumber("1000000002")
                                 .accountStatus(AccountStatus.UNREGISTERED)
-                                .build()));
+                                .build());
         ArgumentCaptor<Account> captor = ArgumentCaptor.forClass(Account.class);
         //when
         AccountException accountException = assertThrows(AccountException.class, () -> accountService.deleteAccount(1L, "1000000002"));
@@ -284,32 +280,26 @@ class AccountServiceTest {
         AccountUser accountUser = AccountUser.builder()
                 .name("pobi").build();
         accountUser.setId(12L);
-        List<Account> accounts =
+        List<AccountRepository.AccountSummaryView> accounts =
                 Arrays.asList(
-                        Account.builder()
-                                .accountUser(accountUser)
-                                .accountNumber("1000000000")
-                                .balance(1000L)
-                                .build(),
-                        Account.builder()
-                                .accountUser(accountUser)
-                                .accountNumber("1000000001")
-                                .balance(2000L)
-                                .build()
+                        summaryView("1000000000", 1000L),
+                        summaryView("1000000001", 2000L)
                 );
         given(accountUserRepository.findById(anyLong()))
                 .willReturn(
                         Optional.of(accountUser));
-        given(accountRepository.findByAccountUser(any()))
+        given(accountRepository.findSummariesByAccountUserId(anyLong()))
                 .willReturn(accounts);
         //when
         List<AccountDto> accountDtos = accountService.getAccountsByUserId(12L);
         //then
         assertEquals(accountDtos.size(),accounts.size());
         for (int i = 0; i <accounts.size(); i++) {
+            assertEquals(12L, accountDtos.get(i).getUserId());
             assertEquals(accounts.get(i).getAccountNumber(),accountDtos.get(i).getAccountNumber());
             assertEquals(accounts.get(i).getBalance(),accountDtos.get(i).getBalance());
         }
+        verify(accountRepository, times(0)).findByAccountUser(any());
 
 
     }
@@ -328,4 +318,13 @@ class AccountServiceTest {
         assertEquals(accountException.getErrorCode(),ErrorCode.USER_NOT_FOUND);
     }
 
-}
\ No newline at end of file
+
+    private static AccountRepository.AccountSummaryView summaryView(String accountNumber, Long balance) {
+        return new AccountRepository.AccountSummaryView() {
+            public String getAccountNumber() { return accountNumber; }
+            public Long getBalance() { return balance; }
+            public LocalDateTime getRegisteredAt() { return null; }
+            public LocalDateTime getUnRegisteredAt() { return null; }
+        };
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.account.service;
+
+import com.example.account.controller.TransactionController;
+import com.example.account.exception.AccountException;
+import com.example.account.type.ErrorCode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+class EndpointMetricsAspectTest {
+    @Mock
+    private ProceedingJoinPoint proceedingJoinPoint;
+
+    @Mock
+    private Signature signature;
+
+    private SimpleMeterRegistry meterRegistry;
+    private EndpointMetricsAspect endpointMetricsAspect;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        endpointMetricsAspect = new EndpointMetricsAspect(meterRegistry);
+        given(proceedingJoinPoint.getSignature()).willReturn(signature);
+        given(signature.getDeclaringType()).willReturn(TransactionController.class);
+        given(signature.getName()).willReturn("useBalance");
+    }
+
+    @Test
+    @DisplayName("성공 - error_code NONE")
+    void time_success() throws Throwable {
+        //given
+        given(proceedingJoinPoint.proceed()).willReturn("result");
+
+        //when
+        Object result = endpointMetricsAspect.time(proceedingJoinPoint);
+
+        //then
+        assertEquals("result", result);
+        assertEquals(1, count("NONE"));
+    }
+
+    @Test
+    @DisplayName("AccountException - ErrorCode 로 태그")
+    void time_accountException() throws Throwable {
+        //given
+        given(proceedingJoinPoint.proceed())
+                .willThrow(new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE));
+
+        //when
+        assertThrows(AccountException.class, () -> endpointMetricsAspect.time(proceedingJoinPoint));
+
+        //then
+        assertEquals(1, count("AMOUNT_EXCEED_BALANCE"));
+    }
+
+    @Test
+    @DisplayName("CompletableFuture - 완료될 때 기록")
+    void time_completableFuture() throws Throwable {
+        //given
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        given(proceedingJoinPoint.proceed()).willReturn(future);
+
+        //when
+        endpointMetricsAspect.time(proceedingJoinPoint);
+        long beforeComplete = count("ACCOUNT_TRANSACTION_LOCK");
+        future.completeExceptionally(new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK));
+
+        //then
+        assertEquals(0, beforeComplete);
+        assertEquals(1, count("ACCOUNT_TRANSACTION_LOCK"));
+    }
+
+    @Test
+    @DisplayName("Mono - 구독해서 끝날 때 기록, 그 외 예외는 INTERNAL_SERVER_ERROR")
+    void time_mono() throws Throwable {
+        //given
+        given(proceedingJoinPoint.proceed()).willReturn(Mono.error(new IllegalStateException()));
+
+        //when
+        Mono<?> mono = (Mono<?>) endpointMetricsAspect.time(proceedingJoinPoint);
+        assertThrows(IllegalStateException.class, mono::block);
+
+        //then
+        assertEquals(1, count("INTERNAL_SERVER_ERROR"));
+    }
+
+    private long count(String errorCode) {
+        return meterRegistry.find("account.api.requests")
+                .tag("endpoint", "TransactionController.useBalance")
+                .tag("error_code", errorCode)
+                .timers().stream()
+                .mapToLong(timer -> timer.count())
+                .sum();
+    }
+}
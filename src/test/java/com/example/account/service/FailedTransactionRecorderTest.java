@@ -0,0 +1,158 @@
+package com.example.account.service;
+
+import com.example.account.domain.Account;
+import com.example.account.domain.Transaction;
+import com.example.account.repository.AccountRepository;
+import com.example.account.repository.TransactionRepository;
+import com.example.account.type.ErrorCode;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class FailedTransactionRecorderTest {
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private TransactionIdGenerator transactionIdGenerator;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private FailedTransactionRecorder recorder;
+
+    @BeforeEach
+    void setUp() {
+        recorder = new FailedTransactionRecorder(transactionRepository, accountRepository,
+                transactionIdGenerator, transactionManager, 100, 10);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        recorder.destroy();
+    }
+
+    @Test
+    @DisplayName("조회한 계좌는 다시 조회하지 않고 실패 거래로 저장")
+    void recordWithLoadedAccount() throws Exception {
+        //given
+        Account account = Account.builder()
+                .accountNumber("1000000018")
+                .balance(3000L)
+                .build();
+        ArgumentCaptor<List<Transaction>> captor = ArgumentCaptor.forClass(List.class);
+
+        //when
+        recorder.record(TransactionType.USE, "1000000018", account, 5000L, ErrorCode.AMOUNT_EXCEED_BALANCE);
+        recorder.destroy();
+
+        //then
+        verify(transactionRepository).saveAll(captor.capture());
+        Transaction transaction = captor.getValue().get(0);
+        assertEquals(TransactionResultType.F, transaction.getTransactionResultType());
+        assertEquals(3000L, transaction.getBalanceSnapshot());
+        assertSame(account, transaction.getAccount());
+        verify(accountRepository, never()).findByAccountNumberIn(anySet());
+        assertEquals(1L, recorder.failureCount(ErrorCode.AMOUNT_EXCEED_BALANCE));
+    }
+
+    @Test
+    @DisplayName("계좌 조회 전 실패는 계좌번호로 한번에 조회, 없는 계좌는 남기지 않는다")
+    void recordWithoutLoadedAccount() throws Exception {
+        //given
+        Account account = Account.builder()
+                .accountNumber("1000000018")
+                .balance(3000L)
+                .build();
+        given(accountRepository.findByAccountNumberIn(anySet()))
+                .willReturn(List.of(account));
+        ArgumentCaptor<List<Transaction>> captor = ArgumentCaptor.forClass(List.class);
+
+        //when
+        recorder.record(TransactionType.USE, "1000000018", null, 5000L, ErrorCode.USER_NOT_FOUND);
+        recorder.record(TransactionType.CANCEL, "1000000026", null, 5000L, ErrorCode.ACCOUNT_NOT_FOUND);
+        recorder.destroy();
+
+        //then
+        verify(transactionRepository, atLeastOnce()).saveAll(captor.capture());
+        assertEquals(1, captor.getAllValues().stream().mapToInt(List::size).sum());
+        assertEquals(1L, recorder.failureCount(ErrorCode.USER_NOT_FOUND));
+        assertEquals(1L, recorder.failureCount(ErrorCode.ACCOUNT_NOT_FOUND));
+    }
+
+    @Test
+    @DisplayName("큐가 가득 차면 요청 스레드에서 저장하지 않고 버린 건수를 센다")
+    void dropWhenQueueFull() throws Exception {
+        //given
+        FailedTransactionRecorder small = new FailedTransactionRecorder(transactionRepository, accountRepository,
+                transactionIdGenerator, transactionManager, 1, 10);
+        Account account = Account.builder()
+                .accountNumber("1000000018")
+                .balance(3000L)
+                .build();
+        CountDownLatch release = new CountDownLatch(1);
+        given(transactionRepository.saveAll(anyList())).willAnswer(invocation -> {
+            release.await();
+            return invocation.getArgument(0);
+        });
+
+        try {
+            //when
+            assertTimeoutPreemptively(Duration.ofSeconds(1), () -> {
+                for (int i = 0; i < 3; i++) {
+                    small.record(TransactionType.USE, "1000000018", account, 5000L, ErrorCode.AMOUNT_EXCEED_BALANCE);
+                }
+            });
+
+            //then
+            assertTrue(small.droppedCount() >= 1);
+            assertEquals(3L, small.failureCount(ErrorCode.AMOUNT_EXCEED_BALANCE));
+        } finally {
+            release.countDown();
+            small.destroy();
+        }
+    }
+
+    @Test
+    @DisplayName("저장에 실패한 배치도 버린 건수로 센다")
+    void countDroppedOnWriteFailure() throws Exception {
+        //given
+        Account account = Account.builder()
+                .accountNumber("1000000018")
+                .balance(3000L)
+                .build();
+        given(transactionRepository.saveAll(anyList()))
+                .willThrow(new IllegalStateException("db down"));
+
+        //when
+        recorder.record(TransactionType.USE, "1000000018", account, 5000L, ErrorCode.AMOUNT_EXCEED_BALANCE);
+        recorder.destroy();
+
+        //then
+        assertEquals(1L, recorder.droppedCount());
+    }
+}
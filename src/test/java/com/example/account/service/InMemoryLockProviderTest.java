@@ -0,0 +1,195 @@
+package com.example.account.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryLockProviderTest {
+
+    private final InMemoryLockProvider lockProvider = new InMemoryLockProvider();
+
+    @AfterEach
+    void tearDown() {
+        lockProvider.destroy();
+    }
+
+    @Test
+    void lockAndUnlock() throws Exception {
+        //when
+        boolean isLock = lockProvider.tryLock("ACLK:1", 100, 15_000, TimeUnit.MILLISECONDS);
+        lockProvider.unlock("ACLK:1");
+
+        //then
+        assertTrue(isLock);
+        assertEquals(0, lockProvider.size());
+    }
+
+    @Test
+    @DisplayName("다른 스레드가 잡고 있으면 대기시간 후 실패, 키는 정리")
+    void failGetLock_heldByOtherThread() throws Exception {
+        //given
+        assertTrue(tryLockOnOtherThread("ACLK:1", 15_000));
+
+        //when
+        boolean isLock = lockProvider.tryLock("ACLK:1", 50, 15_000, TimeUnit.MILLISECONDS);
+
+        //then
+        assertFalse(isLock);
+        assertEquals(1, lockProvider.size());
+    }
+
+    @Test
+    @DisplayName("여러 키 - 하나라도 실패하면 앞에서 잡은 키를 푼다")
+    void failGetLockAll_releaseAcquired() throws Exception {
+        //given
+        assertTrue(tryLockOnOtherThread("ACLK:2", 15_000));
+
+        //when
+        boolean isLock = lockProvider.tryLockAll(List.of("ACLK:1", "ACLK:2"), 50, 15_000, TimeUnit.MILLISECONDS);
+
+        //then
+        assertFalse(isLock);
+        assertEquals(1, lockProvider.size());
+        assertTrue(tryLockOnOtherThread("ACLK:1", 15_000));
+    }
+
+    @Test
+    @DisplayName("해제되면 대기 중인 스레드가 락을 가져간다")
+    void waiterGetsLockAfterUnlock() throws Exception {
+        //given
+        assertTrue(lockProvider.tryLock("ACLK:1", 0, 15_000, TimeUnit.MILLISECONDS));
+        CompletableFuture<Boolean> waiter = CompletableFuture.supplyAsync(() -> {
+            try {
+                boolean isLock = lockProvider.tryLock("ACLK:1", 5, 15, TimeUnit.SECONDS);
+                lockProvider.unlock("ACLK:1");
+                return isLock;
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        //when
+        Thread.sleep(50);
+        lockProvider.unlock("ACLK:1");
+
+        //then
+        assertTrue(waiter.get(5, TimeUnit.SECONDS));
+        assertEquals(0, lockProvider.size());
+    }
+
+    @Test
+    @DisplayName("리스가 만료된 락은 다음 경쟁자가 가져간다")
+    void takeOverExpiredLease() throws Exception {
+        //given
+        assertTrue(tryLockOnOtherThread("ACLK:1", 10));
+        Thread.sleep(20);
+
+        //when
+        boolean isLock = lockProvider.tryLock("ACLK:1", 0, 15_000, TimeUnit.MILLISECONDS);
+        lockProvider.unlock("ACLK:1");
+
+        //then
+        assertTrue(isLock);
+        assertEquals(0, lockProvider.size());
+    }
+
+    @Test
+    void asyncLockWaitsForUnlock() throws Exception {
+        //given
+        assertTrue(lockProvider.tryLock("ACLK:1", 0, 15_000, TimeUnit.MILLISECONDS));
+
+        //when
+        CompletableFuture<Boolean> asyncLock =
+                lockProvider.tryLockAsync("ACLK:1", 5, 15, TimeUnit.SECONDS, 77L);
+        assertFalse(asyncLock.isDone());
+        lockProvider.unlock("ACLK:1");
+
+        //then
+        assertTrue(asyncLock.get(1, TimeUnit.SECONDS));
+        lockProvider.unlockAsync("ACLK:1", 77L);
+        assertEquals(0, lockProvider.size());
+    }
+
+    @Test
+    void asyncLockTimeout() throws Exception {
+        //given
+        assertTrue(tryLockOnOtherThread("ACLK:1", 15_000));
+
+        //when
+        CompletableFuture<Boolean> asyncLock =
+                lockProvider.tryLockAsync("ACLK:1", 50, 15_000, TimeUnit.MILLISECONDS, 77L);
+
+        //then
+        assertFalse(asyncLock.get(1, TimeUnit.SECONDS));
+        assertEquals(1, lockProvider.size());
+    }
+
+    @Test
+    @DisplayName("짧은 리스로 여러 스레드가 경쟁해도 락을 가진 스레드는 한번에 하나")
+    void singleHolderUnderContention() throws Exception {
+        //given
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger holders = new AtomicInteger();
+        AtomicInteger maxHolders = new AtomicInteger();
+        AtomicInteger acquired = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+
+        //when
+        for (int i = 0; i < threads; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int j = 0; j < 100; j++) {
+                    if (lockProvider.tryLock("ACLK:1", 10, 20, TimeUnit.MILLISECONDS)) {
+                        acquired.incrementAndGet();
+                        maxHolders.accumulateAndGet(holders.incrementAndGet(), Math::max);
+                        holders.decrementAndGet();
+                        lockProvider.unlock("ACLK:1");
+                    }
+                    //락이 리스보다 오래 비어서 지난 만료 시각이 지나간 상태에서도 경쟁한다
+                    if (ThreadLocalRandom.current().nextInt(4) == 0) {
+                        Thread.sleep(25);
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        try {
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        //then
+        assertEquals(1, maxHolders.get());
+        assertTrue(acquired.get() > 0);
+        assertEquals(0, lockProvider.size());
+    }
+
+    private boolean tryLockOnOtherThread(String key, long leaseMillis) throws Exception {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return lockProvider.tryLock(key, 0, leaseMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        }).get();
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.account.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalLockTierTest {
+
+    private final LocalLockTier localLockTier = new LocalLockTier(true, 16);
+
+    @Test
+    @DisplayName("여러 계좌 - 같은 stripe 의 계좌는 한번만 잡고 한번에 푼다")
+    void lockAll_sameStripeOnce() throws Exception {
+        //given
+        List<String> sameStripe = keysOnStripe(localLockTier.stripeIndex("ACLK:1000000000"), 2);
+
+        //when
+        boolean isLock = localLockTier.tryLockAll(sameStripe, 0, TimeUnit.MILLISECONDS);
+        localLockTier.unlockAll(sameStripe);
+
+        //then
+        assertTrue(isLock);
+        assertTrue(tryLockOnOtherThread(sameStripe.get(0)));
+    }
+
+    @Test
+    @DisplayName("여러 계좌 - 계좌번호 순서로는 stripe 가 엇갈리는 두 쌍도 동시에 잡는다")
+    void lockAll_crossedStripes() throws Exception {
+        //given
+        //A < B, C < D 인데 A 와 D, B 와 C 가 같은 stripe (계좌번호 순서로 잡으면 stripe 를 엇갈려 잡는다)
+        List<String> keys = accountKeys();
+        String a = keys.get(0);
+        String b = keys.stream()
+                .filter(key -> localLockTier.stripeIndex(key) != localLockTier.stripeIndex(a))
+                .findFirst().orElseThrow();
+        String c = keys.stream()
+                .filter(key -> !key.equals(b) && localLockTier.stripeIndex(key) == localLockTier.stripeIndex(b))
+                .findFirst().orElseThrow();
+        String d = keys.stream()
+                .filter(key -> key.compareTo(c) > 0 && !key.equals(a) && !key.equals(b)
+                        && localLockTier.stripeIndex(key) == localLockTier.stripeIndex(a))
+                .findFirst().orElseThrow();
+        Queue<String> failures = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+
+        //when
+        CompletableFuture<Void> first = lockRepeatedly(List.of(a, b), start, failures);
+        CompletableFuture<Void> second = lockRepeatedly(List.of(c, d), start, failures);
+        start.countDown();
+        CompletableFuture.allOf(first, second).get(30, TimeUnit.SECONDS);
+
+        //then
+        assertTrue(failures.isEmpty(), () -> "lock failures : " + failures);
+        assertTrue(tryLockOnOtherThread(a));
+        assertTrue(tryLockOnOtherThread(c));
+    }
+
+    @Test
+    @DisplayName("여러 계좌 - 하나라도 실패하면 잡은 stripe 를 푼다")
+    void lockAll_releaseAcquiredOnFailure() throws Exception {
+        //given
+        List<String> keys = accountKeys();
+        String held = keys.get(1);
+        //held 보다 앞 stripe 라서 먼저 잡힌 뒤 풀려야 한다
+        String other = keys.stream()
+                .filter(key -> localLockTier.stripeIndex(key) < localLockTier.stripeIndex(held))
+                .findFirst().orElseThrow();
+        assertTrue(tryLockOnOtherThread(held));
+
+        //when
+        boolean isLock = localLockTier.tryLockAll(List.of(other, held), 50, TimeUnit.MILLISECONDS);
+
+        //then
+        assertFalse(isLock);
+        assertTrue(tryLockOnOtherThread(other));
+    }
+
+    private CompletableFuture<Void> lockRepeatedly(List<String> keys, CountDownLatch start, Queue<String> failures) {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                start.await();
+                for (int i = 0; i < 200; i++) {
+                    if (!localLockTier.tryLockAll(keys, 200, TimeUnit.MILLISECONDS)) {
+                        failures.add(keys.toString());
+                        continue;
+                    }
+                    Thread.yield();
+                    localLockTier.unlockAll(keys);
+                }
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    private List<String> accountKeys() {
+        return IntStream.range(0, 200)
+                .mapToObj(i -> LockService.getLockKey(String.valueOf(1_000_000_000L + i)))
+                .toList();
+    }
+
+    private List<String> keysOnStripe(int stripe, int count) {
+        return accountKeys().stream()
+                .filter(key -> localLockTier.stripeIndex(key) == stripe)
+                .limit(count)
+                .toList();
+    }
+
+    //다른 스레드에서 JVM 락을 잡아본다 (잡으면 그대로 들고 있는다)
+    private boolean tryLockOnOtherThread(String key) throws Exception {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return localLockTier.tryLock(key, 0, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        }).get();
+    }
+}
@@ -1,19 +1,31 @@
 package com.example.account.service;
 
 import com.example.account.dto.UseBalance;
+import com.example.account.dto.UseBalanceBatch;
 import com.example.account.exception.AccountException;
 import com.example.account.type.ErrorCode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.BDDMockito;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -22,9 +34,17 @@ class LockAopAspectTest {
     @Mock
     private LockService lockService;
 
+    @Mock
+    private AccountNumberFilter accountNumberFilter;
+
     @Mock
     private ProceedingJoinPoint proceedingJoinPoint;
 
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private LockMetrics lockMetrics = new LockMetrics(meterRegistry);
+
     @InjectMocks
     private LockAopAspect lockAopAspect;
 
@@ -45,6 +65,7 @@ class LockAopAspectTest {
         verify(lockService, times(1)).unLock(unLockArgumentCaptor.capture());
         assertEquals("1234",lockArgumentCaptor.getValue());
         assertEquals("1234",unLockArgumentCaptor.getValue());
+        assertEquals(1, meterRegistry.get("account.lock.hold").tag("mode", "sync").timer().count());
     }
 
     @Test
@@ -70,4 +91,98 @@ class LockAopAspectTest {
         assertEquals("1234",unLockArgumentCaptor.getValue());
     }
 
-}
\ No newline at end of file
+    @Test
+    void lockAndUnlockAsync() throws Throwable {
+        //given
+        LockAopAspect asyncAspect = new LockAopAspect(lockService, Runnable::run, accountNumberFilter, lockMetrics);
+        MethodSignature signature = BDDMockito.mock(MethodSignature.class);
+        UseBalance.Request request = new UseBalance.Request(123L, "1234", 1234L);
+        BDDMockito.given(proceedingJoinPoint.getSignature()).willReturn(signature);
+        BDDMockito.given(signature.getReturnType()).willReturn(CompletableFuture.class);
+        BDDMockito.given(lockService.lockAsync(anyString()))
+                .willReturn(CompletableFuture.completedFuture(77L));
+        BDDMockito.given(proceedingJoinPoint.proceed())
+                .willReturn(CompletableFuture.completedFuture("result"));
+
+        //when
+        Object result = ((CompletableFuture<?>) asyncAspect.aroundMethod(proceedingJoinPoint, request)).join();
+
+        //then
+        assertEquals("result", result);
+        verify(lockService, never()).lock(anyString());
+        verify(lockService, times(1)).unLockAsync(eq("1234"), eq(77L));
+        assertEquals(1, meterRegistry.get("account.lock.hold").tag("mode", "async").timer().count());
+    }
+
+    @Test
+    void lockAndUnlockAsync_evenIfThrow() throws Throwable {
+        //given
+        LockAopAspect asyncAspect = new LockAopAspect(lockService, Runnable::run, accountNumberFilter, lockMetrics);
+        MethodSignature signature = BDDMockito.mock(MethodSignature.class);
+        UseBalance.Request request = new UseBalance.Request(123L, "1234", 1234L);
+        BDDMockito.given(proceedingJoinPoint.getSignature()).willReturn(signature);
+        BDDMockito.given(signature.getReturnType()).willReturn(CompletableFuture.class);
+        BDDMockito.given(lockService.lockAsync(anyString()))
+                .willReturn(CompletableFuture.completedFuture(77L));
+        BDDMockito.given(proceedingJoinPoint.proceed())
+                .willThrow(new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+
+        //when
+        CompletableFuture<?> future =
+                (CompletableFuture<?>) asyncAspect.aroundMethod(proceedingJoinPoint, request);
+
+        //then
+        CompletionException exception = assertThrows(CompletionException.class, future::join);
+        assertInstanceOf(AccountException.class, exception.getCause());
+        verify(lockService, times(1)).unLockAsync(eq("1234"), eq(77L));
+    }
+
+    @Test
+    void skipLock_optimisticMode() throws Throwable {
+        //given
+        ReflectionTestUtils.setField(lockAopAspect, "concurrencyMode", "optimistic");
+        UseBalance.Request request = new UseBalance.Request(123L, "1234", 1234L);
+        //when
+        lockAopAspect.aroundMethod(proceedingJoinPoint, request);
+        //then
+        verify(proceedingJoinPoint, times(1)).proceed();
+        verify(lockService, never()).lock(anyString());
+        verify(lockService, never()).unLock(anyString());
+    }
+
+
+    @Test
+    void rejectUnknownAccountBeforeLock() throws Throwable {
+        //given
+        UseBalance.Request request = new UseBalance.Request(123L, "1234", 1234L);
+        BDDMockito.willThrow(new AccountException(ErrorCode.ACCOUNT_NOT_FOUND))
+                .given(accountNumberFilter).checkExists("1234");
+
+        //when
+        AccountException exception = assertThrows(AccountException.class, () ->
+                lockAopAspect.aroundMethod(proceedingJoinPoint, request));
+
+        //then
+        assertEquals(ErrorCode.ACCOUNT_NOT_FOUND, exception.getErrorCode());
+        verify(lockService, never()).lock(anyString());
+        verify(proceedingJoinPoint, never()).proceed();
+    }
+
+    @Test
+    void lockAll_skipUnknownAccount() throws Throwable {
+        //given
+        UseBalanceBatch.Request request = new UseBalanceBatch.Request(List.of(
+                new UseBalance.Request(1L, "1000000018", 100L),
+                new UseBalance.Request(1L, "1234567890", 100L)));
+        BDDMockito.given(accountNumberFilter.exists("1000000018")).willReturn(true);
+        BDDMockito.given(accountNumberFilter.exists("1234567890")).willReturn(false);
+        BDDMockito.given(lockService.lockAll(List.of("1000000018"))).willReturn(List.of("1000000018"));
+
+        //when
+        lockAopAspect.aroundBatchMethod(proceedingJoinPoint, request);
+
+        //then
+        verify(proceedingJoinPoint, times(1)).proceed();
+        verify(lockService, times(1)).unLockAll(List.of("1000000018"));
+    }
+}
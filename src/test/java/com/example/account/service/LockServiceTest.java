@@ -2,27 +2,35 @@ package com.example.account.service;
 
 import com.example.account.exception.AccountException;
 import com.example.account.type.ErrorCode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.redisson.api.RLock;
-import org.redisson.api.RedissonClient;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
 class LockServiceTest {
 
     @Mock
-    private RedissonClient redissonClient;
+    private LockProvider lockProvider;
 
-    @Mock
-    private RLock rLock;
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private LockMetrics lockMetrics = new LockMetrics(meterRegistry);
 
     @InjectMocks
     private LockService lockService;
@@ -30,26 +38,119 @@ class LockServiceTest {
     @Test
     void successGetLock () throws InterruptedException {
         //given
-        given(redissonClient.getLock(anyString()))
-                .willReturn(rLock);
-        given(rLock.tryLock(anyLong(),anyLong(),any())).willReturn(true);
+        given(lockProvider.tryLock(anyString(),anyLong(),anyLong(),any())).willReturn(true);
         //when
-        ;
         assertDoesNotThrow(()->lockService.lock("123"));
         //then
+        verify(lockProvider).tryLock(eq("ACLK:123"),anyLong(),anyLong(),any());
+        assertEquals(1, acquireCount("sync", "acquired"));
     }
     @Test
     void failGetLock () throws InterruptedException {
         //given
-        given(redissonClient.getLock(anyString()))
-                .willReturn(rLock);
-        given(rLock.tryLock(anyLong(),anyLong(),any())).willReturn(false);
+        given(lockProvider.tryLock(anyString(),anyLong(),anyLong(),any())).willReturn(false);
         //when
-        ;
         AccountException accountException = assertThrows(AccountException.class,
                 () -> lockService.lock("123"));
         //then
         assertEquals(accountException.getErrorCode(), ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+        assertEquals(1, acquireCount("sync", "timeout"));
+        assertEquals(0, acquireCount("sync", "acquired"));
+    }
+
+    @Test
+    void unLock () {
+        //when
+        lockService.unLock("123");
+        //then
+        verify(lockProvider).unlock("ACLK:123");
+    }
+
+    @Test
+    void successGetLockAsync () {
+        //given
+        given(lockProvider.tryLockAsync(anyString(),anyLong(),anyLong(),any(),anyLong()))
+                .willReturn(CompletableFuture.completedFuture(true));
+        //when
+        Long lockOwnerId = lockService.lockAsync("123").join();
+        //then
+        assertNotNull(lockOwnerId);
+        verify(lockProvider).tryLockAsync(eq("ACLK:123"),anyLong(),anyLong(),any(),eq(lockOwnerId.longValue()));
+    }
+
+    @Test
+    void failGetLockAsync () {
+        //given
+        given(lockProvider.tryLockAsync(anyString(),anyLong(),anyLong(),any(),anyLong()))
+                .willReturn(CompletableFuture.completedFuture(false));
+        //when
+        CompletionException exception = assertThrows(CompletionException.class,
+                () -> lockService.lockAsync("123").join());
+        //then
+        assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK,
+                ((AccountException) exception.getCause()).getErrorCode());
+    }
+
+    @Test
+    void lockAllInAccountNumberOrder() throws InterruptedException {
+        //given
+        given(lockProvider.tryLockAll(anyList(),anyLong(),anyLong(),any())).willReturn(true);
+        //when
+        List<String> locked = lockService.lockAll(List.of("300", "100", "200", "100"));
+        //then
+        assertEquals(List.of("100", "200", "300"), locked);
+        verify(lockProvider).tryLockAll(eq(List.of("ACLK:100", "ACLK:200", "ACLK:300")),anyLong(),anyLong(),any());
+        assertEquals(1, acquireCount("batch", "acquired"));
     }
 
-}
\ No newline at end of file
+    @Test
+    void lockAll_failGetLock() throws InterruptedException {
+        //given
+        given(lockProvider.tryLockAll(anyList(),anyLong(),anyLong(),any())).willReturn(false);
+        //when
+        AccountException accountException = assertThrows(AccountException.class,
+                () -> lockService.lockAll(List.of("200", "100", "300")));
+        //then
+        assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK, accountException.getErrorCode());
+        assertEquals(1, acquireCount("batch", "timeout"));
+    }
+
+    @Test
+    void unLockAll() {
+        //given
+        willThrow(new IllegalStateException("redis down")).given(lockProvider).unlockAll(anyList());
+        //when
+        assertDoesNotThrow(() -> lockService.unLockAll(List.of("100", "200")));
+        //then
+        verify(lockProvider).unlockAll(List.of("ACLK:100", "ACLK:200"));
+    }
+
+    @Test
+    void lockError_recordedAsError() throws InterruptedException {
+        //given
+        given(lockProvider.tryLock(anyString(),anyLong(),anyLong(),any()))
+                .willThrow(new IllegalStateException("redis down"));
+        //when
+        lockService.lock("123");
+        //then
+        assertEquals(1, acquireCount("sync", "error"));
+    }
+
+    @Test
+    void failGetLockAsync_recordedAsTimeout() {
+        //given
+        given(lockProvider.tryLockAsync(anyString(),anyLong(),anyLong(),any(),anyLong()))
+                .willReturn(CompletableFuture.completedFuture(false));
+        //when
+        assertThrows(CompletionException.class, () -> lockService.lockAsync("123").join());
+        //then
+        assertEquals(1, acquireCount("async", "timeout"));
+    }
+
+    private long acquireCount(String mode, String result) {
+        return meterRegistry.get("account.lock.acquire")
+                .tag("mode", mode)
+                .tag("result", result)
+                .timer().count();
+    }
+}
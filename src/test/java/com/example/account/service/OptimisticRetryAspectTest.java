@@ -0,0 +1,66 @@
+package com.example.account.service;
+
+import com.example.account.exception.AccountException;
+import com.example.account.type.ErrorCode;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class OptimisticRetryAspectTest {
+    @Mock
+    private ProceedingJoinPoint proceedingJoinPoint;
+
+    @InjectMocks
+    private OptimisticRetryAspect optimisticRetryAspect;
+
+    @Test
+    void retryUntilSuccess() throws Throwable {
+        //given
+        given(proceedingJoinPoint.proceed())
+                .willThrow(new ObjectOptimisticLockingFailureException("Account", 1L))
+                .willThrow(new ObjectOptimisticLockingFailureException("Account", 1L))
+                .willReturn("result");
+        //when
+        Object result = optimisticRetryAspect.retry(proceedingJoinPoint);
+        //then
+        assertEquals("result", result);
+        verify(proceedingJoinPoint, times(3)).proceed();
+    }
+
+    @Test
+    void retryExhausted() throws Throwable {
+        //given
+        given(proceedingJoinPoint.proceed())
+                .willThrow(new ObjectOptimisticLockingFailureException("Account", 1L));
+        //when
+        AccountException accountException = assertThrows(AccountException.class,
+                () -> optimisticRetryAspect.retry(proceedingJoinPoint));
+        //then
+        assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK, accountException.getErrorCode());
+        verify(proceedingJoinPoint, times(5)).proceed();
+    }
+
+    @Test
+    void doNotRetryAccountException() throws Throwable {
+        //given
+        given(proceedingJoinPoint.proceed())
+                .willThrow(new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE));
+        //when
+        AccountException accountException = assertThrows(AccountException.class,
+                () -> optimisticRetryAspect.retry(proceedingJoinPoint));
+        //then
+        assertEquals(ErrorCode.AMOUNT_EXCEED_BALANCE, accountException.getErrorCode());
+        verify(proceedingJoinPoint, times(1)).proceed();
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.account.service;
+
+import com.example.account.domain.Account;
+import com.example.account.domain.AccountUser;
+import com.example.account.exception.AccountException;
+import com.example.account.repository.AccountRepository;
+import com.example.account.type.ErrorCode;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class OwnedAccountLoaderTest {
+    @Mock
+    private AccountRepository accountRepository;
+
+    @InjectMocks
+    private OwnedAccountLoader ownedAccountLoader;
+
+    @Test
+    @DisplayName("소유주 조건으로 찾으면 원인 조회 없이 돌려준다")
+    void load() {
+        //given
+        AccountUser accountUser = AccountUser.builder()
+                .name("pobi").build();
+        accountUser.setId(12L);
+        Account account = Account.builder()
+                .accountUser(accountUser)
+                .accountNumber("1000000012").build();
+        given(accountRepository.findOwnedAccount(12L, "1000000012"))
+                .willReturn(Optional.of(account));
+
+        //when
+        Account loaded = ownedAccountLoader.load(12L, "1000000012");
+
+        //then
+        assertSame(account, loaded);
+        verify(accountRepository, times(0)).findOwnership(anyLong(), anyString());
+    }
+
+    @Test
+    @DisplayName("유저 없음")
+    void load_UserNotFound() {
+        //given
+        given(accountRepository.findOwnedAccount(anyLong(), anyString()))
+                .willReturn(Optional.empty());
+        given(accountRepository.findOwnership(anyLong(), anyString()))
+                .willReturn(Optional.empty());
+
+        //when
+        AccountException accountException = assertThrows(AccountException.class,
+                () -> ownedAccountLoader.load(12L, "1000000012"));
+
+        //then
+        assertEquals(ErrorCode.USER_NOT_FOUND, accountException.getErrorCode());
+    }
+
+    @Test
+    @DisplayName("계좌 없음")
+    void load_AccountNotFound() {
+        //given
+        given(accountRepository.findOwnedAccount(anyLong(), anyString()))
+                .willReturn(Optional.empty());
+        given(accountRepository.findOwnership(anyLong(), anyString()))
+                .willReturn(Optional.of(ownership(12L, null)));
+
+        //when
+        AccountException accountException = assertThrows(AccountException.class,
+                () -> ownedAccountLoader.load(12L, "1000000012"));
+
+        //then
+        assertEquals(ErrorCode.ACCOUNT_NOT_FOUND, accountException.getErrorCode());
+    }
+
+    @Test
+    @DisplayName("계좌 소유주 다름")
+    void load_userUnMatch() {
+        //given
+        given(accountRepository.findOwnedAccount(anyLong(), anyString()))
+                .willReturn(Optional.empty());
+        given(accountRepository.findOwnership(anyLong(), anyString()))
+                .willReturn(Optional.of(ownership(12L, 13L)));
+
+        //when
+        AccountException accountException = assertThrows(AccountException.class,
+                () -> ownedAccountLoader.load(12L, "1000000012"));
+
+        //then
+        assertEquals(ErrorCode.USER_ACCOUNT_UN_MATCH, accountException.getErrorCode());
+    }
+
+    private static AccountRepository.OwnershipView ownership(Long userId, Long ownerId) {
+        return new AccountRepository.OwnershipView() {
+            public Long getUserId() { return userId; }
+            public Long getOwnerId() { return ownerId; }
+        };
+    }
+}
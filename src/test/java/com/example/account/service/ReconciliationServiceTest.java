@@ -0,0 +1,150 @@
+package com.example.account.service;
+
+import com.example.account.dto.Reconciliation;
+import com.example.account.repository.AccountRepository;
+import com.example.account.repository.TransactionRepository;
+import com.example.account.type.DiscrepancyType;
+import com.example.account.type.TransactionType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+class ReconciliationServiceTest {
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ReconciliationService reconciliationService;
+
+    @BeforeEach
+    void setUp() {
+        reconciliationService = new ReconciliationService(
+                accountRepository, transactionRepository, transactionManager, 2, 100, 1, 100);
+    }
+
+    @Test
+    @DisplayName("스냅샷이 이어지고 마지막 스냅샷이 잔액과 같으면 불일치 없음")
+    void verifyConsistentChain() {
+        //given
+        given(transactionRepository.streamBalanceChains(anyCollection()))
+                .willReturn(Stream.of(
+                        row(1L, 1L, TransactionType.USE, 1000L, 9000L),
+                        row(1L, 2L, TransactionType.CANCEL, 1000L, 10000L),
+                        row(1L, 3L, TransactionType.TRANSFER_OUT, 500L, 9500L),
+                        row(2L, 4L, TransactionType.TRANSFER_IN, 500L, 500L)));
+        //when
+        ReconciliationService.Partial partial = reconciliationService.verifyChunk(List.of(
+                account(1L, "1000000012", 9500L),
+                account(2L, "1000000020", 500L),
+                account(3L, "1000000038", 0L)));
+        //then
+        assertEquals(3, partial.accounts);
+        assertEquals(4, partial.transactions);
+        assertTrue(partial.discrepancies.isEmpty());
+    }
+
+    @Test
+    @DisplayName("스냅샷이 끊긴 거래와 잔액이 다른 계좌를 찾는다")
+    void findDiscrepancies() {
+        //given
+        given(transactionRepository.streamBalanceChains(anyCollection()))
+                .willReturn(Stream.of(
+                        row(1L, 1L, TransactionType.USE, 1000L, 9000L),
+                        row(1L, 2L, TransactionType.USE, 1000L, 7000L),
+                        row(2L, 3L, TransactionType.USE, 100L, 900L)));
+        //when
+        ReconciliationService.Partial partial = reconciliationService.verifyChunk(List.of(
+                account(1L, "1000000012", 7000L),
+                account(2L, "1000000020", 1000L)));
+        //then
+        assertEquals(2, partial.discrepancies.size());
+        Reconciliation.Discrepancy chainBreak = partial.discrepancies.get(0);
+        assertEquals(DiscrepancyType.CHAIN_BREAK, chainBreak.getType());
+        assertEquals("1000000012", chainBreak.getAccountNumber());
+        assertEquals("0000000000000002", chainBreak.getTransactionId());
+        assertEquals(8000L, chainBreak.getExpected());
+        assertEquals(7000L, chainBreak.getActual());
+        Reconciliation.Discrepancy mismatch = partial.discrepancies.get(1);
+        assertEquals(DiscrepancyType.BALANCE_MISMATCH, mismatch.getType());
+        assertEquals("1000000020", mismatch.getAccountNumber());
+        assertEquals(900L, mismatch.getExpected());
+        assertEquals(1000L, mismatch.getActual());
+    }
+
+    @Test
+    @DisplayName("전체 대사 - 페이지를 나눠 병렬로 확인하고 진행 상태를 남긴다")
+    void reconcileAllAccounts() {
+        //given
+        given(accountRepository.count()).willReturn(3L);
+        given(accountRepository.findBalancesAfter(eq(0L), any()))
+                .willReturn(List.of(
+                        account(1L, "1000000012", 9000L),
+                        account(2L, "1000000020", 500L),
+                        account(3L, "1000000038", 0L)));
+        given(accountRepository.findBalancesAfter(eq(3L), any()))
+                .willReturn(List.of());
+        given(transactionRepository.streamBalanceChains(anyCollection()))
+                .willAnswer(invocation -> {
+                    Long accountId = ((Collection<Long>) invocation.getArgument(0)).iterator().next();
+                    return accountId == 1L
+                            ? Stream.of(row(1L, 1L, TransactionType.USE, 1000L, 9000L))
+                            : Stream.empty();
+                });
+        //when
+        Reconciliation.Report report = reconciliationService.reconcile();
+        //then
+        assertEquals(3, report.getAccountsChecked());
+        assertEquals(1, report.getTransactionsChecked());
+        assertEquals(0, report.getDiscrepancyCount());
+        assertEquals(3, reconciliationService.status().getAccountsChecked());
+        assertSame(report, reconciliationService.status().getLastReport());
+    }
+
+    @Test
+    @DisplayName("거래 종류별 잔액 변화")
+    void balanceDelta() {
+        assertEquals(-100L, ReconciliationService.balanceDelta(TransactionType.USE, 100L));
+        assertEquals(-100L, ReconciliationService.balanceDelta(TransactionType.TRANSFER_OUT, 100L));
+        assertEquals(100L, ReconciliationService.balanceDelta(TransactionType.CANCEL, 100L));
+        assertEquals(100L, ReconciliationService.balanceDelta(TransactionType.TRANSFER_IN, 100L));
+    }
+
+    private static AccountRepository.AccountBalanceView account(Long id, String accountNumber, Long balance) {
+        return new AccountRepository.AccountBalanceView() {
+            public Long getId() { return id; }
+            public String getAccountNumber() { return accountNumber; }
+            public Long getBalance() { return balance; }
+        };
+    }
+
+    private static TransactionRepository.BalanceChainView row(Long accountId, Long transactionId, TransactionType type,
+                                                             Long amount, Long balanceSnapshot) {
+        return new TransactionRepository.BalanceChainView() {
+            public Long getAccountId() { return accountId; }
+            public Long getTransactionId() { return transactionId; }
+            public TransactionType getTransactionType() { return type; }
+            public Long getAmount() { return amount; }
+            public Long getBalanceSnapshot() { return balanceSnapshot; }
+        };
+    }
+}
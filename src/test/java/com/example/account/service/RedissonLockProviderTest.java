@@ -0,0 +1,159 @@
+package com.example.account.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.redisson.misc.CompletableFutureWrapper;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class RedissonLockProviderTest {
+
+    @Mock
+    private RedissonClient redissonClient;
+
+    @Mock
+    private RLock rLock;
+
+    @Spy
+    private LocalLockTier localLockTier = new LocalLockTier(true, 16);
+
+    @InjectMocks
+    private RedissonLockProvider redissonLockProvider;
+
+    @Test
+    void successGetLock () throws InterruptedException {
+        //given
+        given(redissonClient.getLock(anyString()))
+                .willReturn(rLock);
+        given(rLock.tryLock(anyLong(),anyLong(),any())).willReturn(true);
+        //when
+        boolean isLock = redissonLockProvider.tryLock("ACLK:123", 1, 15, TimeUnit.SECONDS);
+        //then
+        assertTrue(isLock);
+    }
+
+    @Test
+    @DisplayName("Redis 락 실패시 JVM 락도 해제")
+    void failGetLock_releaseLocalTier () throws Exception {
+        //given
+        given(redissonClient.getLock(anyString()))
+                .willReturn(rLock);
+        given(rLock.tryLock(anyLong(),anyLong(),any())).willReturn(false);
+        //when
+        boolean isLock = redissonLockProvider.tryLock("ACLK:123", 1, 15, TimeUnit.SECONDS);
+        //then
+        assertFalse(isLock);
+        assertTrue(tryLockOnOtherThread("ACLK:123"));
+    }
+
+    @Test
+    @DisplayName("같은 JVM 에서 이미 잡힌 계좌는 Redis 호출 없이 실패")
+    void failGetLock_localTierHeld () throws Exception {
+        //given
+        assertTrue(tryLockOnOtherThread("ACLK:123"));
+        //when
+        boolean isLock = redissonLockProvider.tryLock("ACLK:123", 100, 15_000, TimeUnit.MILLISECONDS);
+        //then
+        assertFalse(isLock);
+        verify(redissonClient, never()).getLock(anyString());
+    }
+
+    @Test
+    @DisplayName("Redis 해제가 실패해도 JVM 락은 해제")
+    void unLock_releaseLocalTierEvenIfRedisThrows () throws Exception {
+        //given
+        given(redissonClient.getLock(anyString()))
+                .willReturn(rLock);
+        given(rLock.tryLock(anyLong(),anyLong(),any())).willReturn(true);
+        willThrow(new IllegalMonitorStateException()).given(rLock).unlock();
+        redissonLockProvider.tryLock("ACLK:123", 1, 15, TimeUnit.SECONDS);
+        //when
+        assertThrows(IllegalMonitorStateException.class, () -> redissonLockProvider.unlock("ACLK:123"));
+        //then
+        assertTrue(tryLockOnOtherThread("ACLK:123"));
+    }
+
+    @Test
+    void successGetLockAsync () throws InterruptedException {
+        //given
+        given(redissonClient.getLock(anyString()))
+                .willReturn(rLock);
+        given(rLock.tryLockAsync(anyLong(),anyLong(),any(),anyLong()))
+                .willReturn(new CompletableFutureWrapper<>(true));
+        //when
+        boolean isLock = redissonLockProvider.tryLockAsync("ACLK:123", 1, 15, TimeUnit.SECONDS, 77L).join();
+        //then
+        assertTrue(isLock);
+        verify(localLockTier, never()).tryLock(anyString(), anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("여러 계좌 - Redis 락은 넘겨받은 순서로 잡는다")
+    void successGetLockAll () throws InterruptedException {
+        //given
+        given(redissonClient.getLock(anyString()))
+                .willReturn(rLock);
+        given(rLock.tryLock(anyLong(),anyLong(),any())).willReturn(true);
+        //when
+        boolean isLock = redissonLockProvider.tryLockAll(
+                List.of("ACLK:100", "ACLK:200", "ACLK:300"), 1, 15, TimeUnit.SECONDS);
+        //then
+        assertTrue(isLock);
+        InOrder inOrder = inOrder(redissonClient);
+        inOrder.verify(redissonClient).getLock("ACLK:100");
+        inOrder.verify(redissonClient).getLock("ACLK:200");
+        inOrder.verify(redissonClient).getLock("ACLK:300");
+    }
+
+    @Test
+    @DisplayName("여러 계좌 - Redis 락 하나가 실패하면 잡은 Redis 락과 JVM 락을 모두 해제")
+    void failGetLockAll_releaseAcquired () throws Exception {
+        //given
+        RLock otherLock = mock(RLock.class);
+        given(redissonClient.getLock("ACLK:100")).willReturn(rLock);
+        given(redissonClient.getLock("ACLK:200")).willReturn(otherLock);
+        given(rLock.tryLock(anyLong(),anyLong(),any())).willReturn(true);
+        given(otherLock.tryLock(anyLong(),anyLong(),any())).willReturn(false);
+        //when
+        boolean isLock = redissonLockProvider.tryLockAll(
+                List.of("ACLK:100", "ACLK:200", "ACLK:300"), 1, 15, TimeUnit.SECONDS);
+        //then
+        assertFalse(isLock);
+        verify(rLock).unlock();
+        verify(redissonClient, never()).getLock("ACLK:300");
+        assertTrue(tryLockOnOtherThread("ACLK:100"));
+        assertTrue(tryLockOnOtherThread("ACLK:200"));
+        assertTrue(tryLockOnOtherThread("ACLK:300"));
+    }
+
+    //다른 스레드에서 JVM 락을 잡아본다 (잡으면 그대로 들고 있는다)
+    private boolean tryLockOnOtherThread(String key) throws Exception {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return localLockTier.tryLock(key, 0, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        }).get();
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.account.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnowflakeTransactionIdGeneratorTest {
+    @Test
+    void increaseWithinSameMillisAndOverflowToNext() {
+        //given
+        long now = SnowflakeTransactionIdGenerator.EPOCH_MILLIS + 1000L;
+        SnowflakeTransactionIdGenerator generator =
+                new SnowflakeTransactionIdGenerator(3L, () -> now);
+
+        //when
+        long previous = generator.nextId();
+        for (int i = 0; i < 10_000; i++) {
+            long next = generator.nextId();
+            //then
+            assertTrue(next > previous);
+            assertEquals(3L, (next >>> SnowflakeTransactionIdGenerator.SEQUENCE_BITS)
+                    & SnowflakeTransactionIdGenerator.MAX_NODE_ID);
+            previous = next;
+        }
+    }
+
+    @Test
+    void keepOrderWhenClockGoesBack() {
+        //given
+        AtomicLong clock = new AtomicLong(SnowflakeTransactionIdGenerator.EPOCH_MILLIS + 5000L);
+        SnowflakeTransactionIdGenerator generator =
+                new SnowflakeTransactionIdGenerator(0L, clock::get);
+        long before = generator.nextId();
+
+        //when
+        clock.addAndGet(-1000L);
+        long after = generator.nextId();
+
+        //then
+        assertTrue(after > before);
+    }
+
+    @Test
+    void rejectOutOfRangeNodeId() {
+        //given
+        //when
+        //then
+        assertThrows(IllegalArgumentException.class,
+                () -> new SnowflakeTransactionIdGenerator(1024L, System::currentTimeMillis));
+    }
+}
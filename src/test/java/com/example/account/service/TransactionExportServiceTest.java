@@ -0,0 +1,132 @@
+package com.example.account.service;
+
+import com.example.account.exception.AccountException;
+import com.example.account.repository.TransactionRepository;
+import com.example.account.type.ErrorCode;
+import com.example.account.type.ExportFormat;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionExportServiceTest {
+    private static final LocalDateTime FROM = LocalDateTime.of(2024, 5, 1, 0, 0);
+    private static final LocalDateTime TO = LocalDateTime.of(2024, 6, 1, 0, 0);
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private TransactionExportService transactionExportService;
+
+    @BeforeEach
+    void setUp() {
+        transactionExportService = new TransactionExportService(transactionRepository, objectMapper);
+        ReflectionTestUtils.setField(transactionExportService, "entityManager", entityManager);
+    }
+
+    @Test
+    @DisplayName("NDJSON - 한 줄에 거래 하나")
+    void exportNdjson() throws Exception {
+        //given
+        given(transactionRepository.streamForExport(FROM, TO))
+                .willReturn(Stream.of(view(1L), view(2L)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        //when
+        long count = transactionExportService.export(FROM, TO, ExportFormat.NDJSON, out);
+        //then
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2L, count);
+        assertEquals(2, lines.length);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals("0000000000000001", first.get("transactionId").asText());
+        assertEquals("1000000012", first.get("accountNumber").asText());
+        assertEquals("USE", first.get("transactionType").asText());
+    }
+
+    @Test
+    @DisplayName("CSV - 헤더 다음에 거래 한 행씩")
+    void exportCsv() throws Exception {
+        //given
+        given(transactionRepository.streamForExport(FROM, TO))
+                .willReturn(Stream.of(view(1L)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        //when
+        transactionExportService.export(FROM, TO, ExportFormat.CSV, out);
+        //then
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals("transactionId,linkedTransactionId,accountNumber,transactionType,transactionResult,amount,balanceSnapshot,transactedAt",
+                lines[0]);
+        assertEquals("0000000000000001,,1000000012,USE,S,1000,9000," + FROM.plusMinutes(1), lines[1]);
+    }
+
+    @Test
+    @DisplayName("일정 행 수마다 응답으로 내보내고 영속성 컨텍스트를 비우고, 끝나면 스트림을 닫는다")
+    void flushAndClearPeriodically() throws Exception {
+        //given
+        AtomicBoolean closed = new AtomicBoolean();
+        given(transactionRepository.streamForExport(FROM, TO))
+                .willReturn(LongStream.rangeClosed(1, 2500).mapToObj(this::view).onClose(() -> closed.set(true)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        //when
+        long count = transactionExportService.export(FROM, TO, ExportFormat.CSV, out);
+        //then
+        assertEquals(2500L, count);
+        verify(entityManager, times(2)).clear();
+        assertTrue(closed.get());
+    }
+
+    @Test
+    @DisplayName("기간이 거꾸로면 실패")
+    void invalidRange() {
+        //given
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> transactionExportService.checkRange(TO, FROM));
+        //then
+        assertEquals(ErrorCode.INVALID_REQUEST, exception.getErrorCode());
+    }
+
+    private TransactionRepository.TransactionDetailView view(long id) {
+        return new TransactionRepository.TransactionDetailView() {
+            public String getAccountNumber() { return "1000000012"; }
+            public Long getId() { return id; }
+            public Long getTransactionId() { return id; }
+            public Long getLinkedTransactionId() { return null; }
+            public TransactionType getTransactionType() { return TransactionType.USE; }
+            public TransactionResultType getTransactionResultType() { return TransactionResultType.S; }
+            public Long getAmount() { return 1000L; }
+            public Long getBalanceSnapshot() { return 9000L; }
+            public LocalDateTime getTransactedAt() { return FROM.plusMinutes(1); }
+        };
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.account.service;
+
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionJournalTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void recoverAfterCrash() throws IOException {
+        //given
+        TransactionJournal journal = new TransactionJournal(directory, 100);
+        journal.append(List.of(entry(1L), entry(2L)));
+        journal.append(List.of(entry(3L)));
+        //서버가 죽은 경우: close 하지 않고 다시 연다
+
+        //when
+        Map<Long, TransactionJournal.Entry> recovered = new TransactionJournal(directory, 100).recover().stream()
+                .collect(Collectors.toMap(TransactionJournal.Entry::getTransactionId, Function.identity()));
+
+        //then
+        assertEquals(3, recovered.size());
+        assertEquals(1L, recovered.get(1L).getAccountId());
+        assertEquals(9000L, recovered.get(2L).getBalanceSnapshot());
+        assertEquals(TransactionType.USE, recovered.get(3L).getTransactionType());
+    }
+
+    @Test
+    void deleteSegmentWhenAllResolved() throws IOException {
+        //given
+        TransactionJournal journal = new TransactionJournal(directory, 2);
+        journal.append(List.of(entry(1L), entry(2L)));
+        journal.append(List.of(entry(3L)));//두번째 세그먼트로 넘어간다
+
+        //when
+        journal.sync();
+        journal.resolve(List.of(1L, 2L));
+
+        //then
+        assertEquals(1, countSegments());
+        journal.resolve(List.of(3L));
+        journal.close();
+        assertEquals(0, countSegments());
+    }
+
+    private long countSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    private static TransactionJournal.Entry entry(long transactionId) {
+        return TransactionJournal.Entry.builder()
+                .groupId(transactionId)
+                .transactionId(transactionId)
+                .accountId(1L)
+                .transactionType(TransactionType.USE)
+                .transactionResultType(TransactionResultType.S)
+                .amount(1000L)
+                .balanceSnapshot(9000L)
+                .transactedAt(LocalDateTime.now())
+                .build();
+    }
+}
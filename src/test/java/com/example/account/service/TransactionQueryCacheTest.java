@@ -0,0 +1,179 @@
+package com.example.account.service;
+
+import com.example.account.domain.Account;
+import com.example.account.domain.Transaction;
+import com.example.account.dto.QueryTransactionResponse;
+import com.example.account.dto.TransactionDto;
+import com.example.account.exception.AccountException;
+import com.example.account.type.ErrorCode;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RBucket;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.Codec;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionQueryCacheTest {
+    private static final String TRANSACTION_ID = "0000000000001234";
+
+    @Mock
+    private RedissonClient redissonClient;
+
+    @Mock
+    private RBucket<Object> bucket;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    @DisplayName("한번 읽은 거래는 다시 DB 로 가지 않는다")
+    void cacheLoadedTransaction() {
+        //given
+        TransactionQueryCache cache = new TransactionQueryCache(null, objectMapper, 100, 600, 2000, now::get);
+        AtomicInteger loads = new AtomicInteger();
+        Function<String, TransactionDto> loader = id -> {
+            loads.incrementAndGet();
+            return transactionDto(id);
+        };
+        //when
+        cache.get(TRANSACTION_ID, loader);
+        QueryTransactionResponse response = cache.get(TRANSACTION_ID, loader);
+        //then
+        assertEquals(1, loads.get());
+        assertEquals("1000000012", response.getAccountNumber());
+        assertEquals(TRANSACTION_ID, response.getTransactionId());
+    }
+
+    @Test
+    @DisplayName("노드 내부 캐시만 보는 조회 - 채운 거래만 돌려준다")
+    void getIfPresent() {
+        //given
+        TransactionQueryCache cache = new TransactionQueryCache(null, objectMapper, 100, 600, 2000, now::get);
+        //when
+        assertTrue(cache.getIfPresent(TRANSACTION_ID).isEmpty());
+        cache.put(transactionDto(TRANSACTION_ID));
+        //then
+        assertEquals("1000000012", cache.getIfPresent(TRANSACTION_ID).orElseThrow().getAccountNumber());
+    }
+
+    @Test
+    @DisplayName("없는 거래 id 는 negative-ttl 동안 DB 조회 없이 실패")
+    void cacheNotFound() {
+        //given
+        TransactionQueryCache cache = new TransactionQueryCache(null, objectMapper, 100, 600, 2000, now::get);
+        AtomicInteger loads = new AtomicInteger();
+        Function<String, TransactionDto> loader = id -> {
+            loads.incrementAndGet();
+            throw new AccountException(ErrorCode.TRANSACTION_NOT_FOUND);
+        };
+        //when
+        assertThrows(AccountException.class, () -> cache.get(TRANSACTION_ID, loader));
+        AccountException exception = assertThrows(AccountException.class, () -> cache.get(TRANSACTION_ID, loader));
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(2001));
+        assertThrows(AccountException.class, () -> cache.get(TRANSACTION_ID, loader));
+        //then
+        assertEquals(ErrorCode.TRANSACTION_NOT_FOUND, exception.getErrorCode());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("저장된 거래는 없음 기록을 덮어쓴다")
+    void putOverridesNotFound() {
+        //given
+        TransactionQueryCache cache = new TransactionQueryCache(null, objectMapper, 100, 600, 2000, now::get);
+        assertThrows(AccountException.class, () -> cache.get(TRANSACTION_ID, id -> {
+            throw new AccountException(ErrorCode.TRANSACTION_NOT_FOUND);
+        }));
+        //when
+        cache.putOnCommit(List.of(transaction()));
+        //then
+        QueryTransactionResponse response = cache.get(TRANSACTION_ID, id -> fail("DB 를 읽으면 안된다"));
+        assertEquals(TransactionType.USE, response.getTransactionType());
+        assertEquals(1000L, response.getAmount());
+    }
+
+    @Test
+    @DisplayName("최대 개수를 넘으면 오래 안 읽은 거래부터 내보낸다")
+    void evictLeastRecentlyUsed() {
+        //given
+        TransactionQueryCache cache = new TransactionQueryCache(null, objectMapper, 2, 600, 2000, now::get);
+        Function<String, TransactionDto> loader = this::transactionDto;
+        //when
+        cache.get("0000000000000001", loader);
+        cache.get("0000000000000002", loader);
+        cache.get("0000000000000003", loader);
+        //then
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    @DisplayName("near-cache 에 없으면 Redis 에서 읽는다")
+    void readFromRedis() throws Exception {
+        //given
+        TransactionQueryCache cache = new TransactionQueryCache(redissonClient, objectMapper, 100, 600, 2000, now::get);
+        given(redissonClient.getBucket(eq("account:transaction:" + TRANSACTION_ID), any(Codec.class)))
+                .willReturn(bucket);
+        given(bucket.get()).willReturn(objectMapper.writeValueAsString(
+                QueryTransactionResponse.from(transactionDto(TRANSACTION_ID))));
+        given(bucket.remainTimeToLive()).willReturn(60_000L);
+        //when
+        QueryTransactionResponse response = cache.get(TRANSACTION_ID, id -> fail("DB 를 읽으면 안된다"));
+        //then
+        assertEquals("1000000012", response.getAccountNumber());
+        assertEquals(1000L, response.getAmount());
+    }
+
+    @Test
+    @DisplayName("DB 에서 읽은 거래는 Redis 에도 남긴다")
+    void writeToRedis() {
+        //given
+        TransactionQueryCache cache = new TransactionQueryCache(redissonClient, objectMapper, 100, 600, 2000, now::get);
+        given(redissonClient.getBucket(eq("account:transaction:" + TRANSACTION_ID), any(Codec.class)))
+                .willReturn(bucket);
+        //when
+        cache.get(TRANSACTION_ID, this::transactionDto);
+        //then
+        verify(bucket).setAsync(contains("1000000012"), eq(600_000L), eq(TimeUnit.MILLISECONDS));
+    }
+
+    private TransactionDto transactionDto(String transactionId) {
+        return TransactionDto.builder()
+                .accountNumber("1000000012")
+                .transactionType(TransactionType.USE)
+                .transactionResultType(TransactionResultType.S)
+                .amount(1000L)
+                .transactionId(transactionId)
+                .transactedAt(LocalDateTime.now())
+                .build();
+    }
+
+    private static Transaction transaction() {
+        return Transaction.builder()
+                .account(Account.builder().accountNumber("1000000012").build())
+                .transactionType(TransactionType.USE)
+                .transactionResultType(TransactionResultType.S)
+                .amount(1000L)
+                .transactionId(0x1234L)
+                .transactedAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -4,6 +4,9 @@ import com.example.account.domain.Account;
 import com.example.account.domain.AccountUser;
 import com.example.account.domain.Transaction;
 import com.example.account.dto.TransactionDto;
+import com.example.account.dto.TransactionHistory;
+import com.example.account.dto.UseBalance;
+import com.example.account.dto.UseBalanceBatch;
 import com.example.account.exception.AccountException;
 import com.example.account.repository.AccountRepository;
 import com.example.account.repository.AccountUserRepository;
@@ -16,21 +19,28 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
 class TransactionServiceTest {
+    private static final long TRANSACTION_ID = 0x1234L;
+    private static final String TRANSACTION_ID_STRING = "0000000000001234";
+
     @Mock
     private TransactionRepository transactionRepository;
 
@@ -40,6 +50,24 @@ class TransactionServiceTest {
     @Mock
     private AccountUserRepository accountUserRepository;
 
+    @Mock
+    private TransactionIdGenerator transactionIdGenerator;
+
+    @Mock
+    private TransactionRecorder transactionRecorder;
+
+    @Mock
+    private FailedTransactionRecorder failedTransactionRecorder;
+
+    @Mock
+    private AccountCache accountCache;
+
+    @Mock
+    private TransactionQueryCache transactionQueryCache;
+
+    @Mock
+    private OwnedAccountLoader ownedAccountLoader;
+
     @InjectMocks
     private TransactionService transactionService;
 
@@ -56,9 +84,7 @@ class TransactionServiceTest {
                 .balance(10000L)
                 .accountNumber("1000000012").build();
 
-        given(accountUserRepository.findById(anyLong()))
-                .willReturn(Optional.of(accountUser));
-        given(transactionRepository.save(any()))
+        given(transactionRecorder.record(any()))
                 .willReturn(
                         Transaction.builder()
                                 .amount(5000L)
@@ -69,13 +95,13 @@ class TransactionServiceTest {
                                 .transactedAt(LocalDateTime.now())
                                 .build());
 
-        given(accountRepository.findByAccountNumber(anyString()))
-                .willReturn(Optional.of(Account
+        given(ownedAccountLoader.load(anyLong(), anyString()))
+                .willReturn(Account
                         .builder()
                         .accountUser(accountUser)
                         .accountStatus(AccountStatus.IN_USE)
                         .balance(10000L)
-                        .accountNumber("1000000012").build()));
+                        .accountNumber("1000000012").build());
         //when
         TransactionDto transactionDto = transactionService.useBalance(1L, "1000000012", 5000L);
 
@@ -84,6 +110,7 @@ class TransactionServiceTest {
         assertEquals(transactionDto.getTransactionType(),TransactionType.USE);
         assertEquals(transactionDto.getTransactionResultType(),TransactionResultType.S);
         assertEquals(transactionDto.getAmount(),5000L);
+        verify(accountUserRepository, times(0)).findById(anyLong());
     }
 
     @Test
@@ -94,9 +121,8 @@ class TransactionServiceTest {
 
                 .name("pobi").build();
         accountUser.setId(12L);
-        given(accountUserRepository.findById(anyLong()))
-                .willReturn(
-                        Optional.empty());
+        given(ownedAccountLoader.load(anyLong(), anyString()))
+                .willThrow(new AccountException(ErrorCode.USER_NOT_FOUND));
 
         //when
         AccountException accountException = assertThrows(AccountException.class, () ->
@@ -115,11 +141,8 @@ class TransactionServiceTest {
 
                 .name("pobi").build();
         accountUser.setId(12L);
-        given(accountUserRepository.findById(anyLong()))
-                .willReturn(
-                        Optional.of(accountUser));
-        given(accountRepository.findByAccountNumber(any()))
-                .willReturn(Optional.empty());
+        given(ownedAccountLoader.load(anyLong(), anyString()))
+                .willThrow(new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
         //when
         AccountException accountException = assertThrows(AccountException.class, () ->
                 transactionService.useBalance(12L, "1000000000",5000L));
@@ -137,19 +160,8 @@ class TransactionServiceTest {
 
                 .name("pobi").build();
         accountUser.setId(12L);
-        AccountUser accountUser2 = AccountUser.builder()
-                .name("ppp").build();
-        accountUser2.setId(13L);
-        given(accountUserRepository.findById(anyLong()))
-                .willReturn(Optional.of(accountUser));
-
-        given(accountRepository.findByAccountNumber(anyString()))
-                .willReturn(Optional.of(Account
-                        .builder()
-                        .accountUser(accountUser2)
-                        .balance(0L)
-                        .accountNumber("1000000012").build()));
-        ArgumentCaptor<Account> captor = ArgumentCaptor.forClass(Account.class);
+        given(ownedAccountLoader.load(anyLong(), anyString()))
+                .willThrow(new AccountException(ErrorCode.USER_ACCOUNT_UN_MATCH));
         //when
         AccountException accountException = assertThrows(AccountException.class,
                 () -> transactionService.useBalance(12L, "1000000000",5000L));
@@ -165,28 +177,24 @@ class TransactionServiceTest {
         AccountUser accountUser = AccountUser.builder()
                 .name("pobi").build();
         accountUser.setId(12L);
-        given(accountUserRepository.findById(anyLong()))
+        given(ownedAccountLoader.load(anyLong(), anyString()))
                 .willReturn(
-                        Optional.of(accountUser));
-        given(accountRepository.findByAccountNumber(anyString()))
-                .willReturn(Optional.of(
                         Account.builder()
                                 .accountUser(accountUser)
                                 .accountStatus(AccountStatus.IN_USE)
                                 .accountNumber("1000000002")
                                 .balance(110L)
-                                .build()));
-        ArgumentCaptor<Account> captor = ArgumentCaptor.forClass(Account.class);
+                                .build());
         //when
         AccountException accountException = assertThrows(AccountException.class,
                 () -> transactionService.useBalance(12L, "1000000000",5000L));
 
         assertEquals(accountException.getErrorCode(), ErrorCode.AMOUNT_EXCEED_BALANCE);
-        verify(transactionRepository,times(0)).save(any());
+        verify(transactionRecorder,times(0)).record(any());
     }
 
     @Test
-    @DisplayName("결제 실패시 실패한 결제 정보 저장")
+    @DisplayName("결제 실패시 조회한 계좌로 실패한 결제 정보 기록")
     void saveFailedUseTransaction(){
         //given
         AccountUser accountUser = AccountUser.builder()
@@ -198,32 +206,34 @@ class TransactionServiceTest {
                 .registeredAt(LocalDateTime.now())
                 .balance(10000L)
                 .accountNumber("1000000012").build();
+        given(ownedAccountLoader.load(anyLong(), anyString()))
+                .willReturn(account);
 
-        given(accountRepository.findByAccountNumber(anyString()))
-                .willReturn(Optional.of(account));
-
-        given(transactionRepository.save(any()))
-                .willReturn(Transaction.builder()
-                                .account(account)
-                                .amount(5000L)
-                                .account(account)
-                                .balanceSnapshot(5000L)
-                                .transactionType(TransactionType.USE)
-                                .transactionResultType(TransactionResultType.S)
-                                .transactionId("transactionId")
-                                .transactedAt(LocalDateTime.now())
-                                .build());
+        //when
+        assertThrows(AccountException.class,
+                () -> transactionService.useBalance(12L, "1000000012", 50000L));
 
+        //then
+        verify(failedTransactionRecorder, times(1)).record(TransactionType.USE, "1000000012",
+                account, 50000L, ErrorCode.AMOUNT_EXCEED_BALANCE);
+        verify(transactionRecorder, times(0)).record(any());
+        assertEquals(10000L, account.getBalance());
+    }
 
-        ArgumentCaptor<Transaction> captor = ArgumentCaptor.forClass(Transaction.class);
+    @Test
+    @DisplayName("계좌 조회 전 실패는 계좌 없이 기록")
+    void saveFailedUseTransaction_beforeAccountLoaded(){
+        //given
+        given(ownedAccountLoader.load(anyLong(), anyString()))
+                .willThrow(new AccountException(ErrorCode.USER_NOT_FOUND));
 
         //when
-        transactionService.saveFailedUseTransaction("1000000012",50000L);
+        assertThrows(AccountException.class,
+                () -> transactionService.useBalance(12L, "1000000012", 5000L));
 
         //then
-        verify(transactionRepository,times(1)).save(captor.capture());
-        assertEquals(10000L,captor.getValue().getBalanceSnapshot());
-        assertEquals(TransactionResultType.F,captor.getValue().getTransactionResultType());
+        verify(failedTransactionRecorder, times(1)).record(TransactionType.USE, "1000000012",
+                null, 5000L, ErrorCode.USER_NOT_FOUND);
     }
 
 
@@ -244,16 +254,16 @@ class TransactionServiceTest {
                 .account(account)
                 .balanceSnapshot(10000L - 5000L)
                 .transactionType(TransactionType.USE)
-                .transactionId("transactionId")
+                .transactionId(TRANSACTION_ID)
                 .transactionResultType(TransactionResultType.S)
                 .transactedAt(LocalDateTime.now())
                 .build();
 
 
-        given(transactionRepository.save(any()))
+        given(transactionRecorder.record(any()))
                 .willReturn(transaction);
 
-        given(transactionRepository.findByTransactionId(anyString()))
+        given(transactionRepository.findByTransactionId(anyLong()))
                 .willReturn(Optional.of(transaction));
 
         given(accountRepository.findByAccountNumber(anyString()))
@@ -263,18 +273,18 @@ class TransactionServiceTest {
                         .accountStatus(AccountStatus.IN_USE)
                         .balance(10000L)
                         .accountNumber("1000000012").build()));
-        given(transactionRepository.save(any()))
+        given(transactionRecorder.record(any()))
                 .willReturn(Transaction.builder()
                         .account(account)
                         .transactionType(TransactionType.CANCEL)
                         .transactionResultType(TransactionResultType.S)
-                        .transactionId("transactionId")
+                        .transactionId(TRANSACTION_ID)
                         .transactedAt(LocalDateTime.now())
                         .balanceSnapshot(5000L)
                         .amount(5000L)
                         .build());
         //when
-        TransactionDto transactionDto = transactionService.cancelBalance("transactionId", "1000000012", 5000L);
+        TransactionDto transactionDto = transactionService.cancelBalance(TRANSACTION_ID_STRING, "1000000012", 5000L);
 
         //then
         assertEquals(5000L,transactionDto.getBalanceSnapshot());
@@ -294,19 +304,19 @@ class TransactionServiceTest {
                 .amount(5000L)
                 .balanceSnapshot(10000L - 5000L)
                 .transactionType(TransactionType.USE)
-                .transactionId("transactionId")
+                .transactionId(TRANSACTION_ID)
                 .transactionResultType(TransactionResultType.S)
                 .transactedAt(LocalDateTime.now())
                 .build();
 
-        given(transactionRepository.findByTransactionId(anyString()))
+        given(transactionRepository.findByTransactionId(anyLong()))
                 .willReturn(Optional.of(transaction));
 
         given(accountRepository.findByAccountNumber(any()))
                 .willReturn(Optional.empty());
         //when
         AccountException accountException = assertThrows(AccountException.class, () ->
-                transactionService.cancelBalance("transactionId", "1000000000",5000L));
+                transactionService.cancelBalance(TRANSACTION_ID_STRING, "1000000000",5000L));
 
 
         //then
@@ -318,12 +328,12 @@ class TransactionServiceTest {
     void cancelBalance_transactionNotFound() {
         //given
 
-        given(transactionRepository.findByTransactionId(anyString()))
+        given(transactionRepository.findByTransactionId(anyLong()))
                 .willReturn(Optional.empty());
 
         //when
         AccountException accountException = assertThrows(AccountException.class, () ->
-                transactionService.cancelBalance("transactionId", "1000000000",5000L));
+                transactionService.cancelBalance(TRANSACTION_ID_STRING, "1000000000",5000L));
 
 
         //then
@@ -354,19 +364,19 @@ class TransactionServiceTest {
                 .account(account)
                 .balanceSnapshot(10000L - 5000L)
                 .transactionType(TransactionType.USE)
-                .transactionId("transactionId")
+                .transactionId(TRANSACTION_ID)
                 .transactionResultType(TransactionResultType.S)
                 .transactedAt(LocalDateTime.now())
                 .build();
 
-        given(transactionRepository.findByTransactionId(anyString()))
+        given(transactionRepository.findByTransactionId(anyLong()))
                 .willReturn(Optional.of(transaction));
 
         given(accountRepository.findByAccountNumber(any()))
                 .willReturn(Optional.of(account2));
         //when
         AccountException accountException = assertThrows(AccountException.class, () ->
-                transactionService.cancelBalance("transactionId", "1000000002",5000L));
+                transactionService.cancelBalance(TRANSACTION_ID_STRING, "1000000002",5000L));
 
 
         //then
@@ -391,19 +401,19 @@ class TransactionServiceTest {
                 .account(account)
                 .balanceSnapshot(9000L)
                 .transactionType(TransactionType.USE)
-                .transactionId("transactionId")
+                .transactionId(TRANSACTION_ID)
                 .transactionResultType(TransactionResultType.S)
                 .transactedAt(LocalDateTime.now())
                 .build();
 
-        given(transactionRepository.findByTransactionId(anyString()))
+        given(transactionRepository.findByTransactionId(anyLong()))
                 .willReturn(Optional.of(transaction));
 
         given(accountRepository.findByAccountNumber(any()))
                 .willReturn(Optional.of(account));
         //when
         AccountException accountException = assertThrows(AccountException.class, () ->
-                transactionService.cancelBalance("transactionId", "1000000002",5000L));
+                transactionService.cancelBalance(TRANSACTION_ID_STRING, "1000000002",5000L));
 
 
         //then
@@ -428,19 +438,19 @@ class TransactionServiceTest {
                 .account(account)
                 .balanceSnapshot(9000L)
                 .transactionType(TransactionType.CANCEL)
-                .transactionId("transactionId")
+                .transactionId(TRANSACTION_ID)
                 .transactionResultType(TransactionResultType.S)
                 .transactedAt(LocalDateTime.now().minusYears(1).minusDays(1))
                 .build();
 
-        given(transactionRepository.findByTransactionId(anyString()))
+        given(transactionRepository.findByTransactionId(anyLong()))
                 .willReturn(Optional.of(transaction));
 
         given(accountRepository.findByAccountNumber(any()))
                 .willReturn(Optional.of(account));
         //when
         AccountException accountException = assertThrows(AccountException.class, () ->
-                transactionService.cancelBalance("transactionId", "1000000002",5000L));
+                transactionService.cancelBalance(TRANSACTION_ID_STRING, "1000000002",5000L));
 
 
         //then
@@ -451,8 +461,129 @@ class TransactionServiceTest {
     @Test
     void getTransaction_transactionId(){
         //given
+        given(transactionRepository.findDetailByTransactionId(anyLong()))
+                .willReturn(Optional.of(detailView(TRANSACTION_ID, "1000000012")));
+
+        //when
+        TransactionDto transactionDto = transactionService.queryTransaction(TRANSACTION_ID_STRING);
+
+        //then
+        assertEquals(transactionDto.getTransactionType(),TransactionType.USE);
+        assertEquals(transactionDto.getTransactionResultType(),TransactionResultType.S);
+        assertEquals(transactionDto.getTransactionId(), TRANSACTION_ID_STRING);
+        assertEquals(transactionDto.getAmount(),1000L);
+        assertEquals(transactionDto.getAccountNumber(),"1000000012");
+        verify(transactionRepository, times(0)).findByTransactionId(anyLong());
+
+    }
+
+    @Test
+    @DisplayName("해당 유저 없음 -결제 실패")
+    void queryTransaction_TransactionNotFound() {
+        //given
+
+        given(transactionRepository.findDetailByTransactionId(anyLong()))
+                .willReturn(Optional.empty());
+
+        //when
+        AccountException accountException = assertThrows(AccountException.class, () ->
+                transactionService.queryTransaction(TRANSACTION_ID_STRING));
+
+
+        //then
+        assertEquals(ErrorCode.TRANSACTION_NOT_FOUND, accountException.getErrorCode());
+    }
+
+    @Test
+    @DisplayName("거래 id 형식 오류 - 조회 없이 실패")
+    void queryTransaction_MalformedTransactionId() {
+        //given
+        //when
+        AccountException accountException = assertThrows(AccountException.class, () ->
+                transactionService.queryTransaction("taxId"));
+
+        //then
+        assertEquals(ErrorCode.TRANSACTION_NOT_FOUND, accountException.getErrorCode());
+        verify(transactionRepository, times(0)).findDetailByTransactionId(anyLong());
+    }
+
+    @Test
+    @DisplayName("atomic 모드 - 조건부 UPDATE 로 차감")
+    void successUseBalance_atomic(){
+        //given
+        ReflectionTestUtils.setField(transactionService, "concurrencyMode", "atomic");
         AccountUser accountUser = AccountUser.builder()
+                .name("pobi").build();
+        accountUser.setId(12L);
+        Account account = Account.builder()
+                .accountUser(accountUser)
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(5000L)
+                .accountNumber("1000000012").build();
+
+        given(accountRepository.useBalanceIfSufficient(anyLong(), anyString(), anyLong(), any()))
+                .willReturn(1);
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account));
+        given(transactionRecorder.record(any()))
+                .willAnswer(invocation -> invocation.getArgument(0));
+        //when
+        TransactionDto transactionDto = transactionService.useBalance(12L, "1000000012", 5000L);
+
+        //then
+        assertEquals(5000L, transactionDto.getBalanceSnapshot());
+        assertEquals(TransactionResultType.S, transactionDto.getTransactionResultType());
+        verify(accountUserRepository, times(0)).findById(anyLong());
+    }
 
+    @Test
+    @DisplayName("atomic 모드 - 차감 실패시 원인 ErrorCode 를 찾는다")
+    void useBalance_atomic_resolveErrorCode(){
+        //given
+        ReflectionTestUtils.setField(transactionService, "concurrencyMode", "atomic");
+        AccountUser accountUser = AccountUser.builder()
+                .name("pobi").build();
+        accountUser.setId(12L);
+
+        given(accountRepository.useBalanceIfSufficient(anyLong(), anyString(), anyLong(), any()))
+                .willReturn(0);
+        given(accountUserRepository.findById(anyLong()))
+                .willReturn(Optional.of(accountUser));
+        given(accountCache.get(anyString()))
+                .willReturn(Optional.of(new AccountCache.Entry(1L, 12L, AccountStatus.UNREGISTERED)));
+        //when
+        AccountException accountException = assertThrows(AccountException.class,
+                () -> transactionService.useBalance(12L, "1000000012", 5000L));
+
+        //then
+        assertEquals(ErrorCode.ACCOUNT_ALREADY_UNREGISTERED, accountException.getErrorCode());
+        verify(transactionRecorder, times(0)).record(any());
+        verify(accountRepository, times(0)).findByAccountNumber(anyString());
+    }
+
+    @Test
+    @DisplayName("캐시에 다른 사람 계좌로 있으면 계좌를 읽지 않고 실패")
+    void useBalance_rejectByCachedAccount(){
+        //given
+        given(accountCache.getIfPresent(anyString()))
+                .willReturn(Optional.of(new AccountCache.Entry(1L, 13L, AccountStatus.IN_USE)));
+        given(ownedAccountLoader.resolveFailure(12L, "1000000012"))
+                .willReturn(new AccountException(ErrorCode.USER_ACCOUNT_UN_MATCH));
+        //when
+        AccountException accountException = assertThrows(AccountException.class,
+                () -> transactionService.useBalance(12L, "1000000012", 5000L));
+
+        //then
+        assertEquals(ErrorCode.USER_ACCOUNT_UN_MATCH, accountException.getErrorCode());
+        verify(ownedAccountLoader, times(0)).load(anyLong(), anyString());
+        verify(failedTransactionRecorder).record(TransactionType.USE, "1000000012", null, 5000L, ErrorCode.USER_ACCOUNT_UN_MATCH);
+    }
+
+    @Test
+    @DisplayName("읽은 계좌는 캐시에 남긴다")
+    void useBalance_putAccountToCache(){
+        //given
+        AccountUser accountUser = AccountUser.builder()
                 .name("pobi").build();
         accountUser.setId(12L);
         Account account = Account.builder()
@@ -460,46 +591,263 @@ class TransactionServiceTest {
                 .accountStatus(AccountStatus.IN_USE)
                 .balance(10000L)
                 .accountNumber("1000000012").build();
-        account.setId(1L);
-        Transaction transaction = Transaction.builder()
-                .amount(5000L)
-                .account(account)
-                .balanceSnapshot(9000L)
-                .transactionType(TransactionType.USE)
-                .transactionId("transactionId")
-                .transactionResultType(TransactionResultType.S)
-                .transactedAt(LocalDateTime.now())
-                .build();
+        given(ownedAccountLoader.load(anyLong(), anyString()))
+                .willReturn(account);
+        given(transactionRecorder.record(any()))
+                .willAnswer(invocation -> invocation.getArgument(0));
+        //when
+        transactionService.useBalance(12L, "1000000012", 1000L);
 
-        given(transactionRepository.findByTransactionId(anyString()))
-                .willReturn(Optional.of(transaction));
+        //then
+        verify(accountCache).put(account);
+    }
+
+    @Test
+    @DisplayName("일괄 잔액 사용 - 건별 성공/실패, 실패 거래 기록")
+    void useBalanceBatch(){
+        //given
+        AccountUser accountUser = AccountUser.builder()
+                .name("pobi").build();
+        accountUser.setId(12L);
+        Account account = Account.builder()
+                .accountUser(accountUser)
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(10000L)
+                .accountNumber("1000000012").build();
+        account.setId(1L);
+        given(accountUserRepository.findAllById(any()))
+                .willReturn(List.of(accountUser));
+        given(accountRepository.findByAccountNumberIn(any()))
+                .willReturn(List.of(account));
+        ArgumentCaptor<List<Transaction>> captor = ArgumentCaptor.forClass(List.class);
 
         //when
-        TransactionDto transactionDto = transactionService.queryTransaction("trxId");
+        List<UseBalanceBatch.ItemResult> results = transactionService.useBalanceBatch(List.of(
+                new UseBalance.Request(12L, "1000000012", 3000L),
+                new UseBalance.Request(12L, "1000000012", 8000L),
+                new UseBalance.Request(12L, "1000000099", 100L),
+                new UseBalance.Request(99L, "1000000012", 100L)));
 
         //then
-        assertEquals(transactionDto.getTransactionType(),TransactionType.USE);
-        assertEquals(transactionDto.getTransactionResultType(),TransactionResultType.S);
-        assertEquals(transactionDto.getTransactionId(),"transactionId");
-        assertEquals(transactionDto.getAmount(),5000L);
+        verify(transactionRecorder, times(1)).recordAll(captor.capture());
+        assertEquals(3, captor.getValue().size());
+        assertEquals(7000L, account.getBalance());
+
+        assertEquals(4, results.size());
+        assertEquals(TransactionResultType.S, results.get(0).getTransactionResult());
+        assertNull(results.get(0).getErrorCode());
+        assertEquals(TransactionResultType.F, results.get(1).getTransactionResult());
+        assertEquals(ErrorCode.AMOUNT_EXCEED_BALANCE, results.get(1).getErrorCode());
+        assertNotNull(results.get(1).getTransactionId());
+        assertEquals(ErrorCode.ACCOUNT_NOT_FOUND, results.get(2).getErrorCode());
+        assertNull(results.get(2).getTransactionId());
+        assertEquals(ErrorCode.USER_NOT_FOUND, results.get(3).getErrorCode());
+    }
+
+    @Test
+    @DisplayName("이체 - 출금/입금 거래를 서로 연결해서 저장")
+    void successTransferBalance(){
+        //given
+        AccountUser accountUser = AccountUser.builder()
+                .name("pobi").build();
+        accountUser.setId(12L);
+        Account fromAccount = Account.builder()
+                .accountUser(accountUser)
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(10000L)
+                .accountNumber("1000000012").build();
+        fromAccount.setId(1L);
+        Account toAccount = Account.builder()
+                .accountUser(AccountUser.builder().name("crong").build())
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(0L)
+                .accountNumber("1000000013").build();
+        toAccount.setId(2L);
+        given(ownedAccountLoader.load(12L, "1000000012"))
+                .willReturn(fromAccount);
+        given(accountRepository.findByAccountNumber("1000000013"))
+                .willReturn(Optional.of(toAccount));
+        given(transactionIdGenerator.nextId()).willReturn(100L, 101L);
+        ArgumentCaptor<List<Transaction>> captor = ArgumentCaptor.forClass(List.class);
 
+        //when
+        TransactionDto transactionDto = transactionService.transferBalance(12L, "1000000012", "1000000013", 3000L);
+
+        //then
+        verify(transactionRecorder, times(1)).recordAll(captor.capture());
+        Transaction withdrawal = captor.getValue().get(0);
+        Transaction deposit = captor.getValue().get(1);
+        assertEquals(TransactionType.TRANSFER_OUT, withdrawal.getTransactionType());
+        assertEquals(TransactionType.TRANSFER_IN, deposit.getTransactionType());
+        assertEquals(deposit.getTransactionId(), withdrawal.getLinkedTransactionId());
+        assertEquals(withdrawal.getTransactionId(), deposit.getLinkedTransactionId());
+        assertEquals(7000L, withdrawal.getBalanceSnapshot());
+        assertEquals(3000L, deposit.getBalanceSnapshot());
+        assertEquals("1000000012", transactionDto.getAccountNumber());
+        assertEquals("0000000000000065", transactionDto.getLinkedTransactionId());
     }
 
     @Test
-    @DisplayName("해당 유저 없음 -결제 실패")
-    void queryTransaction_TransactionNotFound() {
+    @DisplayName("이체 - 같은 계좌로는 이체 불가")
+    void transferBalance_sameAccount(){
         //given
+        //when
+        AccountException accountException = assertThrows(AccountException.class, () ->
+                transactionService.transferBalance(12L, "1000000012", "1000000012", 3000L));
 
-        given(transactionRepository.findByTransactionId(anyString()))
-                .willReturn(Optional.empty());
+        //then
+        assertEquals(ErrorCode.TRANSFER_SAME_ACCOUNT, accountException.getErrorCode());
+    }
+
+    @Test
+    @DisplayName("이체 - 잔액 부족이면 두 계좌 모두 그대로")
+    void transferBalance_exceedBalance(){
+        //given
+        AccountUser accountUser = AccountUser.builder()
+                .name("pobi").build();
+        accountUser.setId(12L);
+        Account fromAccount = Account.builder()
+                .accountUser(accountUser)
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(1000L)
+                .accountNumber("1000000012").build();
+        Account toAccount = Account.builder()
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(0L)
+                .accountNumber("1000000013").build();
+        given(ownedAccountLoader.load(12L, "1000000012"))
+                .willReturn(fromAccount);
+        given(accountRepository.findByAccountNumber("1000000013"))
+                .willReturn(Optional.of(toAccount));
 
         //when
         AccountException accountException = assertThrows(AccountException.class, () ->
-                transactionService.queryTransaction("taxId"));
+                transactionService.transferBalance(12L, "1000000012", "1000000013", 3000L));
+
+        //then
+        assertEquals(ErrorCode.AMOUNT_EXCEED_BALANCE, accountException.getErrorCode());
+        assertEquals(1000L, fromAccount.getBalance());
+        assertEquals(0L, toAccount.getBalance());
+        verify(transactionRecorder, times(0)).recordAll(any());
+    }
+
+    @Test
+    @DisplayName("atomic 모드 이체 - 입금 계좌번호가 앞이면 입금을 먼저 (두 행을 계좌번호 순서로 잠근다)")
+    void transferBalance_atomic_lockInAccountNumberOrder(){
+        //given
+        ReflectionTestUtils.setField(transactionService, "concurrencyMode", "atomic");
+        AccountUser accountUser = AccountUser.builder()
+                .name("pobi").build();
+        accountUser.setId(12L);
+        Account fromAccount = Account.builder()
+                .accountUser(accountUser)
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(7000L)
+                .accountNumber("1000000013").build();
+        fromAccount.setId(1L);
+        Account toAccount = Account.builder()
+                .accountUser(accountUser)
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(3000L)
+                .accountNumber("1000000012").build();
+        toAccount.setId(2L);
+        given(accountRepository.findByAccountNumber("1000000012"))
+                .willReturn(Optional.of(toAccount));
+        given(accountRepository.findByAccountNumber("1000000013"))
+                .willReturn(Optional.of(fromAccount));
+        given(accountRepository.useBalanceIfSufficient(anyLong(), anyString(), anyLong(), any()))
+                .willReturn(1);
+        given(accountRepository.findById(2L))
+                .willReturn(Optional.of(toAccount));
+        given(transactionIdGenerator.nextId()).willReturn(100L, 101L);
 
+        //when
+        transactionService.transferBalance(12L, "1000000013", "1000000012", 3000L);
 
         //then
-        assertEquals(ErrorCode.TRANSACTION_NOT_FOUND, accountException.getErrorCode());
+        InOrder inOrder = inOrder(accountRepository);
+        inOrder.verify(accountRepository).cancelBalance(eq(2L), eq(3000L), any());
+        inOrder.verify(accountRepository).useBalanceIfSufficient(eq(12L), eq("1000000013"), eq(3000L), any());
+    }
+
+    @Test
+    @DisplayName("거래 내역 - 한 건 더 읽히면 마지막 거래로 다음 커서를 만든다")
+    void getTransactionHistory_firstPage(){
+        //given
+        LocalDateTime now = LocalDateTime.now();
+        given(accountCache.get("1000000012"))
+                .willReturn(Optional.of(new AccountCache.Entry(1L, 12L, AccountStatus.IN_USE)));
+        given(transactionRepository.findHistory(eq(1L), isNull(), isNull(), any()))
+                .willReturn(List.of(historyView(3L, now), historyView(2L, now), historyView(1L, now.minusSeconds(1))));
+        //when
+        TransactionHistory.Response response = transactionService.getTransactionHistory(
+                "1000000012", null, null, null, 2);
+        //then
+        assertEquals(2, response.getItems().size());
+        assertEquals("0000000000000003", response.getItems().get(0).getTransactionId());
+        TransactionHistory.Cursor cursor = TransactionHistory.Cursor.decode(response.getNextCursor());
+        assertEquals(now, cursor.getTransactedAt());
+        assertEquals(2L, cursor.getId());
+    }
+
+    @Test
+    @DisplayName("거래 내역 - 커서 다음부터 읽고, 마지막 페이지면 커서가 없다")
+    void getTransactionHistory_nextPage(){
+        //given
+        LocalDateTime now = LocalDateTime.now();
+        String cursor = new TransactionHistory.Cursor(now, 2L).encode();
+        given(accountCache.get("1000000012"))
+                .willReturn(Optional.of(new AccountCache.Entry(1L, 12L, AccountStatus.IN_USE)));
+        given(transactionRepository.findHistoryBefore(eq(1L), eq(now), eq(2L), eq(TransactionType.USE), isNull(), any()))
+                .willReturn(List.of(historyView(1L, now.minusSeconds(1))));
+        //when
+        TransactionHistory.Response response = transactionService.getTransactionHistory(
+                "1000000012", TransactionType.USE, null, cursor, 2);
+        //then
+        assertEquals(1, response.getItems().size());
+        assertNull(response.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("거래 내역 - 페이지 크기가 범위를 벗어나거나 커서가 틀리면 실패")
+    void getTransactionHistory_invalidRequest(){
+        //given
+        given(accountCache.get("1000000012"))
+                .willReturn(Optional.of(new AccountCache.Entry(1L, 12L, AccountStatus.IN_USE)));
+        //when
+        AccountException tooLarge = assertThrows(AccountException.class, () ->
+                transactionService.getTransactionHistory("1000000012", null, null, null, 101));
+        AccountException badCursor = assertThrows(AccountException.class, () ->
+                transactionService.getTransactionHistory("1000000012", null, null, "not-a-cursor", 20));
+        //then
+        assertEquals(ErrorCode.INVALID_REQUEST, tooLarge.getErrorCode());
+        assertEquals(ErrorCode.INVALID_REQUEST, badCursor.getErrorCode());
     }
 
-}
\ No newline at end of file
+    private static TransactionRepository.TransactionHistoryView historyView(Long id, LocalDateTime transactedAt) {
+        return new TransactionRepository.TransactionHistoryView() {
+            public Long getId() { return id; }
+            public Long getTransactionId() { return id; }
+            public Long getLinkedTransactionId() { return null; }
+            public TransactionType getTransactionType() { return TransactionType.USE; }
+            public TransactionResultType getTransactionResultType() { return TransactionResultType.S; }
+            public Long getAmount() { return 1000L; }
+            public Long getBalanceSnapshot() { return 9000L; }
+            public LocalDateTime getTransactedAt() { return transactedAt; }
+        };
+    }
+
+    private static TransactionRepository.TransactionDetailView detailView(Long transactionId, String accountNumber) {
+        return new TransactionRepository.TransactionDetailView() {
+            public Long getId() { return 1L; }
+            public Long getTransactionId() { return transactionId; }
+            public Long getLinkedTransactionId() { return null; }
+            public TransactionType getTransactionType() { return TransactionType.USE; }
+            public TransactionResultType getTransactionResultType() { return TransactionResultType.S; }
+            public Long getAmount() { return 1000L; }
+            public Long getBalanceSnapshot() { return 9000L; }
+            public LocalDateTime getTransactedAt() { return LocalDateTime.now(); }
+            public String getAccountNumber() { return accountNumber; }
+        };
+    }
+}
@@ -0,0 +1,305 @@
+package com.example.account.service;
+
+import com.example.account.domain.Account;
+import com.example.account.domain.Transaction;
+import com.example.account.repository.AccountRepository;
+import com.example.account.repository.TransactionRepository;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class WriteBehindTransactionRecorderTest {
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path journalDir;
+
+    private WriteBehindTransactionRecorder recorder;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        recorder = newRecorder(100);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        recorder.destroy();
+    }
+
+    @Test
+    @DisplayName("커밋 후에 모아서 저장하고, 저장 전까지는 findUnflushed 로 찾는다")
+    void flushAfterCommit() {
+        //given
+        TransactionSynchronizationManager.initSynchronization();
+        Transaction transaction = transaction(10L);
+
+        //when
+        recorder.record(transaction);
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.forEach(synchronization -> synchronization.beforeCommit(false));
+        verify(transactionRepository, never()).saveAll(anyList());
+        synchronizations.forEach(synchronization ->
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        //then
+        verify(transactionRepository, timeout(1000)).saveAll(List.of(transaction));
+    }
+
+    @Test
+    @DisplayName("롤백되면 저장하지 않는다")
+    void discardOnRollback() throws Exception {
+        //given
+        TransactionSynchronizationManager.initSynchronization();
+        Transaction transaction = transaction(11L);
+
+        //when
+        recorder.record(transaction);
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.forEach(synchronization -> synchronization.beforeCommit(false));
+        synchronizations.forEach(synchronization ->
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        recorder.destroy();
+
+        //then
+        verify(transactionRepository, never()).saveAll(anyList());
+        assertTrue(recorder.findUnflushed(11L).isEmpty());
+    }
+
+    @Test
+    @DisplayName("트랜잭션 밖에서는 바로 저장")
+    void saveDirectlyWithoutTransaction() {
+        //given
+        Transaction transaction = transaction(12L);
+
+        //when
+        recorder.record(transaction);
+
+        //then
+        verify(transactionRepository).saveAll(List.of(transaction));
+    }
+
+    @Test
+    @DisplayName("복구 - 커밋된 잔액을 되짚어 커밋된 기록만, DB 에 없는 것만 다시 넣는다")
+    void replayOnlyCommitted() throws Exception {
+        //given
+        //지난 실행에서 저널에 쓰고 죽은 경우: 10000 -> 9000 (13, 이미 DB 에 씀) -> 8500 (14, 롤백) / 9000 -> 8000 (15)
+        TransactionJournal journal = new TransactionJournal(journalDir, 1000);
+        journal.append(List.of(entry(13L, 1000L, 9000L)));
+        journal.append(List.of(entry(14L, 500L, 8500L)));
+        journal.append(List.of(entry(15L, 1000L, 8000L)));
+        Account account = Account.builder().balance(8000L).build();
+        account.setId(1L);
+        given(accountRepository.findAllById(Set.of(1L))).willReturn(List.of(account));
+        given(transactionRepository.findExistingTransactionIds(List.of(13L, 15L))).willReturn(List.of(13L));
+        WriteBehindTransactionRecorder restarted = newRecorder(100);
+
+        //when
+        try {
+            restarted.replayJournal();
+        } finally {
+            restarted.destroy();
+        }
+
+        //then
+        ArgumentCaptor<List<Transaction>> captor = ArgumentCaptor.forClass(List.class);
+        verify(transactionRepository).saveAll(captor.capture());
+        assertEquals(List.of(15L), captor.getValue().stream().map(Transaction::getTransactionId).toList());
+    }
+
+    @Test
+    @DisplayName("복구 - 다시 넣어도 실패하는 기록은 dead-letter 파일로 옮기고 기동은 계속한다")
+    void deadLetterRecordThatFailsReplay() throws Exception {
+        //given
+        TransactionJournal journal = new TransactionJournal(journalDir, 1000);
+        journal.append(List.of(entry(16L, 1000L, 9000L)));
+        journal.append(List.of(entry(17L, 1000L, 8000L)));
+        Account account = Account.builder().balance(8000L).build();
+        account.setId(1L);
+        given(accountRepository.findAllById(Set.of(1L))).willReturn(List.of(account));
+        given(transactionRepository.findExistingTransactionIds(List.of(16L, 17L))).willReturn(List.of());
+        given(transactionRepository.saveAll(anyList())).willAnswer(invocation -> {
+            List<Transaction> transactions = invocation.getArgument(0);
+            if (transactions.stream().anyMatch(transaction -> transaction.getTransactionId() == 17L)) {
+                throw new IllegalStateException("bad record");
+            }
+            return transactions;
+        });
+        WriteBehindTransactionRecorder restarted = newRecorder(100);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        restarted.bindTo(meterRegistry);
+
+        //when
+        try {
+            restarted.replayJournal();
+        } finally {
+            restarted.destroy();
+        }
+
+        //then
+        assertEquals(1, meterRegistry.get("account.transaction.write_behind.dead_lettered")
+                .functionCounter().count());
+        List<String> deadLetters = Files.readAllLines(journalDir.resolve("dead-letter.journal"));
+        assertEquals(1, deadLetters.size());
+        assertTrue(deadLetters.get(0).contains("|17|"));
+        //복구한 세그먼트는 지운다
+        assertTrue(new TransactionJournal(journalDir, 1000).recover().isEmpty());
+    }
+
+    @Test
+    @DisplayName("혼자서도 저장에 실패하는 기록은 격리하고 나머지는 저장한다")
+    void quarantineRecordThatKeepsFailing() {
+        //given
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        recorder.bindTo(meterRegistry);
+        given(transactionRepository.saveAll(anyList())).willAnswer(invocation -> {
+            List<Transaction> transactions = invocation.getArgument(0);
+            if (transactions.stream().anyMatch(transaction -> transaction.getTransactionId() == 21L)) {
+                throw new IllegalStateException("bad record");
+            }
+            return transactions;
+        });
+
+        Transaction first = transaction(20L);
+        Transaction last = transaction(22L);
+
+        //when
+        commit(List.of(first, transaction(21L), last));
+
+        //then
+        verify(transactionRepository, timeout(1000)).saveAll(List.of(first));
+        verify(transactionRepository, timeout(1000)).saveAll(List.of(last));
+        assertEquals(1, meterRegistry.get("account.transaction.write_behind.quarantined")
+                .functionCounter().count());
+        //커밋된 기록이라 다음 기동때까지 조회는 된다
+        assertTrue(recorder.findUnflushed(21L).isPresent());
+    }
+
+    @Test
+    @DisplayName("큐가 가득 차도 커밋 후 처리는 기다리지 않고, 넘친 기록도 저장한다")
+    void overflowWithoutBlocking() throws Exception {
+        //given
+        WriteBehindTransactionRecorder small = newRecorder(1);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        small.bindTo(meterRegistry);
+        CountDownLatch release = new CountDownLatch(1);
+        given(transactionRepository.saveAll(anyList())).willAnswer(invocation -> {
+            release.await();
+            return invocation.getArgument(0);
+        });
+
+        try {
+            //when
+            assertTimeoutPreemptively(Duration.ofSeconds(1), () ->
+                    commit(small, List.of(transaction(30L), transaction(31L), transaction(32L), transaction(33L))));
+
+            //then
+            assertTrue(meterRegistry.get("account.transaction.write_behind.overflow")
+                    .functionCounter().count() >= 2);
+            release.countDown();
+            for (long transactionId = 30L; transactionId <= 33L; transactionId++) {
+                verify(transactionRepository, timeout(1000)).saveAll(containing(transactionId));
+            }
+        } finally {
+            release.countDown();
+            small.destroy();
+        }
+    }
+
+    private static List<Transaction> containing(long transactionId) {
+        return argThat(transactions -> transactions.stream()
+                .anyMatch(transaction -> transaction.getTransactionId() == transactionId));
+    }
+
+    private void commit(List<Transaction> transactions) {
+        commit(recorder, transactions);
+    }
+
+    private static void commit(WriteBehindTransactionRecorder recorder, List<Transaction> transactions) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            recorder.recordAll(transactions);
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            synchronizations.forEach(synchronization -> synchronization.beforeCommit(false));
+            synchronizations.forEach(synchronization ->
+                    synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    //실패한 배치는 재시도 없이 바로 나눠서 쓴다
+    private WriteBehindTransactionRecorder newRecorder(int queueCapacity) throws Exception {
+        return new WriteBehindTransactionRecorder(transactionRepository, accountRepository, transactionManager,
+                queueCapacity, 10, 0, journalDir.toString(), 1000, 10);
+    }
+
+    private static TransactionJournal.Entry entry(long transactionId, long amount, long balanceSnapshot) {
+        return TransactionJournal.Entry.builder()
+                .groupId(transactionId)
+                .transactionId(transactionId)
+                .accountId(1L)
+                .transactionType(TransactionType.USE)
+                .transactionResultType(TransactionResultType.S)
+                .amount(amount)
+                .balanceSnapshot(balanceSnapshot)
+                .transactedAt(LocalDateTime.now())
+                .build();
+    }
+
+    private static Transaction transaction(long transactionId) {
+        Account account = Account.builder()
+                .accountNumber("1000000018")
+                .balance(9000L)
+                .version(3L)
+                .build();
+        account.setId(1L);
+        return Transaction.builder()
+                .transactionType(TransactionType.USE)
+                .transactionResultType(TransactionResultType.S)
+                .account(account)
+                .amount(1000L)
+                .balanceSnapshot(9000L)
+                .transactionId(transactionId)
+                .transactedAt(LocalDateTime.now())
+                .build();
+    }
+}